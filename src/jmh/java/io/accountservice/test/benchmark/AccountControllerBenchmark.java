@@ -0,0 +1,76 @@
+package io.accountservice.test.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Benchmark of AccountController request handling through MockMvc: mapping,
+ * argument resolution, HAL links and message conversion, without network.
+ *
+ * @author Austr0s
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountControllerBenchmark {
+
+	private static final String TRANSACTION = "{\"origin\":1,\"payee\":3,\"amountToTransfer\":1}";
+
+	private ConfigurableApplicationContext context;
+
+	private MockMvc mockMvc;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public String getOne() throws Exception {
+		return mockMvc.perform(get("/accounts/3").accept("application/hal+json")).andReturn().getResponse()
+				.getContentAsString();
+	}
+
+	@Benchmark
+	public String getAll() throws Exception {
+		return mockMvc.perform(get("/accounts").accept("application/hal+json")).andReturn().getResponse()
+				.getContentAsString();
+	}
+
+	@Benchmark
+	public String transaction() throws Exception {
+		return mockMvc
+				.perform(post("/accounts/1/payee/3").contentType(MediaType.APPLICATION_JSON).content(TRANSACTION)
+						.accept("application/hal+json"))
+				.andReturn().getResponse().getContentAsString();
+	}
+}
@@ -0,0 +1,60 @@
+package io.accountservice.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Benchmark of Jackson serialization of one Account with its HAL self link, as
+ * written by getOne and transaction endpoints.
+ *
+ * @author Austr0s
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountSerializationBenchmark {
+
+	private ObjectMapper mapper;
+
+	private Account account;
+
+	@Setup
+	public void setUp() {
+		mapper = new ObjectMapper();
+		mapper.registerModule(new Jackson2HalModule());
+		mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+		account = Account.builder().id(1L).name("Account 1").currency("EUR").balance(Long.valueOf(500000))
+				.treasury(Boolean.FALSE).version(0L).build();
+		account.add(new Link("http://localhost:9090/api/v1/accounts/1"));
+	}
+
+	@Benchmark
+	public byte[] serializeHal() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(account);
+	}
+}
@@ -0,0 +1,68 @@
+package io.accountservice.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.AccountService;
+
+/**
+ * Benchmark of AccountService hot paths against the in-memory database.
+ * Transactions go from a Treasury Account, so they never fail on balance.
+ *
+ * @author Austr0s
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+	private ConfigurableApplicationContext context;
+
+	private AccountService service;
+
+	private final TransactionOperationDto transaction = new TransactionOperationDto(1L, 3L, Long.valueOf(100));
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkApplication.start(WebApplicationType.NONE);
+		service = context.getBean(AccountService.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Account findOne() {
+		return service.findOne(3L).orElseThrow(IllegalStateException::new);
+	}
+
+	@Benchmark
+	public Object findAll() {
+		return service.findAll();
+	}
+
+	@Benchmark
+	public Account transference() {
+		return service.transference(transaction).orElseThrow(IllegalStateException::new);
+	}
+}
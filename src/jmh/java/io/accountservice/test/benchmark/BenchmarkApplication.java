@@ -0,0 +1,33 @@
+package io.accountservice.test.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.accountservice.test.AccountServiceTestApplication;
+
+/**
+ * Starts the application for benchmarks, with the in-memory database of the
+ * tests and without SQL logging.
+ *
+ * @author Austr0s
+ */
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Method to start the application.
+	 *
+	 * @param webApplicationType SERVLET to start the web layer too.
+	 * @return application context. Must be closed on tear down.
+	 */
+	static ConfigurableApplicationContext start(WebApplicationType webApplicationType) {
+		return new SpringApplicationBuilder(AccountServiceTestApplication.class) //
+				.web(webApplicationType) //
+				.properties("server.port=0", "spring.main.banner-mode=off", "spring.jpa.show-sql=false",
+						"logging.level.root=WARN") //
+				.run();
+	}
+}
@@ -0,0 +1,67 @@
+package io.accountservice.test.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to AccountService and AccountRepository. Each timer is
+ * tagged by operation, outcome and exception type, and publishes a percentile
+ * histogram, so its count is the throughput and its ERROR outcome the errors of
+ * the operation.
+ *
+ * @author Austr0s
+ */
+@Aspect
+@Component
+public class AccountMetricsAspect {
+
+	/**
+	 * Timer of AccountService calls.
+	 */
+	public static final String SERVICE_TIMER = "account.service.calls";
+
+	/**
+	 * Timer of AccountRepository calls.
+	 */
+	public static final String REPOSITORY_TIMER = "account.repository.calls";
+
+	private static final String NONE = "none";
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Around("execution(public * *(..)) && !execution(* java.lang.Object.*(..)) && this(io.accountservice.test.service.AccountService)")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(SERVICE_TIMER, "Latency of AccountService calls", joinPoint);
+	}
+
+	@Around("execution(public * *(..)) && !execution(* java.lang.Object.*(..)) && this(io.accountservice.test.repository.AccountRepository)")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(REPOSITORY_TIMER, "Latency of AccountRepository calls", joinPoint);
+	}
+
+	private Object time(String name, String description, ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(registry);
+		String exception = NONE;
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(name).description(description) //
+					.tag("operation", joinPoint.getSignature().getName()) //
+					.tag("outcome", NONE.equals(exception) ? "SUCCESS" : "ERROR") //
+					.tag("exception", exception) //
+					.publishPercentiles(0.5, 0.95, 0.99) //
+					.publishPercentileHistogram() //
+					.register(registry));
+		}
+	}
+}
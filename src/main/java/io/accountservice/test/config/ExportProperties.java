@@ -0,0 +1,35 @@
+package io.accountservice.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the bulk export of Accounts. Bound from
+ * <code>account.export.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.export")
+public class ExportProperties {
+
+	/**
+	 * Directory where export files are written.
+	 */
+	private String directory = System.getProperty("java.io.tmpdir") + "/account-export";
+
+	/**
+	 * Rows fetched from database per round trip while reading the cursor.
+	 */
+	private int fetchSize = 1000;
+
+	/**
+	 * Bytes buffered before they are compressed and written out.
+	 */
+	private int bufferSize = 64 * 1024;
+}
@@ -0,0 +1,34 @@
+package io.accountservice.test.config;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for hot Accounts, whose balance is split into slots
+ * so concurrent transactions don't serialize on one row. Bound from
+ * <code>account.hot.*</code>. Used when transfer mode is DATABASE.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.hot")
+public class HotAccountProperties {
+
+	/**
+	 * Ids of the Accounts split into slots. None by default.
+	 */
+	private Set<Long> accounts = new HashSet<>();
+
+	/**
+	 * Number of balance slots of each hot Account.
+	 */
+	private int slots = 8;
+}
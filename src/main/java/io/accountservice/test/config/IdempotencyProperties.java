@@ -0,0 +1,43 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for Idempotency-Key handling of transactions. Bound
+ * from <code>account.idempotency.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.idempotency")
+public class IdempotencyProperties {
+
+	/**
+	 * Max keys held in memory.
+	 */
+	private long maximumSize = 10_000;
+
+	/**
+	 * Time a key is held in memory since its transaction was applied.
+	 */
+	private Duration timeToLive = Duration.ofMinutes(10);
+
+	/**
+	 * Time a key is kept on database, where it is looked up once evicted from
+	 * memory.
+	 */
+	private Duration retention = Duration.ofHours(24);
+
+	/**
+	 * Delay between two purges of keys older than retention from database.
+	 */
+	private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,26 @@
+package io.accountservice.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the bulk import of Accounts. Bound from
+ * <code>account.import.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.import")
+public class ImportProperties {
+
+	/**
+	 * Accounts validated together and inserted in one database transaction. Rows
+	 * of a file are read one chunk at a time.
+	 */
+	private int chunkSize = 1000;
+}
@@ -0,0 +1,34 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the transfer journal and its balance snapshots.
+ * Bound from <code>account.journal.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.journal")
+public class JournalProperties {
+
+	/**
+	 * Delay between two snapshots of balances.
+	 */
+	private Duration snapshotInterval = Duration.ofMinutes(1);
+
+	/**
+	 * Age a journal entry must reach before it is folded into a snapshot. Must be
+	 * longer than any database transaction, so no entry with a lower sequence
+	 * number can still commit after the snapshot is taken.
+	 */
+	private Duration snapshotLag = Duration.ofMinutes(1);
+}
@@ -0,0 +1,36 @@
+package io.accountservice.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the reactive Account API. Bound from
+ * <code>account.reactive.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.reactive")
+public class ReactiveProperties {
+
+	/**
+	 * Max threads blocked on database at once for reactive requests.
+	 */
+	private int threadCap = 32;
+
+	/**
+	 * Max database calls waiting for one of those threads.
+	 */
+	private int queuedTaskCap = 100_000;
+
+	/**
+	 * Accounts read per query while streaming all Accounts. Next page is only read
+	 * when the client has consumed the previous one.
+	 */
+	private int pageSize = 500;
+}
@@ -0,0 +1,70 @@
+package io.accountservice.test.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.accountservice.test.datasource.ReplicaHeartbeat;
+import io.accountservice.test.datasource.ReplicaRoutingDataSource;
+
+/**
+ * Read replica configuration. The DataSource used by the application routes
+ * read-only transactions to a replica fresh enough and everything else to
+ * primary. Connections are taken lazily, on the first statement, so the route
+ * is chosen once the transaction is known to be read-only.
+ *
+ * @author Austr0s
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+			DataSourceProperties dataSourceProperties, ReplicaProperties properties) {
+		List<HikariDataSource> replicas = new ArrayList<>(properties.getNodes().size());
+		for (int i = 0; i < properties.getNodes().size(); i++) {
+			ReplicaProperties.Node node = properties.getNodes().get(i);
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + i);
+			replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+			replica.setJdbcUrl(node.getUrl());
+			replica.setUsername(node.getUsername());
+			replica.setPassword(node.getPassword());
+			replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+			replica.setReadOnly(true);
+			replicas.add(replica);
+		}
+		return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxStaleness());
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+
+	@Bean
+	public ReplicaHeartbeat replicaHeartbeat(HikariDataSource primaryDataSource,
+			ReplicaRoutingDataSource replicaRoutingDataSource, ReplicaProperties properties) {
+		return new ReplicaHeartbeat(primaryDataSource, replicaRoutingDataSource, properties.getHeartbeatInterval());
+	}
+
+}
@@ -0,0 +1,66 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for read replicas. Bound from
+ * <code>account.replica.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.replica")
+public class ReplicaProperties {
+
+	/**
+	 * Whether read-only queries are routed to replicas.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Replica databases. Replication itself is left to the database.
+	 */
+	private List<Node> nodes = new ArrayList<>();
+
+	/**
+	 * Max lag of a replica to be read. Queries go to primary while every replica
+	 * lags more.
+	 */
+	private Duration maxStaleness = Duration.ofSeconds(1);
+
+	/**
+	 * Delay between two heartbeats written on primary and read on replicas to
+	 * measure their lag.
+	 */
+	private Duration heartbeatInterval = Duration.ofMillis(200);
+
+	/**
+	 * Whether an Account changed on this node is read from primary until a
+	 * replica has the change.
+	 */
+	private boolean readYourWrites = true;
+
+	@Getter
+	@Setter
+	public static class Node {
+
+		/**
+		 * JDBC url of the replica.
+		 */
+		private String url;
+
+		private String username;
+
+		private String password;
+	}
+}
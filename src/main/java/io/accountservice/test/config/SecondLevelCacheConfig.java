@@ -0,0 +1,81 @@
+package io.accountservice.test.config;
+
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.accountservice.test.model.entity.Account;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Hibernate second-level cache configuration. Regions are local Caffeine caches
+ * created through JCache, sized by {@link SecondLevelCacheProperties}, and their
+ * hit, miss and eviction statistics are bound to actuator metrics.
+ *
+ * @author Austr0s
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+	/**
+	 * Region of cacheable query results. Hibernate default name.
+	 */
+	public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+	/**
+	 * Region of last update of each table, used to invalidate query results.
+	 * Hibernate default name.
+	 */
+	public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+	@Bean
+	public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+		CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+		CacheManager cacheManager = provider.getCacheManager();
+
+		cacheManager.createCache(Account.class.getName(), region(properties.getEntity()));
+		cacheManager.createCache(QUERY_RESULTS_REGION, region(properties.getQuery()));
+		// Timestamps must never be evicted or query results could be served stale.
+		cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, statistics(new CaffeineConfiguration<>()));
+
+		return cacheManager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+		return hibernateProperties -> hibernateProperties.put("hibernate.javax.cache.cache_manager",
+				secondLevelCacheManager);
+	}
+
+	@Bean
+	public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+		return registry -> {
+			for (String name : secondLevelCacheManager.getCacheNames())
+				JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(name));
+		};
+	}
+
+	private CaffeineConfiguration<Object, Object> region(SecondLevelCacheProperties.Region region) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+		configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+		return statistics(configuration);
+	}
+
+	private CaffeineConfiguration<Object, Object> statistics(CaffeineConfiguration<Object, Object> configuration) {
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+}
@@ -0,0 +1,55 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for Hibernate second-level cache regions. Bound from
+ * <code>account.cache.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.cache")
+public class SecondLevelCacheProperties {
+
+	/**
+	 * Region holding Account entities.
+	 */
+	private Region entity = new Region(10_000, Duration.ofMinutes(10));
+
+	/**
+	 * Region holding results of cacheable queries.
+	 */
+	private Region query = new Region(1_000, Duration.ofMinutes(1));
+
+	@Getter
+	@Setter
+	public static class Region {
+
+		/**
+		 * Max number of entries held by the region.
+		 */
+		private long maximumSize;
+
+		/**
+		 * Time an entry lives on the region after it was written.
+		 */
+		private Duration timeToLive;
+
+		public Region() {
+		}
+
+		public Region(long maximumSize, Duration timeToLive) {
+			this.maximumSize = maximumSize;
+			this.timeToLive = timeToLive;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package io.accountservice.test.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.accountservice.test.service.store.sharded.ShardedAccountStore;
+
+/**
+ * Sharded store configuration. One connection pool is opened for each shard
+ * and the schema of every shard is created on start.
+ *
+ * @author Austr0s
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "sharded")
+public class ShardedStoreConfig {
+
+	private final List<HikariDataSource> pools = new ArrayList<>();
+
+	@Bean
+	public ShardedAccountStore shardedAccountStore(StoreProperties properties) {
+		StoreProperties.Sharded sharded = properties.getSharded();
+		if (sharded.getShards().isEmpty())
+			throw new IllegalStateException("account.store.sharded.shards must list at least one shard");
+
+		List<DataSource> shards = new ArrayList<>(sharded.getShards().size());
+		for (int i = 0; i < sharded.getShards().size(); i++) {
+			StoreProperties.Shard shard = sharded.getShards().get(i);
+			HikariDataSource pool = new HikariDataSource();
+			pool.setPoolName("shard-" + i);
+			pool.setJdbcUrl(shard.getUrl());
+			pool.setUsername(shard.getUsername());
+			pool.setPassword(shard.getPassword());
+			pool.setMaximumPoolSize(sharded.getPoolSize());
+			pools.add(pool);
+			shards.add(pool);
+		}
+		return new ShardedAccountStore(shards, sharded.getRelayInterval().toMillis());
+	}
+
+	@PreDestroy
+	public void close() {
+		pools.forEach(HikariDataSource::close);
+	}
+
+}
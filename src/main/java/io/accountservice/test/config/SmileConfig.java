@@ -0,0 +1,52 @@
+package io.accountservice.test.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile binary encoding of request and response bodies. The converter is added
+ * after the JSON and HAL ones, so it is only used when a client sends or asks
+ * for <code>application/x-jackson-smile</code>. Its mapper has the same
+ * settings as the JSON one, plus HAL rendering of collections.
+ *
+ * @author Austr0s
+ */
+@Configuration
+public class SmileConfig implements WebMvcConfigurer {
+
+	/**
+	 * Builder with the settings of the JSON mapper. A new one is created for this
+	 * configuration.
+	 */
+	@Autowired
+	private Jackson2ObjectMapperBuilder builder;
+
+	@Autowired
+	private ObjectProvider<LinkRelationProvider> relProvider;
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		ObjectMapper mapper = builder.factory(new SmileFactory()).build();
+		mapper.registerModule(new Jackson2HalModule());
+		mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				relProvider.getIfAvailable(DefaultLinkRelationProvider::new), CurieProvider.NONE,
+				MessageResolver.DEFAULTS_ONLY));
+
+		converters.add(new MappingJackson2SmileHttpMessageConverter(mapper));
+	}
+}
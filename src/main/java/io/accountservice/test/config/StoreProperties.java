@@ -0,0 +1,148 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.service.store.StoreType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the store of Accounts. Bound from
+ * <code>account.store.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.store")
+public class StoreProperties {
+
+	/**
+	 * Store where Accounts are kept.
+	 */
+	private StoreType type = StoreType.JPA;
+
+	/**
+	 * Shard settings, used when type is SHARDED.
+	 */
+	private Sharded sharded = new Sharded();
+
+	/**
+	 * MVStore settings, used when type is MVSTORE.
+	 */
+	private MvStore mvstore = new MvStore();
+
+	/**
+	 * Memory-mapped file settings, used when type is MMAP.
+	 */
+	private Mmap mmap = new Mmap();
+
+	@Getter
+	@Setter
+	public static class Sharded {
+
+		/**
+		 * Databases holding the Accounts. An Account lives on the shard given by its
+		 * id modulo the number of shards, so shards can't be added once Accounts
+		 * exist.
+		 */
+		private List<Shard> shards = new ArrayList<>();
+
+		/**
+		 * Max connections of each shard pool.
+		 */
+		private int poolSize = 10;
+
+		/**
+		 * Delay between two deliveries of transactions between shards left pending
+		 * on an outbox.
+		 */
+		private Duration relayInterval = Duration.ofSeconds(1);
+	}
+
+	@Getter
+	@Setter
+	public static class MvStore {
+
+		/**
+		 * File holding the Accounts.
+		 */
+		private String file = System.getProperty("user.home") + "/db/accountStore.mv";
+
+		/**
+		 * Read cache size, in megabytes.
+		 */
+		private int cacheSize = 16;
+
+		/**
+		 * Max delay before changes are committed to the file. Changes made since the
+		 * last commit are lost on a crash, but a transaction is never committed
+		 * half. Zero commits after every change.
+		 */
+		private Duration autoCommitDelay = Duration.ofSeconds(1);
+
+		/**
+		 * Whether pages are compressed on the file.
+		 */
+		private boolean compress = false;
+
+		/**
+		 * Number of lock stripes shared by all Accounts.
+		 */
+		private int stripes = 64;
+	}
+
+	@Getter
+	@Setter
+	public static class Mmap {
+
+		/**
+		 * Directory holding the Account file and the journal segments.
+		 */
+		private String directory = System.getProperty("user.home") + "/db/accountStore";
+
+		/**
+		 * Max Accounts held. The Account file and the index are sized for it on
+		 * start.
+		 */
+		private int capacity = 1_000_000;
+
+		/**
+		 * Delay between two forces of the journal to disk. Zero forces each entry
+		 * before the change returns; otherwise changes made since the last force are
+		 * lost on a crash, and one side of a transfer may be kept without the other.
+		 */
+		private Duration syncInterval = Duration.ZERO;
+
+		/**
+		 * Delay between two checkpoints of the Account file, which bound the journal
+		 * replayed on start.
+		 */
+		private Duration checkpointInterval = Duration.ofSeconds(10);
+
+		/**
+		 * Number of lock stripes shared by all Accounts.
+		 */
+		private int stripes = 64;
+	}
+
+	@Getter
+	@Setter
+	public static class Shard {
+
+		/**
+		 * JDBC url of the shard.
+		 */
+		private String url;
+
+		private String username;
+
+		private String password;
+	}
+}
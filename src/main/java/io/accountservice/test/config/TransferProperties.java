@@ -0,0 +1,130 @@
+package io.accountservice.test.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.service.transfer.TransferMode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for transactions between Accounts. Bound from
+ * <code>account.transfer.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.transfer")
+public class TransferProperties {
+
+	/**
+	 * Engine used to apply transactions between Accounts.
+	 */
+	private TransferMode mode = TransferMode.DATABASE;
+
+	/**
+	 * In-memory ledger settings, used when mode is LEDGER.
+	 */
+	private Ledger ledger = new Ledger();
+
+	/**
+	 * Optimistic retry settings, used when mode is OPTIMISTIC.
+	 */
+	private Optimistic optimistic = new Optimistic();
+
+	/**
+	 * Partition settings, used when mode is PARTITIONED.
+	 */
+	private Partitioned partitioned = new Partitioned();
+
+	/**
+	 * Group commit settings, used when mode is GROUP_COMMIT.
+	 */
+	private GroupCommit groupCommit = new GroupCommit();
+
+	@Getter
+	@Setter
+	public static class Ledger {
+
+		/**
+		 * Number of lock stripes shared by all Accounts held in memory.
+		 */
+		private int stripes = 64;
+
+		/**
+		 * Delay between two asynchronous writes of changed balances to database.
+		 */
+		private Duration flushInterval = Duration.ofMillis(200);
+	}
+
+	@Getter
+	@Setter
+	public static class Optimistic {
+
+		/**
+		 * Max attempts of one transaction, first one included.
+		 */
+		private int maxAttempts = 5;
+
+		/**
+		 * Base delay between attempts. Each retry waits a random time between zero
+		 * and base delay doubled by every previous attempt.
+		 */
+		private Duration backoff = Duration.ofMillis(5);
+	}
+
+	@Getter
+	@Setter
+	public static class Partitioned {
+
+		/**
+		 * Number of partitions, each one drained by its own writer thread.
+		 */
+		private int partitions = Runtime.getRuntime().availableProcessors();
+
+		/**
+		 * Max transactions queued to one partition. Further ones are rejected.
+		 */
+		private int queueCapacity = 1024;
+
+		/**
+		 * Delay between two writes of changed balances of a partition to database.
+		 */
+		private Duration flushInterval = Duration.ofMillis(200);
+
+		/**
+		 * Max time a caller waits for its transaction to be applied.
+		 */
+		private Duration timeout = Duration.ofSeconds(5);
+	}
+
+	@Getter
+	@Setter
+	public static class GroupCommit {
+
+		/**
+		 * Max time a group waits for more transactions after its first one.
+		 */
+		private Duration window = Duration.ofMillis(2);
+
+		/**
+		 * Max transactions committed together. A full group is committed without
+		 * waiting for the window to end.
+		 */
+		private int maxCount = 256;
+
+		/**
+		 * Max transactions waiting for a group. Further ones are rejected.
+		 */
+		private int queueCapacity = 10000;
+
+		/**
+		 * Max time a caller waits for its group to be committed.
+		 */
+		private Duration timeout = Duration.ofSeconds(5);
+	}
+}
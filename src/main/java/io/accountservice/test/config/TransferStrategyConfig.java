@@ -0,0 +1,42 @@
+package io.accountservice.test.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.accountservice.test.service.ledger.LedgerEngine;
+import io.accountservice.test.service.partition.PartitionedTransferEngine;
+import io.accountservice.test.service.transfer.DatabaseTransferStrategy;
+import io.accountservice.test.service.transfer.GroupCommitTransferStrategy;
+import io.accountservice.test.service.transfer.OptimisticTransferStrategy;
+import io.accountservice.test.service.transfer.TransferStrategy;
+
+/**
+ * Transfer strategy configuration. Only the strategy of the mode bound on
+ * TransferProperties is created, so every spelling the mode binds from, such as
+ * group-commit or group_commit, selects the same strategy. Strategies work on
+ * the JPA store only; other stores apply transactions themselves.
+ *
+ * @author Austr0s
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class TransferStrategyConfig {
+
+	@Bean
+	public TransferStrategy transferStrategy(TransferProperties properties) {
+		switch (properties.getMode()) {
+		case LEDGER:
+			return new LedgerEngine();
+		case OPTIMISTIC:
+			return new OptimisticTransferStrategy();
+		case PARTITIONED:
+			return new PartitionedTransferEngine();
+		case GROUP_COMMIT:
+			return new GroupCommitTransferStrategy();
+		default:
+			return new DatabaseTransferStrategy();
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package io.accountservice.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.controller.ExecutionMode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration properties for the execution of AccountController handlers.
+ * Bound from <code>account.web.*</code>.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.web")
+public class WebExecutionProperties {
+
+	/**
+	 * Where handlers run.
+	 */
+	private ExecutionMode mode = ExecutionMode.BLOCKING;
+
+	/**
+	 * Request pool settings, used when mode is ASYNC.
+	 */
+	private Async async = new Async();
+
+	@Getter
+	@Setter
+	public static class Async {
+
+		/**
+		 * Threads running handlers. Sized independently of the JDBC pool; handlers
+		 * beyond the JDBC pool size wait for a connection.
+		 */
+		private int poolSize = 64;
+
+		/**
+		 * Handlers waiting for a thread. Requests beyond it are rejected with 503.
+		 */
+		private int queueCapacity = 10_000;
+	}
+}
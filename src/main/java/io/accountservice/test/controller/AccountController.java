@@ -2,32 +2,49 @@ package io.accountservice.test.controller;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import javax.validation.Valid;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.config.EnableHypermediaSupport;
 import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.accountservice.test.exception.CustomException;
 import io.accountservice.test.exception.account.AccountNotFoundException;
 import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
 import io.accountservice.test.model.entity.Account;
 import io.accountservice.test.service.AccountService;
+import io.accountservice.test.service.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -37,43 +54,152 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 /**
- * RestController for Accounts
+ * RestController for Accounts. Validated, so constraints of the elements of
+ * list bodies are checked too.
  * 
  * @author Austr0s
  */
+@Validated
 @RestController
 @RequestMapping(value = "/accounts")
 @Tag(name = "Account", description = "The Account API")
 @EnableHypermediaSupport(type = HypermediaType.HAL)
 public class AccountController {
 
+	/**
+	 * Media type of the newline delimited JSON stream of Accounts.
+	 */
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+	/**
+	 * Media type of the binary Smile encoding of the JSON bodies, for clients that
+	 * ask for it. JSON and HAL stay the default.
+	 */
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * Header with a client key to apply a transaction once, however many times it
+	 * is retried.
+	 */
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private static final int DEFAULT_PAGE_SIZE = 100;
+
+	private static final int MAX_PAGE_SIZE = 1000;
+
 	/**
 	 * AccountService to manage Accounts state
 	 */
 	@Autowired
 	private AccountService service;
 
+	/**
+	 * ObjectMapper to write streamed Accounts.
+	 */
+	@Autowired
+	private ObjectMapper mapper;
+
+	/**
+	 * IdempotencyService to apply a transaction once per Idempotency-Key. Only
+	 * available with the JPA store.
+	 */
+	@Autowired
+	private ObjectProvider<IdempotencyService> idempotencyService;
+
+	/**
+	 * AccountRequestExecutor to run handlers as configured by account.web.mode.
+	 */
+	@Autowired
+	private AccountRequestExecutor executor;
+
 	@Operation(summary = "View an Account retrieved by Id", description = "Account", tags = { "Account" }) //
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
-	@GetMapping(value = "/{id}", produces = { "application/hal+json" })
-	public ResponseEntity<Account> getOne(@PathVariable(value = "id", required = true) Long id) {
-		Account account = service.findOne(id)
-				.orElseThrow(() -> new AccountNotFoundException("Get One Account Id: " + id + " was not found"));
-		setOneLink(account);
-		return ResponseEntity.ok(account);
+	@GetMapping(value = "/{id}", produces = { "application/hal+json", APPLICATION_SMILE_VALUE })
+	public CompletableFuture<ResponseEntity<Account>> getOne(@PathVariable(value = "id", required = true) Long id) {
+		return executor.submit(() -> {
+			Account account = service.findOne(id)
+					.orElseThrow(() -> new AccountNotFoundException("Get One Account Id: " + id + " was not found"));
+			setOneLink(account);
+			return ResponseEntity.ok(account);
+		});
+	}
+
+	@Operation(summary = "View a list of available Accounts", description = "Collection of Accounts. When after or size is given, one page of Accounts seeking by id with a next link", tags = {
+			"Account" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
+	@GetMapping(produces = { "application/hal+json", APPLICATION_SMILE_VALUE })
+	public CompletableFuture<CollectionModel<Account>> getAll(@RequestParam(value = "after", required = false) Long after,
+			@RequestParam(value = "size", required = false) Integer size) {
+		return executor.submit(() -> after == null && size == null ? getAllAccounts() : getPage(after, size));
 	}
 
-	@Operation(summary = "View a list of available Accounts", description = "Collection of Accounts", tags = {
+	private CollectionModel<Account> getPage(Long after, Integer size) {
+		int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		List<Account> accounts = service.findPage(after == null ? 0L : after, pageSize);
+		AccountLinks links = new AccountLinks();
+		accounts.forEach(links::addSelf);
+
+		CollectionModel<Account> result = new CollectionModel<>(accounts, linkTo(AccountController.class).withSelfRel());
+		if (accounts.size() == pageSize) {
+			Long last = accounts.get(accounts.size() - 1).getId();
+			String next = linkTo(AccountController.class).toUriComponentsBuilder().queryParam("after", last)
+					.queryParam("size", pageSize).toUriString();
+			result.add(new Link(next, IanaLinkRelations.NEXT));
+		}
+
+		return result;
+	}
+
+	@Operation(summary = "View a compact list of available Accounts", description = "Plain JSON array of Accounts without links. When after or size is given, one page of Accounts seeking by id", tags = {
 			"Account" })
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
-	@GetMapping(produces = { "application/hal+json" })
-	public CollectionModel<Account> getAll() {
+	@GetMapping(value = "/compact", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+	public CompletableFuture<List<Account>> getAllCompact(@RequestParam(value = "after", required = false) Long after,
+			@RequestParam(value = "size", required = false) Integer size) {
+		return executor.submit(() -> {
+			if (after == null && size == null)
+				return service.findAll();
+
+			int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+			return service.findPage(after == null ? 0L : after, pageSize);
+		});
+	}
+
+	@Operation(summary = "Stream all available Accounts", description = "Newline delimited JSON, one Account per line", tags = {
+			"Account" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
+	@GetMapping(value = "/stream", produces = { APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<StreamingResponseBody> stream() {
+		ObjectWriter writer = mapper.writerFor(Account.class);
+		StreamingResponseBody body = out -> {
+			JsonGenerator generator = mapper.getFactory().createGenerator(out);
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			long[] rows = new long[1];
+			service.streamAll(account -> {
+				try {
+					writer.writeValue(generator, account);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				rows[0]++;
+			});
+			if (rows[0] > 0)
+				generator.writeRaw('\n');
+			generator.flush();
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+	}
+
+	private CollectionModel<Account> getAllAccounts() {
 		List<Account> accounts = service.findAll();
 		if (accounts == null)
 			throw new CustomException("The resource you were trying to reach is not found");
-		accounts.stream().forEach(x -> setOneLink(x));
+		AccountLinks links = new AccountLinks();
+		accounts.forEach(links::addSelf);
 
 		Link link = linkTo(AccountController.class).withSelfRel();
 		CollectionModel<Account> result = new CollectionModel<>(accounts, link);
@@ -84,53 +210,55 @@ public class AccountController {
 	@Operation(summary = "Create an Account", description = "Account", tags = { "Account" }) //
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "201", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
-	@PostMapping(produces = { "application/hal+json" })
-	public ResponseEntity<Account> create(@Valid @RequestBody(required = true) Account entity) {
-		Account account = service.create(entity).orElseThrow(
-				() -> new CustomException("Create Account: Some thing went wrong creating" + entity.getName()));
-		setOneLink(account);
+	@PostMapping(produces = { "application/hal+json", APPLICATION_SMILE_VALUE })
+	public CompletableFuture<ResponseEntity<Account>> create(@Valid @RequestBody(required = true) Account entity) {
+		return executor.submit(() -> {
+			Account account = service.create(entity).orElseThrow(
+					() -> new CustomException("Create Account: Some thing went wrong creating" + entity.getName()));
+			setOneLink(account);
 
-		return new ResponseEntity<Account>(account, HttpStatus.CREATED);
+			return new ResponseEntity<Account>(account, HttpStatus.CREATED);
+		});
 	}
 
 	@Operation(summary = "Update an Account", description = "Account", tags = { "Account" }) //
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "202", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
-	@PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Account> update(@PathVariable Long id, @Valid @RequestBody(required = true) Account entity) {
+	@PutMapping(value = "/{id}", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE }, produces = {
+			MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+	public CompletableFuture<ResponseEntity<Account>> update(@PathVariable Long id,
+			@Valid @RequestBody(required = true) Account entity) {
 		if (!entity.getId().equals(id))
 			throw new CustomException(
 					String.format("Update Account Id: %s isn't the same of Account to update: %s", id, entity.getId()));
 
-		Account responseAccount = service.findOne(id).orElseThrow(
-				() -> new AccountNotFoundException(String.format("Update Account Id: %s was not found", id)));
-
-		entity.setId(responseAccount.getId());
-		Account updatedAccount = service.update(entity);
-		setOneLink(updatedAccount);
+		return executor.submit(() -> {
+			Account updatedAccount = service.update(entity);
+			setOneLink(updatedAccount);
 
-		return new ResponseEntity<Account>(updatedAccount, HttpStatus.ACCEPTED);
+			return new ResponseEntity<Account>(updatedAccount, HttpStatus.ACCEPTED);
+		});
 	}
 
 	@Operation(summary = "Delete an Account", description = "Account", tags = { "Account" }) //
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "204", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
 	@DeleteMapping("/{id}")
-	public ResponseEntity<?> delete(@PathVariable Long id) {
-		Account accountToDelete = service.findOne(id).orElseThrow(
-				() -> new AccountNotFoundException(String.format("Delete Account Id: %s was not found", id)));
-
-		service.delete(accountToDelete);
+	public CompletableFuture<ResponseEntity<?>> delete(@PathVariable Long id) {
+		return executor.submit(() -> {
+			service.delete(id);
 
-		return new ResponseEntity<>(HttpStatus.valueOf(204));
+			return new ResponseEntity<Void>(HttpStatus.valueOf(204));
+		});
 	}
 
 	@Operation(summary = "Transaction between Accounts", description = "Account", tags = { "Account" }) //
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Account.class)))) })
-	@PostMapping(value = "/{originId}/payee/{payeeId}", produces = { "application/hal+json" })
-	public ResponseEntity<Account> transaction(@Valid @RequestBody(required = true) TransactionOperationDto transaction,
-			@PathVariable Long originId, @PathVariable Long payeeId) {
+	@PostMapping(value = "/{originId}/payee/{payeeId}", produces = { "application/hal+json", APPLICATION_SMILE_VALUE })
+	public CompletableFuture<ResponseEntity<Account>> transaction(@Valid @RequestBody(required = true) TransactionOperationDto transaction,
+			@PathVariable Long originId, @PathVariable Long payeeId,
+			@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 		if (!transaction.getOrigin().equals(originId))
 			throw new CustomException(String.format(
 					"Transaction - Origin Account Id: %s isn't the same of Account to sustract balance id: %s",
@@ -141,19 +269,37 @@ public class AccountController {
 					String.format("Transaction - Payee Account Id: %s isn't the same of Account to add balance id: %s",
 							payeeId, transaction.getPayee()));
 
-		Account responseAccountOrigin = service.transference(transaction)
+		IdempotencyService idempotency = idempotencyKey == null ? null : idempotencyService.getIfAvailable();
+		if (idempotencyKey != null && idempotency == null)
+			throw new CustomException(
+					String.format("%s isn't supported by the Account store configured", IDEMPOTENCY_KEY_HEADER));
+
+		Supplier<Account> transference = () -> service.transference(transaction)
 				.orElseThrow(() -> new CustomException(
 						String.format("Transaction - Origin Account Id: %s  and Payee Id: %s. Something went wrong.",
 								originId, payeeId)));
-		setOneLink(responseAccountOrigin);
+		return executor.submit(() -> {
+			Account responseAccountOrigin = idempotencyKey == null ? transference.get()
+					: idempotency.execute(idempotencyKey, transaction, transference);
+			setOneLink(responseAccountOrigin);
+
+			return ResponseEntity.ok(responseAccountOrigin);
+		});
+	}
 
-		return ResponseEntity.ok(responseAccountOrigin);
+	@Operation(summary = "Batch of Transactions between Accounts", description = "Transaction results", tags = {
+			"Account" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransactionResultDto.class)))) })
+	@PostMapping(value = "/transactions", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE }, produces = {
+			MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+	public CompletableFuture<ResponseEntity<List<TransactionResultDto>>> transactionBatch(
+			@Valid @RequestBody(required = true) List<TransactionOperationDto> transactions) {
+		return executor.submit(() -> ResponseEntity.ok(service.transferenceBatch(transactions)));
 	}
 
 	private void setOneLink(Account account) {
-		String accountId = String.format("accounts/%s", account.getId());
-		Link selfLink = linkTo(Account.class).slash(accountId).withSelfRel();
-		account.add(selfLink);
+		new AccountLinks().addSelf(account);
 	}
 
 }
@@ -0,0 +1,83 @@
+package io.accountservice.test.controller;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.ExportFileDto;
+import io.accountservice.test.service.export.AccountExporter;
+import io.accountservice.test.service.export.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * RestController for bulk export of Accounts
+ * 
+ * @author Austr0s
+ */
+@RestController
+@RequestMapping(value = "/accounts/export")
+@Tag(name = "Account Export", description = "The Account bulk export API")
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class AccountExportController {
+
+	/**
+	 * AccountExporter to write every Account
+	 */
+	@Autowired
+	private AccountExporter exporter;
+
+	@Operation(summary = "Export every Account", description = "Gzip encoded CSV or NDJSON, written while Accounts are read", tags = {
+			"Account Export" })
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "successful operation") })
+	@GetMapping
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(value = "format", required = false, defaultValue = "csv") String format) {
+		ExportFormat exportFormat = format(format);
+		StreamingResponseBody body = out -> exporter.export(exportFormat, out);
+
+		return ResponseEntity.ok() //
+				.contentType(MediaType.parseMediaType(exportFormat.getMediaType())) //
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip") //
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.builder("attachment")
+						.filename("accounts." + exportFormat.getExtension()).build().toString()) //
+				.body(body);
+	}
+
+	@Operation(summary = "Export every Account to a file", description = "Gzip compressed CSV or NDJSON file written on the export directory of the server", tags = {
+			"Account Export" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "successful operation", content = @Content(schema = @Schema(implementation = ExportFileDto.class))) })
+	@PostMapping(value = "/files", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ExportFileDto> exportToFile(
+			@RequestParam(value = "format", required = false, defaultValue = "csv") String format) throws IOException {
+		return new ResponseEntity<ExportFileDto>(exporter.exportToFile(format(format)), HttpStatus.CREATED);
+	}
+
+	private ExportFormat format(String format) {
+		try {
+			return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new CustomException(String.format("Export format %s isn't supported", format));
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+package io.accountservice.test.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.ImportResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.export.ExportFormat;
+import io.accountservice.test.service.importer.AccountImporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * RestController for bulk import of Accounts
+ * 
+ * @author Austr0s
+ */
+@RestController
+@RequestMapping(value = "/accounts/import")
+@Tag(name = "Account Import", description = "The Account bulk import API")
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class AccountImportController {
+
+	private static final String GZIP_EXTENSION = ".gz";
+
+	/**
+	 * AccountImporter to create many Accounts
+	 */
+	@Autowired
+	private AccountImporter importer;
+
+	@Operation(summary = "Create many Accounts", description = "Import result with the reason of each Account rejected", tags = {
+			"Account Import" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(schema = @Schema(implementation = ImportResultDto.class))) })
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ImportResultDto> importAll(@RequestBody(required = true) List<Account> accounts) {
+		return ResponseEntity.ok(importer.importAll(accounts));
+	}
+
+	@Operation(summary = "Create every Account of a file", description = "CSV or NDJSON file as written by the export, optionally gzip compressed (.gz). Format is taken from the file extension when not given", tags = {
+			"Account Import" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(schema = @Schema(implementation = ImportResultDto.class))) })
+	@PostMapping(value = "/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ImportResultDto> importFile(@RequestPart("file") MultipartFile file,
+			@RequestParam(value = "format", required = false) String format) throws IOException {
+		String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+		boolean gzip = name.endsWith(GZIP_EXTENSION);
+		if (gzip)
+			name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+
+		ExportFormat importFormat = format(format != null ? format : name.substring(name.lastIndexOf('.') + 1));
+		try (InputStream in = gzip ? new GZIPInputStream(file.getInputStream()) : file.getInputStream()) {
+			return ResponseEntity.ok(importer.importFile(in, importFormat));
+		}
+	}
+
+	private ExportFormat format(String format) {
+		try {
+			return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new CustomException(String.format("Import format %s isn't supported", format));
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+package io.accountservice.test.controller;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import org.springframework.hateoas.Link;
+
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Self links of Accounts for the current request. The <code>accounts/</code>
+ * base URI is resolved once, when created, and each Account link is that base
+ * followed by its id.
+ *
+ * @author Austr0s
+ */
+final class AccountLinks {
+
+	private final String base;
+
+	AccountLinks() {
+		this.base = linkTo(AccountController.class).toUriComponentsBuilder().path("/").toUriString();
+	}
+
+	/**
+	 * Method to add self link to an Account.
+	 *
+	 * @param account to add the link to.
+	 * @return same account.
+	 */
+	Account addSelf(Account account) {
+		account.add(new Link(base + account.getId()));
+		return account;
+	}
+}
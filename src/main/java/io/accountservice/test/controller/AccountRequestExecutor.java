@@ -0,0 +1,81 @@
+package io.accountservice.test.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.accountservice.test.config.WebExecutionProperties;
+
+/**
+ * Runs AccountController handlers as configured by
+ * <code>account.web.mode</code>. In ASYNC mode handlers run on a bounded pool,
+ * so the servlet container thread is released and in-flight requests are only
+ * bounded by the pool queue; request attributes are propagated, so links can
+ * still be built from the current request.
+ *
+ * @author Austr0s
+ */
+@Component
+public class AccountRequestExecutor {
+
+	@Autowired
+	private WebExecutionProperties properties;
+
+	private ThreadPoolTaskExecutor executor;
+
+	@PostConstruct
+	public void start() {
+		if (properties.getMode() != ExecutionMode.ASYNC)
+			return;
+
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(properties.getAsync().getPoolSize());
+		executor.setMaxPoolSize(properties.getAsync().getPoolSize());
+		executor.setQueueCapacity(properties.getAsync().getQueueCapacity());
+		executor.setThreadNamePrefix("account-request-");
+		executor.initialize();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null)
+			executor.shutdown();
+	}
+
+	/**
+	 * Method to run a handler.
+	 *
+	 * @param handler handler to run.
+	 * @return result of the handler. Already completed in BLOCKING mode.
+	 * @throws org.springframework.core.task.TaskRejectedException if the request
+	 *                                                            pool is full.
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> handler) {
+		if (executor == null)
+			return CompletableFuture.completedFuture(handler.get());
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		RequestAttributes propagated = attributes instanceof ServletRequestAttributes
+				? new ServletRequestAttributes(((ServletRequestAttributes) attributes).getRequest(),
+						((ServletRequestAttributes) attributes).getResponse())
+				: attributes;
+
+		return CompletableFuture.supplyAsync(() -> {
+			RequestContextHolder.setRequestAttributes(propagated);
+			try {
+				return handler.get();
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		}, executor);
+	}
+}
@@ -0,0 +1,20 @@
+package io.accountservice.test.controller;
+
+/**
+ * Ways of running the AccountController handlers.
+ *
+ * @author Austr0s
+ */
+public enum ExecutionMode {
+
+	/**
+	 * Handlers run on the servlet container thread that received the request.
+	 */
+	BLOCKING,
+
+	/**
+	 * Handlers run on a bounded pool of request threads, releasing the servlet
+	 * container thread while the database is working.
+	 */
+	ASYNC
+}
@@ -0,0 +1,118 @@
+package io.accountservice.test.controller;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.ReactiveAccountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive RestController for Accounts. Same operations as AccountController,
+ * returned as Mono and Flux without HAL links. Operations still run on blocking
+ * JDBC, on the bounded scheduler of ReactiveAccountService; the servlet thread
+ * is released until the result is ready. The stream of all Accounts is only
+ * produced as newline delimited JSON or server-sent events, so it is written
+ * page by page as the client reads it and never buffered whole.
+ * 
+ * @author Austr0s
+ */
+@RestController
+@RequestMapping(value = "/reactive/accounts")
+@Tag(name = "Reactive Account", description = "The reactive Account API")
+public class ReactiveAccountController {
+
+	/**
+	 * ReactiveAccountService to manage Accounts state
+	 */
+	@Autowired
+	private ReactiveAccountService service;
+
+	@Operation(summary = "View an Account retrieved by Id", description = "Account", tags = { "Reactive Account" }) //
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(schema = @Schema(implementation = Account.class))) })
+	@GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Account> getOne(@PathVariable Long id) {
+		return service.findOne(id);
+	}
+
+	@Operation(summary = "Stream all available Accounts", description = "One JSON Account per line with application/stream+json, or one event per Account with text/event-stream", tags = {
+			"Reactive Account" })
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = {
+					@Content(mediaType = MediaType.APPLICATION_STREAM_JSON_VALUE, schema = @Schema(implementation = Account.class)),
+					@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = Account.class)) }) })
+	@GetMapping(produces = { MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+	public Flux<Account> getAll() {
+		return service.findAll();
+	}
+
+	@Operation(summary = "Create an Account", description = "Account", tags = { "Reactive Account" }) //
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "successful operation", content = @Content(schema = @Schema(implementation = Account.class))) })
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Account>> create(@Valid @RequestBody(required = true) Account entity) {
+		return service.create(entity).map(account -> new ResponseEntity<>(account, HttpStatus.CREATED));
+	}
+
+	@Operation(summary = "Update an Account", description = "Account", tags = { "Reactive Account" }) //
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "successful operation", content = @Content(schema = @Schema(implementation = Account.class))) })
+	@PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Account>> update(@PathVariable Long id,
+			@Valid @RequestBody(required = true) Account entity) {
+		if (!entity.getId().equals(id))
+			return Mono.error(new CustomException(
+					String.format("Update Account Id: %s isn't the same of Account to update: %s", id, entity.getId())));
+
+		return service.update(entity).map(account -> new ResponseEntity<>(account, HttpStatus.ACCEPTED));
+	}
+
+	@Operation(summary = "Delete an Account", description = "Account", tags = { "Reactive Account" }) //
+	@ApiResponses(value = { @ApiResponse(responseCode = "204", description = "successful operation") })
+	@DeleteMapping("/{id}")
+	public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+		return service.delete(id).then(Mono.just(new ResponseEntity<Void>(HttpStatus.NO_CONTENT)));
+	}
+
+	@Operation(summary = "Transaction between Accounts", description = "Account", tags = { "Reactive Account" }) //
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "successful operation", content = @Content(schema = @Schema(implementation = Account.class))) })
+	@PostMapping(value = "/{originId}/payee/{payeeId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Account> transaction(@Valid @RequestBody(required = true) TransactionOperationDto transaction,
+			@PathVariable Long originId, @PathVariable Long payeeId) {
+		if (!transaction.getOrigin().equals(originId))
+			return Mono.error(new CustomException(String.format(
+					"Transaction - Origin Account Id: %s isn't the same of Account to sustract balance id: %s",
+					originId, transaction.getOrigin())));
+
+		if (!transaction.getPayee().equals(payeeId))
+			return Mono.error(new CustomException(
+					String.format("Transaction - Payee Account Id: %s isn't the same of Account to add balance id: %s",
+							payeeId, transaction.getPayee())));
+
+		return service.transference(transaction);
+	}
+
+}
@@ -0,0 +1,88 @@
+package io.accountservice.test.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Heartbeat to measure the lag of replicas. Primary time is written on the
+ * ACCOUNT_HEARTBEAT row of primary and read back from every replica: a replica
+ * that returns a time has every change committed on primary before it.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+public class ReplicaHeartbeat {
+
+	private static final String BEAT = "UPDATE ACCOUNT_HEARTBEAT SET BEAT = ? WHERE ID = 1";
+
+	private static final String SELECT_BEAT = "SELECT BEAT FROM ACCOUNT_HEARTBEAT WHERE ID = 1";
+
+	private final JdbcTemplate primary;
+
+	private final List<JdbcTemplate> replicas = new ArrayList<>();
+
+	private final ReplicaRoutingDataSource routing;
+
+	private final long interval;
+
+	private ScheduledExecutorService heartbeat;
+
+	public ReplicaHeartbeat(DataSource primary, ReplicaRoutingDataSource routing, Duration interval) {
+		this.primary = new JdbcTemplate(primary);
+		this.routing = routing;
+		this.interval = interval.toMillis();
+		routing.getReplicas().forEach(replica -> replicas.add(new JdbcTemplate(replica)));
+	}
+
+	@PostConstruct
+	public void start() {
+		heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "replica-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeat.scheduleWithFixedDelay(this::beat, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		heartbeat.shutdown();
+		heartbeat.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Method to write one heartbeat on primary and read the last one each replica
+	 * has. A replica that can't be read isn't used until it can.
+	 */
+	void beat() {
+		try {
+			primary.update(BEAT, System.currentTimeMillis());
+		} catch (DataAccessException e) {
+			log.warn("Heartbeat couldn't be written on primary", e);
+		}
+
+		for (int i = 0; i < replicas.size(); i++) {
+			try {
+				Long time = replicas.get(i).queryForObject(SELECT_BEAT, Long.class);
+				routing.caughtUp(i, time == null ? 0 : time);
+			} catch (DataAccessException e) {
+				routing.caughtUp(i, 0);
+				log.warn("Heartbeat couldn't be read on replica {}", i, e);
+			}
+		}
+	}
+
+}
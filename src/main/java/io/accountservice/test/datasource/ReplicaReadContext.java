@@ -0,0 +1,39 @@
+package io.accountservice.test.datasource;
+
+/**
+ * Freshness required by the read running on the current thread, on top of the
+ * max staleness of replicas.
+ *
+ * @author Austr0s
+ */
+public final class ReplicaReadContext {
+
+	private static final ThreadLocal<Long> WRITTEN_AFTER = new ThreadLocal<>();
+
+	private ReplicaReadContext() {
+	}
+
+	/**
+	 * Method to require a replica that has every change committed on primary up
+	 * to a time.
+	 *
+	 * @param time in milliseconds since epoch, of primary clock.
+	 */
+	public static void requireWrittenAfter(long time) {
+		WRITTEN_AFTER.set(time);
+	}
+
+	/**
+	 * Method to get the time a replica must have caught up to.
+	 *
+	 * @return time in milliseconds since epoch, or zero if none is required.
+	 */
+	public static long writtenAfter() {
+		Long time = WRITTEN_AFTER.get();
+		return time == null ? 0 : time;
+	}
+
+	public static void clear() {
+		WRITTEN_AFTER.remove();
+	}
+}
@@ -0,0 +1,100 @@
+package io.accountservice.test.datasource;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DataSource that routes read-only transactions to replicas and everything else
+ * to primary. A replica is only chosen if it has caught up to the max staleness
+ * allowed and to the time required by {@link ReplicaReadContext}; fresh
+ * replicas are taken in turns. How far each replica has caught up is reported
+ * by {@link ReplicaHeartbeat}.
+ *
+ * @author Austr0s
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+	/**
+	 * Lookup key of primary. Replicas are looked up by their index.
+	 */
+	static final String PRIMARY = "primary";
+
+	private final DataSource primary;
+
+	private final List<HikariDataSource> replicas;
+
+	private final long maxStaleness;
+
+	/**
+	 * Primary time each replica has caught up to. Zero until its first heartbeat
+	 * is read, so a replica isn't used before its lag is known.
+	 */
+	private final AtomicLongArray caughtUp;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration maxStaleness) {
+		this.primary = primary;
+		this.replicas = replicas;
+		this.maxStaleness = maxStaleness.toMillis();
+		this.caughtUp = new AtomicLongArray(replicas.size());
+
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++)
+			targets.put(i, replicas.get(i));
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			return PRIMARY;
+
+		long required = Math.max(System.currentTimeMillis() - maxStaleness, ReplicaReadContext.writtenAfter());
+		int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			int replica = (first + i) % replicas.size();
+			if (caughtUp.get(replica) >= required)
+				return replica;
+		}
+		return PRIMARY;
+	}
+
+	/**
+	 * Method to record the primary time a replica has caught up to.
+	 *
+	 * @param replica index of the replica.
+	 * @param time    in milliseconds since epoch, of primary clock. Zero if the
+	 *                replica can't be read.
+	 */
+	public void caughtUp(int replica, long time) {
+		caughtUp.set(replica, time);
+	}
+
+	public DataSource getPrimary() {
+		return primary;
+	}
+
+	public List<HikariDataSource> getReplicas() {
+		return replicas;
+	}
+
+	@Override
+	public void close() {
+		replicas.forEach(HikariDataSource::close);
+	}
+
+}
@@ -2,6 +2,12 @@ package io.accountservice.test.exception;
 
 import java.util.Date;
 
+import javax.validation.ConstraintViolationException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,9 +17,12 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Custom ApiRest exception handler. Here we declare all custom exception handlers.
+ * Every error answered is counted on <code>account.api.errors</code>, tagged by
+ * status and exception type.
  * 
  * @author Austr0s
  *
@@ -22,10 +31,19 @@ import io.accountservice.test.exception.account.AccountNotFoundException;
 @RestController
 public class ApiRestExceptionHandler extends ResponseEntityExceptionHandler {
 
+	/**
+	 * Counter of errors answered by this handler.
+	 */
+	public static final String ERRORS_COUNTER = "account.api.errors";
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+
 	@ExceptionHandler(CustomException.class)
 	public ResponseEntity<ExceptionResponse> exceptionCustomHandler(Exception e, WebRequest request) {
 		ExceptionResponse error = new ExceptionResponse(new Date(), e.getMessage(),
 				request.getDescription(false));
+		count(HttpStatus.BAD_REQUEST, e);
 		return new ResponseEntity<ExceptionResponse>(error, HttpStatus.BAD_REQUEST);
 	}
 
@@ -33,6 +51,7 @@ public class ApiRestExceptionHandler extends ResponseEntityExceptionHandler {
 	public ResponseEntity<ExceptionResponse> exceptionHandler(Exception e, WebRequest request) {
 		ExceptionResponse error = new ExceptionResponse(new Date(), e.getMessage(),
 		        request.getDescription(false));
+		count(HttpStatus.INTERNAL_SERVER_ERROR, e);
 		return new ResponseEntity<ExceptionResponse>(error, HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 	
@@ -41,8 +60,46 @@ public class ApiRestExceptionHandler extends ResponseEntityExceptionHandler {
 			WebRequest request) {
 		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), e.getMessage(),
 				request.getDescription(false));
+		count(HttpStatus.NOT_FOUND, e);
 		return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
 	}
-	
+
+	/**
+	 * Answers constraints violated by the elements of a list body, checked on the
+	 * controller method instead of by Spring MVC binding.
+	 */
+	@ExceptionHandler(ConstraintViolationException.class)
+	public final ResponseEntity<ExceptionResponse> handleConstraintViolationException(
+			ConstraintViolationException e, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), e.getMessage(),
+				request.getDescription(false));
+		count(HttpStatus.BAD_REQUEST, e);
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(TaskRejectedException.class)
+	public final ResponseEntity<ExceptionResponse> handleTaskRejectedException(TaskRejectedException e,
+			WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(),
+				"Too many requests in progress. Retry later", request.getDescription(false));
+		count(HttpStatus.SERVICE_UNAVAILABLE, e);
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	/**
+	 * Counts errors answered by the Spring MVC handlers inherited, such as
+	 * malformed requests.
+	 */
+	@Override
+	protected ResponseEntity<Object> handleExceptionInternal(Exception e, Object body, HttpHeaders headers,
+			HttpStatus status, WebRequest request) {
+		count(status, e);
+		return super.handleExceptionInternal(e, body, headers, status, request);
+	}
+
+	private void count(HttpStatus status, Exception e) {
+		meterRegistry.ifAvailable(registry -> registry.counter(ERRORS_COUNTER, "status", String.valueOf(status.value()),
+				"exception", e.getClass().getSimpleName()).increment());
+	}
 
 }
@@ -0,0 +1,35 @@
+package io.accountservice.test.model.dto;
+
+import java.io.Serializable;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO to return the file written by an export of Accounts.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportFileDto implements Serializable {
+
+	private static final long serialVersionUID = -4175470946123587403L;
+
+	@Schema(description = "Path of the gzip compressed file.", example = "/tmp/account-export/accounts-20200301T020000Z.csv.gz", required = true)
+	private String file;
+
+	@Schema(description = "Format of the exported Accounts.", example = "CSV", required = true)
+	private String format;
+
+	@Schema(description = "Accounts exported.", example = "1000000", required = true)
+	private long rows;
+
+	@Schema(description = "Size of the compressed file in bytes.", example = "20971520", required = true)
+	private long bytes;
+}
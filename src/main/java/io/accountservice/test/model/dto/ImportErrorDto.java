@@ -0,0 +1,29 @@
+package io.accountservice.test.model.dto;
+
+import java.io.Serializable;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO to return why one Account of an import was rejected.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDto implements Serializable {
+
+	private static final long serialVersionUID = 2291807760421564301L;
+
+	@Schema(description = "Position of the Account on the import, starting at 0 and not counting the CSV header.", example = "0", required = true)
+	private long index;
+
+	@Schema(description = "Reason why the Account was rejected.", required = true)
+	private String message;
+}
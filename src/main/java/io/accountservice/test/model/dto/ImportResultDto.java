@@ -0,0 +1,34 @@
+package io.accountservice.test.model.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO to return the result of an import of Accounts.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDto implements Serializable {
+
+	private static final long serialVersionUID = -6944263035093287015L;
+
+	@Schema(description = "Accounts created.", example = "100000", required = true)
+	private long imported;
+
+	@Schema(description = "Accounts rejected.", example = "0", required = true)
+	private long failed;
+
+	@Schema(description = "Reason of each Account rejected, in import order.")
+	private List<ImportErrorDto> errors = new ArrayList<>();
+}
@@ -1,6 +1,7 @@
 package io.accountservice.test.model.dto;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
 import javax.validation.constraints.NotNull;
 
@@ -8,6 +9,13 @@ import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.accountservice.test.model.money.MinorUnitsSerializer;
+import io.accountservice.test.model.money.Monetary;
+import io.accountservice.test.model.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -24,7 +32,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
-public class TransactionOperationDto extends RepresentationModel<TransactionOperationDto> implements Serializable {
+public class TransactionOperationDto extends RepresentationModel<TransactionOperationDto> implements Serializable, Monetary {
 
 	private static final long serialVersionUID = -2791192626383260030L;
 
@@ -36,7 +44,37 @@ public class TransactionOperationDto extends RepresentationModel<TransactionOper
 	@Schema(description = "Payee Account of Transaction.", required = true)
 	private Long payee;
 
+	/**
+	 * Amount in minor units of the currency. Read and written on JSON as a decimal
+	 * amount.
+	 */
 	@NotNull
-	@Schema(description = "Amount to transfer from Origin Account to Payee Account", example = "1500", required = true)
-	private Double amountToTransfer;
+	@JsonSerialize(using = MinorUnitsSerializer.class)
+	@Schema(description = "Amount to transfer from Origin Account to Payee Account", type = "number", example = "1500.00", required = true)
+	private Long amountToTransfer;
+
+	/**
+	 * Currency of the amount. Sets the scale the amount is read with, and must be
+	 * the currency of both Accounts.
+	 */
+	@Schema(description = "Currency of the amount, which must be the currency of both Accounts. EUR if not set.", example = "EUR")
+	private String currency;
+
+	public TransactionOperationDto(Long origin, Long payee, Long amountToTransfer) {
+		this(origin, payee, amountToTransfer, Money.DEFAULT_CURRENCY);
+	}
+
+	/**
+	 * Method to read a transaction from JSON, where amount is a decimal amount of
+	 * its currency.
+	 * 
+	 * @return transaction with amount in minor units.
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+	public static TransactionOperationDto fromJson(@JsonProperty("origin") Long origin,
+			@JsonProperty("payee") Long payee, @JsonProperty("amountToTransfer") BigDecimal amountToTransfer,
+			@JsonProperty("currency") String currency) {
+		String code = currency == null ? Money.DEFAULT_CURRENCY : currency;
+		return new TransactionOperationDto(origin, payee, Money.toMinorUnits(amountToTransfer, code), code);
+	}
 }
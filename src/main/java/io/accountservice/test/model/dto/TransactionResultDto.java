@@ -0,0 +1,54 @@
+package io.accountservice.test.model.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.accountservice.test.model.money.MinorUnitsSerializer;
+import io.accountservice.test.model.money.Monetary;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO to return the result of each transaction of a batch request.
+ *
+ * @author Austr0s
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionResultDto implements Serializable, Monetary {
+
+	private static final long serialVersionUID = 6311546104452858797L;
+
+	@Schema(description = "Position of the Transaction on the batch request.", example = "0", required = true)
+	private int index;
+
+	@Schema(description = "Origin Account of Transaction.", required = true)
+	private Long origin;
+
+	@Schema(description = "Payee Account of Transaction.", required = true)
+	private Long payee;
+
+	@JsonSerialize(using = MinorUnitsSerializer.class)
+	@Schema(description = "Amount transferred from Origin Account to Payee Account", type = "number", example = "1500.00", required = true)
+	private Long amountToTransfer;
+
+	@Schema(description = "Currency of the amount.", example = "EUR", required = true)
+	private String currency;
+
+	@Schema(description = "True if the Transaction was applied.", example = "true", required = true)
+	private boolean success;
+
+	@Schema(description = "Reason why the Transaction was rejected.")
+	private String message;
+
+	public TransactionResultDto(int index, TransactionOperationDto transaction, boolean success, String message) {
+		this(index, transaction.getOrigin(), transaction.getPayee(), transaction.getAmountToTransfer(),
+				transaction.getCurrency(), success, message);
+	}
+}
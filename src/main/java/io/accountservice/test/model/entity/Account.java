@@ -1,13 +1,17 @@
 package io.accountservice.test.model.entity;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 
 import org.hibernate.annotations.Cache;
@@ -15,6 +19,13 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.accountservice.test.model.json.AccountSerializer;
+import io.accountservice.test.model.money.MinorUnitsSerializer;
+import io.accountservice.test.model.money.Monetary;
+import io.accountservice.test.model.money.Money;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -25,25 +36,33 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
- * Account Entity extends from RepresentationalModel to use Hateoas.
+ * Account Entity extends from RepresentationalModel to use Hateoas. Written on
+ * JSON by {@link AccountSerializer}.
  * 
  * @author Austr0s
  */
 @Getter
 @Setter
-@AllArgsConstructor(onConstructor = @__(@JsonCreator(mode = JsonCreator.Mode.PROPERTIES)))
+@AllArgsConstructor
 @NoArgsConstructor
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EqualsAndHashCode(callSuper = false, of = "id")
 @Builder
 @Entity
+@Cacheable
 @Table(name = "ACCOUNT")
-public class Account extends RepresentationModel<Account> implements Serializable {
+@JsonSerialize(using = AccountSerializer.class)
+public class Account extends RepresentationModel<Account> implements Serializable, Monetary {
 
 	private static final long serialVersionUID = 1501960596815168782L;
 	
+	/**
+	 * Ids are taken from a pooled sequence, 50 at a time, so inserts can be sent
+	 * in JDBC batches.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ACCOUNT_SEQ")
+	@SequenceGenerator(name = "ACCOUNT_SEQ", sequenceName = "ACCOUNT_SEQ", allocationSize = 50)
 	@Column(name = "ID", nullable = false)
 	@Schema(description = "Unique identifier of the Account.", example = "1", required = true)
 	private Long id;
@@ -58,15 +77,37 @@ public class Account extends RepresentationModel<Account> implements Serializabl
 	@Schema(description = "Currency's type of the Account.", example = "EUR", required = true)
 	private String currency;
 
+	/**
+	 * Balance in minor units of the currency. Written on JSON as a decimal amount.
+	 */
 	@NotNull
 	@Column(name = "BALANCE", nullable = false)
-	@Schema(description = "Balance of the Account.", example = "5000", required = true)
-	private Double balance;
+	@JsonSerialize(using = MinorUnitsSerializer.class)
+	@Schema(description = "Balance of the Account.", type = "number", example = "5000.00", required = true)
+	private Long balance;
 
 	@Column(name = "TREASURY", nullable = true)
 	@Schema(description = "Treasury status type of the Account.", example = "true", required = true)
 	private Boolean treasury;
 
+	@Version
+	@Column(name = "VERSION", nullable = false)
+	@Schema(description = "Version of the Account, incremented on every change.", example = "0")
+	private Long version;
+
+	/**
+	 * Method to read an Account from JSON, where balance is a decimal amount of
+	 * its currency.
+	 * 
+	 * @return account with balance in minor units.
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+	public static Account fromJson(@JsonProperty("id") Long id, @JsonProperty("name") String name,
+			@JsonProperty("currency") String currency, @JsonProperty("balance") BigDecimal balance,
+			@JsonProperty("treasury") Boolean treasury, @JsonProperty("version") Long version) {
+		return new Account(id, name, currency, Money.toMinorUnits(balance, currency), treasury, version);
+	}
+
 	@Override
 	public String toString() {
 		String tostring = null;
@@ -0,0 +1,132 @@
+package io.accountservice.test.model.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.Links;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.model.money.Money;
+
+/**
+ * Writes an Account field by field, without bean introspection. Links are
+ * written as HAL <code>_links</code>, one object per relation or an array when
+ * a relation has many links, and omitted when the Account has none, which is
+ * the compact representation.
+ *
+ * @author Austr0s
+ */
+public class AccountSerializer extends StdSerializer<Account> {
+
+	private static final long serialVersionUID = -2880569466140381447L;
+
+	private static final SerializedString ID = new SerializedString("id");
+
+	private static final SerializedString NAME = new SerializedString("name");
+
+	private static final SerializedString CURRENCY = new SerializedString("currency");
+
+	private static final SerializedString BALANCE = new SerializedString("balance");
+
+	private static final SerializedString TREASURY = new SerializedString("treasury");
+
+	private static final SerializedString VERSION = new SerializedString("version");
+
+	private static final SerializedString LINKS = new SerializedString("_links");
+
+	private static final SerializedString HREF = new SerializedString("href");
+
+	private static final SerializedString TEMPLATED = new SerializedString("templated");
+
+	public AccountSerializer() {
+		super(Account.class);
+	}
+
+	@Override
+	public void serialize(Account account, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject(account);
+
+		gen.writeFieldName(ID);
+		writeNumber(gen, account.getId());
+		gen.writeFieldName(NAME);
+		gen.writeString(account.getName());
+		gen.writeFieldName(CURRENCY);
+		gen.writeString(account.getCurrency());
+		gen.writeFieldName(BALANCE);
+		if (account.getBalance() == null)
+			gen.writeNull();
+		else
+			gen.writeNumber(Money.toDecimal(account.getBalance(), account.getCurrency()));
+		gen.writeFieldName(TREASURY);
+		if (account.getTreasury() == null)
+			gen.writeNull();
+		else
+			gen.writeBoolean(account.getTreasury());
+		gen.writeFieldName(VERSION);
+		writeNumber(gen, account.getVersion());
+
+		Links links = account.getLinks();
+		if (!links.isEmpty())
+			writeLinks(gen, links);
+
+		gen.writeEndObject();
+	}
+
+	private void writeNumber(JsonGenerator gen, Long value) throws IOException {
+		if (value == null)
+			gen.writeNull();
+		else
+			gen.writeNumber(value);
+	}
+
+	private void writeLinks(JsonGenerator gen, Links links) throws IOException {
+		gen.writeFieldName(LINKS);
+		gen.writeStartObject();
+
+		// Almost every Account has only a self link, so grouping is skipped then.
+		if (links.toList().size() == 1) {
+			Link link = links.toList().get(0);
+			gen.writeFieldName(link.getRel().value());
+			writeLink(gen, link);
+		} else {
+			Map<LinkRelation, List<Link>> byRel = new LinkedHashMap<>();
+			for (Link link : links)
+				byRel.computeIfAbsent(link.getRel(), rel -> new ArrayList<>()).add(link);
+
+			for (Map.Entry<LinkRelation, List<Link>> entry : byRel.entrySet()) {
+				gen.writeFieldName(entry.getKey().value());
+				if (entry.getValue().size() == 1) {
+					writeLink(gen, entry.getValue().get(0));
+				} else {
+					gen.writeStartArray();
+					for (Link link : entry.getValue())
+						writeLink(gen, link);
+					gen.writeEndArray();
+				}
+			}
+		}
+
+		gen.writeEndObject();
+	}
+
+	private void writeLink(JsonGenerator gen, Link link) throws IOException {
+		gen.writeStartObject();
+		gen.writeFieldName(HREF);
+		gen.writeString(link.getHref());
+		if (link.isTemplated()) {
+			gen.writeFieldName(TEMPLATED);
+			gen.writeBoolean(true);
+		}
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,29 @@
+package io.accountservice.test.model.money;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes an amount held in minor units as a decimal number, with the scale of
+ * the currency of the {@link Monetary} being serialized.
+ *
+ * @author Austr0s
+ */
+public class MinorUnitsSerializer extends StdSerializer<Long> {
+
+	private static final long serialVersionUID = 3402876421987263710L;
+
+	public MinorUnitsSerializer() {
+		super(Long.class);
+	}
+
+	@Override
+	public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		Object owner = gen.getCurrentValue();
+		String currency = owner instanceof Monetary ? ((Monetary) owner).getCurrency() : null;
+		gen.writeNumber(Money.toDecimal(value, currency));
+	}
+}
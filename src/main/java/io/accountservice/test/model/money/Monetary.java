@@ -0,0 +1,14 @@
+package io.accountservice.test.model.money;
+
+/**
+ * Model that holds amounts in minor units of one currency.
+ *
+ * @author Austr0s
+ */
+public interface Monetary {
+
+	/**
+	 * @return ISO 4217 code of the currency of the amounts.
+	 */
+	String getCurrency();
+}
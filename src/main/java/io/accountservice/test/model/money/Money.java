@@ -0,0 +1,73 @@
+package io.accountservice.test.model.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Conversions between decimal amounts and minor units. Amounts are held as
+ * <code>long</code> minor units of their currency (cents for EUR, units for
+ * JPY), so arithmetic is exact and doesn't allocate.
+ *
+ * @author Austr0s
+ */
+public final class Money {
+
+	/**
+	 * Currency of amounts that don't specify one.
+	 */
+	public static final String DEFAULT_CURRENCY = "EUR";
+
+	private static final int DEFAULT_SCALE = 2;
+
+	private Money() {
+	}
+
+	/**
+	 * Method to get the number of decimals of a currency.
+	 *
+	 * @param currency ISO 4217 code. Unknown codes use two decimals.
+	 * @return decimals of one unit of the currency.
+	 */
+	public static int scale(String currency) {
+		if (currency == null)
+			return DEFAULT_SCALE;
+		try {
+			int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+			return digits < 0 ? DEFAULT_SCALE : digits;
+		} catch (IllegalArgumentException e) {
+			return DEFAULT_SCALE;
+		}
+	}
+
+	/**
+	 * Method to convert a decimal amount to minor units.
+	 *
+	 * @param amount   decimal amount. May be null.
+	 * @param currency ISO 4217 code of the amount.
+	 * @return amount in minor units, or null if amount is null.
+	 * @throws IllegalArgumentException if amount has more decimals than the
+	 *                                  currency or doesn't fit on a long.
+	 */
+	public static Long toMinorUnits(BigDecimal amount, String currency) {
+		if (amount == null)
+			return null;
+		try {
+			return amount.setScale(scale(currency), RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException(String.format("Amount %s isn't a valid %s amount",
+					amount.toPlainString(), currency == null ? DEFAULT_CURRENCY : currency), e);
+		}
+	}
+
+	/**
+	 * Method to convert minor units to a decimal amount.
+	 *
+	 * @param minorUnits amount in minor units.
+	 * @param currency   ISO 4217 code of the amount.
+	 * @return decimal amount with the scale of the currency.
+	 */
+	public static BigDecimal toDecimal(long minorUnits, String currency) {
+		return BigDecimal.valueOf(minorUnits, scale(currency));
+	}
+}
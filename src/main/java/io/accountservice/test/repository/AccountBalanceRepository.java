@@ -0,0 +1,31 @@
+package io.accountservice.test.repository;
+
+/**
+ * Atomic balance operations of Account, applied by the database in one
+ * statement without loading the entity.
+ * 
+ * @author Austr0s
+ */
+public interface AccountBalanceRepository {
+
+	/**
+	 * Method to subtract an amount from the balance of an Account. Balance can
+	 * only become negative if the Account is Treasury.
+	 * 
+	 * @param id     of the Account.
+	 * @param amount amount to subtract, in minor units.
+	 * @return true if balance was updated, false if Account wasn't found or
+	 *         profile doesn't accept negative balance.
+	 */
+	boolean withdraw(Long id, long amount);
+
+	/**
+	 * Method to add an amount to the balance of an Account.
+	 * 
+	 * @param id     of the Account.
+	 * @param amount amount to add, in minor units.
+	 * @return true if balance was updated, false if Account wasn't found.
+	 */
+	boolean deposit(Long id, long amount);
+
+}
@@ -0,0 +1,65 @@
+package io.accountservice.test.repository;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * JDBC implementation of AccountBalanceRepository. Statements are sent through
+ * JdbcTemplate, so they join the current JPA transaction, and only the changed
+ * Account is evicted from the second-level cache instead of the whole region a
+ * JPQL bulk update would evict.
+ * 
+ * @author Austr0s
+ */
+public class AccountBalanceRepositoryImpl implements AccountBalanceRepository {
+
+	private static final String WITHDRAW = "UPDATE ACCOUNT SET BALANCE = BALANCE - ?, VERSION = VERSION + 1 "
+			+ "WHERE ID = ? AND (TREASURY = TRUE OR BALANCE >= ?)";
+
+	private static final String DEPOSIT = "UPDATE ACCOUNT SET BALANCE = BALANCE + ?, VERSION = VERSION + 1 WHERE ID = ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Override
+	public boolean withdraw(Long id, long amount) {
+		boolean updated = jdbcTemplate.update(WITHDRAW, amount, id, amount) == 1;
+		evict(id);
+		return updated;
+	}
+
+	@Override
+	public boolean deposit(Long id, long amount) {
+		boolean updated = jdbcTemplate.update(DEPOSIT, amount, id) == 1;
+		evict(id);
+		return updated;
+	}
+
+	/**
+	 * Private method to evict the Account now, so it is read again inside this
+	 * transaction, and after completion, so a reader that cached the previous
+	 * balance meanwhile doesn't keep it.
+	 * 
+	 * @param id of the Account to evict.
+	 */
+	private void evict(Long id) {
+		entityManagerFactory.getCache().evict(Account.class, id);
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					entityManagerFactory.getCache().evict(Account.class, id);
+				}
+			});
+	}
+
+}
@@ -1,17 +1,111 @@
 package io.accountservice.test.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.accountservice.test.model.entity.Account;
 
-
 /**
  * Repository of entity Account to realize changes on database and persist it.
  * 
  * @author Austr0s
  */
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountBalanceRepository {
+
+	/**
+	 * Method to get all Accounts. Result is kept on the query cache until the
+	 * ACCOUNT table changes.
+	 * 
+	 * @return all accounts.
+	 */
+	@Override
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+	List<Account> findAll();
+
+	/**
+	 * Method to load and lock many Accounts in one query. Rows are locked in id
+	 * order so concurrent batches can't deadlock each other.
+	 * 
+	 * @param ids of the Accounts to lock.
+	 * @return accounts found, ordered by id.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from Account a where a.id in :ids order by a.id")
+	List<Account> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Method to get the currency of many Accounts in one query. Only scalars are
+	 * selected, so no Account enters the persistence context before a transfer
+	 * changes its row.
+	 *
+	 * @param ids of the Accounts.
+	 * @return pairs of id and currency of the Accounts found.
+	 */
+	@Query("select a.id, a.currency from Account a where a.id in :ids")
+	List<Object[]> findCurrencies(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Method to get one page of Accounts seeking by id, so the cost of a page
+	 * doesn't depend on how many pages were read before.
+	 * 
+	 * @param afterId  last id of the previous page. Zero to get first page.
+	 * @param pageable size of the page. Page number must be zero.
+	 * @return accounts with id greater than afterId, ordered by id.
+	 */
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+	@Query("select a from Account a where a.id > :afterId order by a.id")
+	List<Account> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	/**
+	 * Method to read every Account through a database cursor. Must be consumed
+	 * inside a transaction and closed after use.
+	 * 
+	 * @return stream of accounts ordered by id.
+	 */
+	@QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+			@QueryHint(name = "org.hibernate.readOnly", value = "true") })
+	@Query("select a from Account a order by a.id")
+	Stream<Account> streamAll();
+
+	/**
+	 * Method to update an Account with one statement, only if its Treasury value
+	 * is still the same. A null Treasury is the same as false.
+	 * 
+	 * @param id       of the Account to update.
+	 * @param name     new name.
+	 * @param currency new currency.
+	 * @param balance  new balance.
+	 * @param treasury Treasury value the Account must have. Not null.
+	 * @return number of updated rows. Zero if not found or Treasury changed.
+	 */
+	@Modifying
+	@Query("update Account a set a.name = :name, a.currency = :currency, a.balance = :balance, a.version = a.version + 1 where a.id = :id and coalesce(a.treasury, false) = :treasury")
+	int updateIfTreasuryUnchanged(@Param("id") Long id, @Param("name") String name,
+			@Param("currency") String currency, @Param("balance") Long balance,
+			@Param("treasury") Boolean treasury);
+
+	/**
+	 * Method to delete an Account with one statement.
+	 * 
+	 * @param id of the Account to delete.
+	 * @return number of deleted rows. Zero if not found.
+	 */
+	@Modifying
+	@Query("delete from Account a where a.id = :id")
+	int deleteAccountById(@Param("id") Long id);
 
-}
\ No newline at end of file
+}
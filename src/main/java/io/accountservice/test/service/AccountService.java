@@ -2,9 +2,12 @@ package io.accountservice.test.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
 import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
 import io.accountservice.test.model.entity.Account;
 
 /**
@@ -30,6 +33,23 @@ public interface AccountService {
 	 */
 	List<Account> findAll();
 
+	/**
+	 * Method to get one page of accounts seeking by id.
+	 * 
+	 * @param afterId last id of the previous page. Zero to get first page.
+	 * @param size    max number of accounts on the page.
+	 * @return accounts with id greater than afterId, ordered by id.
+	 */
+	List<Account> findPage(Long afterId, int size);
+
+	/**
+	 * Method to read every account from a database cursor, one by one, with
+	 * bounded memory.
+	 * 
+	 * @param consumer called once for every account, ordered by id.
+	 */
+	void streamAll(Consumer<Account> consumer);
+
 	/**
 	 * Method to create a new account.
 	 * 
@@ -41,21 +61,24 @@ public interface AccountService {
 	Optional<Account> create(Account entity) throws CustomException;
 
 	/**
-	 * Method to update Account. This method validate if treasure was modified too.
+	 * Method to update Account with one statement. This method validate if
+	 * treasure was modified too.
 	 * 
 	 * @param entity Account to update values on Database.
 	 * @return updated Account and saved on database.
 	 * @throws CustomException if Treasury is changed on put request. Because id
 	 *                         can't be changed after creation of Account.
+	 * @throws AccountNotFoundException if Account doesn't exist.
 	 */
 	Account update(Account entity) throws CustomException;
 
 	/**
-	 * Method to delete Account.
+	 * Method to delete Account with one statement.
 	 * 
 	 * @param id of account that we want to delete.
+	 * @throws AccountNotFoundException if Account doesn't exist.
 	 */
-	void delete(Account entity);
+	void delete(Long id);
 
 	/**
 	 * Method to transfer balance from an Account to another Account. This method
@@ -69,4 +92,15 @@ public interface AccountService {
 	 */
 	Optional<Account> transference(TransactionOperationDto transaction) throws CustomException;
 
+	/**
+	 * Method to apply many transactions at once, in request order. Each
+	 * transaction is validated like {@link #transference(TransactionOperationDto)}
+	 * but a rejected transaction doesn't stop the following ones.
+	 * 
+	 * @param transactions list of dto to map values origin account and payee
+	 *                     account.
+	 * @return result of each transaction, in request order.
+	 */
+	List<TransactionResultDto> transferenceBatch(List<TransactionOperationDto> transactions);
+
 }
@@ -0,0 +1,69 @@
+package io.accountservice.test.service;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Account service. Same operations and rules as
+ * {@link AccountService}, as Mono and Flux.
+ * 
+ * @author Austr0s
+ */
+public interface ReactiveAccountService {
+
+	/**
+	 * Method to get one Account by Id.
+	 * 
+	 * @param id of the Account that we want to return.
+	 * @return account, or error AccountNotFoundException.
+	 */
+	Mono<Account> findOne(Long id);
+
+	/**
+	 * Method to get every Account, reading one page at a time as the subscriber
+	 * requests more.
+	 * 
+	 * @return accounts ordered by id.
+	 */
+	Flux<Account> findAll();
+
+	/**
+	 * Method to create an Account.
+	 * 
+	 * @param entity Account to save.
+	 * @return account created, or error CustomException if Treasury doesn't allow
+	 *         its balance.
+	 */
+	Mono<Account> create(Account entity);
+
+	/**
+	 * Method to update an Account.
+	 * 
+	 * @param entity Account to update.
+	 * @return account updated, or error CustomException if Treasury is changed or
+	 *         AccountNotFoundException.
+	 */
+	Mono<Account> update(Account entity);
+
+	/**
+	 * Method to delete an Account.
+	 * 
+	 * @param id of the Account to delete.
+	 * @return completion, or error {@link AccountNotFoundException}.
+	 */
+	Mono<Void> delete(Long id);
+
+	/**
+	 * Method to transfer balance from an Account to another Account.
+	 * 
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account, or error {@link CustomException} if profile doesn't
+	 *         accept negative balance.
+	 */
+	Mono<Account> transference(TransactionOperationDto transaction);
+
+}
@@ -0,0 +1,88 @@
+package io.accountservice.test.service;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.model.money.Money;
+
+/**
+ * Treasury profile and currency rules shared by every way of changing Account
+ * balance.
+ *
+ * @author Austr0s
+ */
+public final class TreasuryRules {
+
+	private TreasuryRules() {
+	}
+
+	/**
+	 * Method to validate if an Account is allowed to be created with its balance.
+	 *
+	 * @param entity account to create.
+	 * @throws CustomException if Treasury is false and balance is negative.
+	 */
+	public static void validateCreate(Account entity) throws CustomException {
+		if (!entity.getTreasury() && entity.getBalance() < 0)
+			throw new CustomException(
+					"Error Create: Account profile Treasury not allowed to create Account with negative Balande. Operation fails");
+	}
+
+	/**
+	 * Method to validate if an Account is allowed to realize transaction and save
+	 * negative value on its balance.
+	 *
+	 * @param treasury Treasury profile of origin account.
+	 * @param balance  actual origin account balance, in minor units.
+	 * @param amount   amount to subtract from the actual origin account balance, in
+	 *                 minor units.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	public static void validateWithdrawal(boolean treasury, long balance, long amount) throws CustomException {
+		if (!treasury && balance < amount)
+			throw negativeBalance();
+	}
+
+	/**
+	 * Method to build the exception thrown when a withdrawal would leave a non
+	 * Treasury Account with negative balance.
+	 *
+	 * @return exception to throw.
+	 */
+	public static CustomException negativeBalance() {
+		return new CustomException(
+				"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails");
+	}
+
+	/**
+	 * Method to validate that a transaction is in the currency of an Account it
+	 * moves balance from or to. Amounts are never converted, and the currency of
+	 * the transaction sets the scale its amount was read with.
+	 *
+	 * @param transaction to apply. EUR if it has no currency.
+	 * @param account     origin or payee account.
+	 * @throws CustomException if currencies differ.
+	 */
+	public static void validateCurrency(TransactionOperationDto transaction, Account account)
+			throws CustomException {
+		validateCurrency(transaction, account.getId(), account.getCurrency());
+	}
+
+	/**
+	 * Method to check that a transaction is in the currency of an Account known
+	 * only by its id and currency.
+	 *
+	 * @param transaction dto with the currency of the amount.
+	 * @param id          of origin or payee account.
+	 * @param currency    of origin or payee account.
+	 * @throws CustomException if currencies differ.
+	 */
+	public static void validateCurrency(TransactionOperationDto transaction, Long id, String currency)
+			throws CustomException {
+		String expected = transaction.getCurrency() == null ? Money.DEFAULT_CURRENCY : transaction.getCurrency();
+		if (!expected.equals(currency))
+			throw new CustomException(String.format(
+					"Error Transfer: Currency %s isn't the currency %s of Account Id: %s. Operation fails", expected,
+					currency, id));
+	}
+}
@@ -0,0 +1,226 @@
+package io.accountservice.test.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.accountservice.test.config.ExportProperties;
+import io.accountservice.test.model.dto.ExportFileDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.model.money.Money;
+import io.accountservice.test.service.transfer.TransferStrategy;
+
+/**
+ * Service to export every Account, gzip compressed. Accounts are read from a
+ * forward-only JDBC cursor and written out one row at a time, so memory used
+ * doesn't depend on the size of the table. Only created with the JPA store,
+ * the one that keeps Accounts on that table.
+ *
+ * @author Austr0s
+ */
+@Service
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class AccountExporter {
+
+	private static final String SELECT_ALL = "SELECT ID, NAME, CURRENCY, BALANCE, TREASURY, VERSION FROM ACCOUNT ORDER BY ID";
+
+	private static final String CSV_HEADER = "id,name,currency,balance,treasury,version\n";
+
+	private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'")
+			.withZone(ZoneOffset.UTC);
+
+	/**
+	 * JdbcTemplate to read the cursor without loading entities.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * ObjectMapper to write Accounts on NDJSON.
+	 */
+	@Autowired
+	private ObjectMapper mapper;
+
+	/**
+	 * TransferStrategy to export balances held outside database.
+	 */
+	@Autowired
+	private TransferStrategy transferStrategy;
+
+	@Autowired
+	private ExportProperties properties;
+
+	/**
+	 * Method to write every Account, gzip compressed, to a stream. The stream
+	 * isn't closed.
+	 *
+	 * @param format of the Accounts.
+	 * @param out    stream to write to.
+	 * @return accounts written.
+	 * @throws IOException if the stream fails.
+	 */
+	public long export(ExportFormat format, OutputStream out) throws IOException {
+		GZIPOutputStream gzip = new GZIPOutputStream(out, properties.getBufferSize());
+		long rows = format == ExportFormat.CSV ? writeCsv(gzip) : writeNdjson(gzip);
+		gzip.finish();
+		gzip.flush();
+		return rows;
+	}
+
+	/**
+	 * Method to write every Account to a new gzip compressed file in the export
+	 * directory. The file is written with a temporary name and renamed once
+	 * complete, so a file found there is always a full export.
+	 *
+	 * @param format of the Accounts.
+	 * @return file written.
+	 * @throws IOException if the file can't be written.
+	 */
+	public ExportFileDto exportToFile(ExportFormat format) throws IOException {
+		Path directory = Files.createDirectories(Paths.get(properties.getDirectory()));
+		String name = String.format("accounts-%s.%s.gz", FILE_TIMESTAMP.format(Instant.now()), format.getExtension());
+		Path target = directory.resolve(name);
+		Path partial = directory.resolve(name + ".part");
+
+		long rows;
+		try (OutputStream out = Files.newOutputStream(partial)) {
+			rows = export(format, out);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(partial);
+			throw e;
+		}
+		Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+
+		return new ExportFileDto(target.toString(), format.name(), rows, Files.size(target));
+	}
+
+	private long writeCsv(OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+				properties.getBufferSize());
+		writer.write(CSV_HEADER);
+		long rows = read(account -> {
+			writer.write(String.valueOf(account.getId()));
+			writer.write(',');
+			writer.write(csv(account.getName()));
+			writer.write(',');
+			writer.write(csv(account.getCurrency()));
+			writer.write(',');
+			writer.write(Money.toDecimal(account.getBalance(), account.getCurrency()).toPlainString());
+			writer.write(',');
+			writer.write(account.getTreasury() == null ? "" : account.getTreasury().toString());
+			writer.write(',');
+			writer.write(String.valueOf(account.getVersion()));
+			writer.write('\n');
+		});
+		writer.flush();
+		return rows;
+	}
+
+	private long writeNdjson(OutputStream out) throws IOException {
+		ObjectWriter writer = mapper.writerFor(Account.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		JsonGenerator generator = mapper.getFactory().createGenerator(out);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.setRootValueSeparator(new SerializedString("\n"));
+		long rows = read(account -> writer.writeValue(generator, account));
+		if (rows > 0)
+			generator.writeRaw('\n');
+		generator.flush();
+		return rows;
+	}
+
+	/**
+	 * Method to read every Account from the cursor and hand it to the writer.
+	 * Rows are refreshed one fetch of the cursor at a time, so balances held
+	 * outside database are added with one call per fetch instead of one per row.
+	 *
+	 * @param writer of each Account.
+	 * @return accounts written.
+	 * @throws IOException if the writer fails.
+	 */
+	private long read(AccountWriter writer) throws IOException {
+		int fetchSize = Math.max(1, properties.getFetchSize());
+		List<Account> chunk = new ArrayList<>(fetchSize);
+		long[] rows = new long[1];
+		try {
+			jdbcTemplate.query(connection -> {
+				PreparedStatement statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY);
+				statement.setFetchSize(properties.getFetchSize());
+				return statement;
+			}, (RowCallbackHandler) resultSet -> {
+				chunk.add(account(resultSet));
+				if (chunk.size() == fetchSize)
+					rows[0] += write(chunk, writer);
+			});
+			rows[0] += write(chunk, writer);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return rows[0];
+	}
+
+	private int write(List<Account> chunk, AccountWriter writer) {
+		int written = chunk.size();
+		try {
+			for (Account account : transferStrategy.refreshAll(chunk))
+				writer.write(account);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		chunk.clear();
+		return written;
+	}
+
+	private Account account(ResultSet resultSet) throws SQLException {
+		return Account.builder().id(resultSet.getLong("ID")).name(resultSet.getString("NAME"))
+				.currency(resultSet.getString("CURRENCY")).balance(resultSet.getLong("BALANCE"))
+				.treasury(resultSet.getObject("TREASURY", Boolean.class))
+				.version(resultSet.getLong("VERSION")).build();
+	}
+
+	private static String csv(String value) {
+		if (value == null)
+			return "";
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+			return value;
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	/**
+	 * Writes one Account of the export.
+	 */
+	@FunctionalInterface
+	private interface AccountWriter {
+
+		void write(Account account) throws IOException;
+	}
+}
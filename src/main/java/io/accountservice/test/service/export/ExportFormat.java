@@ -0,0 +1,36 @@
+package io.accountservice.test.service.export;
+
+/**
+ * Formats available to export Accounts.
+ *
+ * @author Austr0s
+ */
+public enum ExportFormat {
+
+	/**
+	 * Comma separated values with a header line. Balance is a decimal amount.
+	 */
+	CSV("text/csv", "csv"),
+
+	/**
+	 * Newline delimited JSON, one Account per line, same as the Account API.
+	 */
+	NDJSON("application/x-ndjson", "ndjson");
+
+	private final String mediaType;
+
+	private final String extension;
+
+	ExportFormat(String mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+}
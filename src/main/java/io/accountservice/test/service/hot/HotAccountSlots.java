@@ -0,0 +1,233 @@
+package io.accountservice.test.service.hot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.config.HotAccountProperties;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+
+/**
+ * Balance slots of hot Accounts. The balance of a hot Account is its ACCOUNT
+ * row plus the sum of its ACCOUNT_SLOT rows, and each transaction changes one
+ * slot picked at random, so concurrent transactions on the same Account lock
+ * different rows.
+ * <p>
+ * A slot of a non Treasury Account never becomes negative, so its balance
+ * doesn't either. When the slot picked can't pay a withdrawal, every slot is
+ * locked and the whole balance is checked and spread again over the slots.
+ * Locks of one Account are always taken row first, then slots, so this doesn't
+ * deadlock with transactions that only hold one slot.
+ * <p>
+ * Statements are sent through JdbcTemplate, so they join the current
+ * transaction.
+ *
+ * @author Austr0s
+ */
+@Component
+public class HotAccountSlots {
+
+	private static final String WITHDRAW = "UPDATE ACCOUNT_SLOT SET BALANCE = BALANCE - ? WHERE ACCOUNT_ID = ? AND SLOT = ? "
+			+ "AND (BALANCE >= ? OR EXISTS (SELECT 1 FROM ACCOUNT A WHERE A.ID = ACCOUNT_SLOT.ACCOUNT_ID AND A.TREASURY = TRUE))";
+
+	private static final String DEPOSIT = "UPDATE ACCOUNT_SLOT SET BALANCE = BALANCE + ? WHERE ACCOUNT_ID = ? AND SLOT = ?";
+
+	private static final String LOCK_ACCOUNT = "SELECT BALANCE, TREASURY FROM ACCOUNT WHERE ID = ? FOR UPDATE";
+
+	private static final String LOCK_SLOTS = "SELECT BALANCE FROM ACCOUNT_SLOT WHERE ACCOUNT_ID = ? FOR UPDATE";
+
+	private static final String SUM_SLOTS = "SELECT COALESCE(SUM(BALANCE), 0) FROM ACCOUNT_SLOT WHERE ACCOUNT_ID = ?";
+
+	private static final String SUM_SLOTS_BY_ACCOUNT = "SELECT ACCOUNT_ID, SUM(BALANCE) AS BALANCE FROM ACCOUNT_SLOT WHERE ACCOUNT_ID IN (%s) GROUP BY ACCOUNT_ID";
+
+	private static final String DELETE_SLOTS = "DELETE FROM ACCOUNT_SLOT WHERE ACCOUNT_ID = ?";
+
+	private static final String INSERT_SLOT = "INSERT INTO ACCOUNT_SLOT (ACCOUNT_ID, SLOT, BALANCE) VALUES (?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * AccountRepository to change the balance kept on the ACCOUNT row.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	@Autowired
+	private HotAccountProperties properties;
+
+	/**
+	 * Method to know if an Account is split into slots.
+	 *
+	 * @param id of the Account.
+	 * @return true if the Account is configured as hot.
+	 */
+	public boolean isHot(Long id) {
+		return properties.getAccounts().contains(id);
+	}
+
+	/**
+	 * Method to subtract an amount from a hot Account. The amount is taken from
+	 * a random slot or, if that slot can't pay it, from the whole balance.
+	 *
+	 * @param id     of the hot Account.
+	 * @param amount amount to subtract, in minor units.
+	 * @return true if balance was updated, false if Account wasn't found or
+	 *         profile doesn't accept negative balance.
+	 */
+	public boolean withdraw(Long id, long amount) {
+		if (jdbcTemplate.update(WITHDRAW, amount, id, randomSlot(), amount) == 1)
+			return true;
+		return rebalance(id, -amount);
+	}
+
+	/**
+	 * Method to add an amount to a random slot of a hot Account.
+	 *
+	 * @param id     of the hot Account.
+	 * @param amount amount to add, in minor units.
+	 * @return true if balance was updated, false if Account wasn't found.
+	 */
+	public boolean deposit(Long id, long amount) {
+		if (jdbcTemplate.update(DEPOSIT, amount, id, randomSlot()) == 1)
+			return true;
+		return rebalance(id, amount);
+	}
+
+	/**
+	 * Method to return the Account with its slots added to its balance.
+	 *
+	 * @param account retrieved from database.
+	 * @return account itself if it isn't hot, or a copy with the whole balance.
+	 */
+	public Account refresh(Account account) {
+		if (!isHot(account.getId()))
+			return account;
+
+		return withSlots(account, jdbcTemplate.queryForObject(SUM_SLOTS, Long.class, account.getId()));
+	}
+
+	/**
+	 * Method to return many Accounts with their slots added to their balance. The
+	 * slots of every hot Account are summed in one query.
+	 *
+	 * @param accounts retrieved from database.
+	 * @return accounts in the same order, hot ones copied with the whole balance.
+	 */
+	public List<Account> refreshAll(List<Account> accounts) {
+		List<Long> hot = accounts.stream().map(Account::getId).filter(this::isHot).collect(Collectors.toList());
+		if (hot.isEmpty())
+			return accounts;
+
+		Map<Long, Long> sums = new HashMap<>();
+		String placeholders = String.join(", ", Collections.nCopies(hot.size(), "?"));
+		for (Map<String, Object> row : jdbcTemplate.queryForList(String.format(SUM_SLOTS_BY_ACCOUNT, placeholders),
+				hot.toArray()))
+			sums.put(((Number) row.get("ACCOUNT_ID")).longValue(), ((Number) row.get("BALANCE")).longValue());
+
+		List<Account> refreshed = new ArrayList<>(accounts.size());
+		for (Account account : accounts)
+			refreshed.add(withSlots(account, sums.getOrDefault(account.getId(), 0L)));
+		return refreshed;
+	}
+
+	/**
+	 * Method to lock many Accounts in id order and move the slots of the hot ones
+	 * into their ACCOUNT row, so their balance can be read and written on the
+	 * entity. Does nothing if none of them is hot.
+	 *
+	 * @param ids of the Accounts.
+	 */
+	public void lockAll(Collection<Long> ids) {
+		if (ids.stream().noneMatch(this::isHot))
+			return;
+
+		for (Long id : new TreeSet<>(ids)) {
+			if (jdbcTemplate.queryForList(LOCK_ACCOUNT, id).isEmpty() || !isHot(id))
+				continue;
+			long slots = lockSlots(id);
+			jdbcTemplate.update(DELETE_SLOTS, id);
+			if (slots != 0)
+				repository.deposit(id, slots);
+		}
+	}
+
+	/**
+	 * Method to drop the slots of an Account whose balance was set or which was
+	 * deleted. Slots are created again by the next transaction.
+	 *
+	 * @param id of the Account.
+	 */
+	public void clear(Long id) {
+		if (!isHot(id))
+			return;
+		jdbcTemplate.queryForList(LOCK_ACCOUNT, id);
+		jdbcTemplate.update(DELETE_SLOTS, id);
+	}
+
+	/**
+	 * Private method to apply an amount to the whole balance of a hot Account.
+	 * The Account row and every slot are locked, the Treasury rule is checked on
+	 * the whole balance, and the new balance is spread evenly over the slots.
+	 *
+	 * @param id    of the hot Account.
+	 * @param delta amount to add, negative to subtract, in minor units.
+	 * @return true if balance was updated, false if Account wasn't found or
+	 *         profile doesn't accept negative balance.
+	 */
+	private boolean rebalance(Long id, long delta) {
+		List<Map<String, Object>> rows = jdbcTemplate.queryForList(LOCK_ACCOUNT, id);
+		if (rows.isEmpty())
+			return false;
+
+		long base = ((Number) rows.get(0).get("BALANCE")).longValue();
+		boolean treasury = Boolean.TRUE.equals(rows.get(0).get("TREASURY"));
+		long balance = base + lockSlots(id) + delta;
+		if (!treasury && balance < 0)
+			return false;
+
+		int count = properties.getSlots();
+		List<Object[]> slots = new ArrayList<>(count);
+		for (int slot = 0; slot < count; slot++)
+			slots.add(new Object[] { id, slot, balance / count + (slot == 0 ? balance % count : 0) });
+		jdbcTemplate.update(DELETE_SLOTS, id);
+		jdbcTemplate.batchUpdate(INSERT_SLOT, slots);
+		if (base != 0)
+			repository.deposit(id, -base);
+		return true;
+	}
+
+	/**
+	 * Private method to lock every slot of a hot Account.
+	 *
+	 * @param id of the hot Account.
+	 * @return sum of the slots, in minor units.
+	 */
+	private long lockSlots(Long id) {
+		return jdbcTemplate.queryForList(LOCK_SLOTS, Long.class, id).stream().mapToLong(Long::longValue).sum();
+	}
+
+	private static Account withSlots(Account account, long slots) {
+		if (slots == 0)
+			return account;
+		return Account.builder().id(account.getId()).name(account.getName()).currency(account.getCurrency())
+				.balance(account.getBalance() + slots).treasury(account.getTreasury())
+				.version(account.getVersion()).build();
+	}
+
+	private int randomSlot() {
+		return ThreadLocalRandom.current().nextInt(properties.getSlots());
+	}
+
+}
@@ -0,0 +1,235 @@
+package io.accountservice.test.service.idempotency;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.accountservice.test.config.IdempotencyProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service to apply a transaction once per Idempotency-Key. Keys are held in a
+ * bounded in-memory cache that expires them after a time to live; concurrent
+ * requests with the same key wait for the first one and get its result. Keys
+ * are also claimed on the ACCOUNT_IDEMPOTENCY table, so a retry that arrives
+ * after the key left memory, or on another node, gets the stored result too.
+ * <p>
+ * The key is claimed, the transaction applied and its result stored in one
+ * database transaction, so a key is never left claimed without a result and a
+ * result is never stored for a transaction rolled back. Another request with
+ * the same key waits on the claim until that transaction completes. Transfer
+ * modes that apply balances in memory commit them on their own, so only the
+ * claim and result share a commit there.
+ * <p>
+ * Only created with the JPA store, whose transactions the claim can join.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class IdempotencyService {
+
+	/**
+	 * Max length of an Idempotency-Key.
+	 */
+	public static final int MAX_KEY_LENGTH = 100;
+
+	private static final String CLAIM = "INSERT INTO ACCOUNT_IDEMPOTENCY (IDEMPOTENCY_KEY, FINGERPRINT, CREATED_AT) VALUES (?, ?, ?)";
+
+	private static final String COMPLETE = "UPDATE ACCOUNT_IDEMPOTENCY SET ACCOUNT_ID = ?, NAME = ?, CURRENCY = ?, BALANCE = ?, TREASURY = ?, VERSION = ? WHERE IDEMPOTENCY_KEY = ?";
+
+	private static final String SELECT = "SELECT FINGERPRINT, ACCOUNT_ID, NAME, CURRENCY, BALANCE, TREASURY, VERSION FROM ACCOUNT_IDEMPOTENCY WHERE IDEMPOTENCY_KEY = ?";
+
+	private static final String PURGE = "DELETE FROM ACCOUNT_IDEMPOTENCY WHERE CREATED_AT < ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * TransactionTemplate to claim the key, apply the transaction and store its
+	 * result in one commit.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private IdempotencyProperties properties;
+
+	private Cache<String, Entry> cache;
+
+	private ScheduledExecutorService purger;
+
+	@PostConstruct
+	public void start() {
+		cache = Caffeine.newBuilder() //
+				.maximumSize(properties.getMaximumSize()) //
+				.expireAfterWrite(properties.getTimeToLive().toNanos(), TimeUnit.NANOSECONDS) //
+				.build();
+
+		long interval = properties.getPurgeInterval().toMillis();
+		purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "idempotency-purge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		purger.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		purger.shutdown();
+		purger.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Method to apply a transaction once for the given key.
+	 *
+	 * @param key         Idempotency-Key sent by the client.
+	 * @param transaction transaction requested, to reject a key reused with a
+	 *                    different transaction.
+	 * @param transfer    applies the transaction. Only called for a new key.
+	 * @return origin account returned when the transaction was applied.
+	 * @throws CustomException if key is not valid, was used with a different
+	 *                         transaction, or is still being applied on another
+	 *                         node.
+	 */
+	public Account execute(String key, TransactionOperationDto transaction, Supplier<Account> transfer)
+			throws CustomException {
+		if (key.isEmpty() || key.length() > MAX_KEY_LENGTH)
+			throw new CustomException(
+					String.format("Idempotency-Key must have between 1 and %s characters", MAX_KEY_LENGTH));
+
+		String fingerprint = fingerprint(transaction);
+		Entry entry = new Entry(fingerprint);
+		Entry existing = cache.asMap().putIfAbsent(key, entry);
+		if (existing != null)
+			return replay(key, existing, fingerprint);
+
+		try {
+			Account result = claimOrLoad(key, fingerprint, transfer);
+			entry.result.complete(result);
+			return copy(result);
+		} catch (RuntimeException e) {
+			cache.asMap().remove(key, entry);
+			entry.result.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Method to remove keys older than retention from database.
+	 */
+	void purge() {
+		try {
+			int purged = jdbcTemplate.update(PURGE,
+					new Timestamp(System.currentTimeMillis() - properties.getRetention().toMillis()));
+			log.debug("Purged {} idempotency keys", purged);
+		} catch (RuntimeException e) {
+			log.error("Idempotency keys purge failed. Retrying on next purge", e);
+		}
+	}
+
+	/**
+	 * Private method to claim the key on database and apply the transaction, or
+	 * load the stored result if the key was already claimed. A failure rolls the
+	 * claim back with the transaction.
+	 */
+	private Account claimOrLoad(String key, String fingerprint, Supplier<Account> transfer) {
+		return transactionTemplate.execute(status -> {
+			try {
+				jdbcTemplate.update(CLAIM, key, fingerprint, new Timestamp(System.currentTimeMillis()));
+			} catch (DuplicateKeyException e) {
+				return stored(key, fingerprint);
+			}
+
+			Account result = transfer.get();
+			jdbcTemplate.update(COMPLETE, result.getId(), result.getName(), result.getCurrency(), result.getBalance(),
+					result.getTreasury(), result.getVersion(), key);
+			return result;
+		});
+	}
+
+	private Account stored(String key, String fingerprint) {
+		List<Account> results = jdbcTemplate.query(SELECT, (rs, row) -> {
+			if (!fingerprint.equals(rs.getString(1)))
+				throw mismatch(key);
+			long id = rs.getLong(2);
+			if (rs.wasNull())
+				throw new CustomException(String.format(
+						"Idempotency-Key %s is being processed by another request. Retry later", key));
+			return Account.builder().id(id).name(rs.getString(3)).currency(rs.getString(4))
+					.balance(rs.getLong(5)).treasury(rs.getBoolean(6)).version(rs.getLong(7)).build();
+		}, key);
+		if (results.isEmpty())
+			throw new CustomException(
+					String.format("Idempotency-Key %s is being processed by another request. Retry later", key));
+		return results.get(0);
+	}
+
+	private Account replay(String key, Entry existing, String fingerprint) {
+		if (!existing.fingerprint.equals(fingerprint))
+			throw mismatch(key);
+		try {
+			return copy(existing.result.join());
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	private CustomException mismatch(String key) {
+		return new CustomException(
+				String.format("Idempotency-Key %s was already used with a different transaction", key));
+	}
+
+	private static String fingerprint(TransactionOperationDto transaction) {
+		return transaction.getOrigin() + ":" + transaction.getPayee() + ":" + transaction.getAmountToTransfer() + ":"
+				+ transaction.getCurrency();
+	}
+
+	/**
+	 * Private method to copy a result, so links added to the response of one
+	 * request aren't shared with others.
+	 */
+	private static Account copy(Account account) {
+		return Account.builder().id(account.getId()).name(account.getName()).currency(account.getCurrency())
+				.balance(account.getBalance()).treasury(account.getTreasury()).version(account.getVersion()).build();
+	}
+
+	/**
+	 * Key held in memory, with the result of its transaction once applied.
+	 */
+	private static final class Entry {
+
+		private final String fingerprint;
+
+		private final CompletableFuture<Account> result = new CompletableFuture<>();
+
+		Entry(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+	}
+}
@@ -1,9 +1,23 @@
 package io.accountservice.test.service.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,18 +25,25 @@ import org.springframework.transaction.annotation.Transactional;
 import io.accountservice.test.exception.CustomException;
 import io.accountservice.test.exception.account.AccountNotFoundException;
 import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
 import io.accountservice.test.model.entity.Account;
 import io.accountservice.test.repository.AccountRepository;
 import io.accountservice.test.service.AccountService;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.accountservice.test.service.replica.ReplicaReads;
+import io.accountservice.test.service.transfer.TransferStrategy;
 import io.micrometer.core.lang.NonNull;
 
 /**
- * Service Implementation of Account service to manage Accounts.
+ * Service Implementation of Account service to manage Accounts kept through
+ * JPA. Default store.
  * 
  * @author Austr0s
  */
 @Service
 @Transactional
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
 public class AccountServiceImpl implements AccountService {
 
 	/**
@@ -32,26 +53,87 @@ public class AccountServiceImpl implements AccountService {
 	private AccountRepository repository;
 
 	/**
-	 * Method to get one Account by Id.
+	 * TransferStrategy selected by account.transfer.mode to apply transactions.
+	 */
+	@Autowired
+	private TransferStrategy transferStrategy;
+
+	/**
+	 * TransferJournal to record every balance change in the same commit.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	/**
+	 * ReplicaReads to serve read-only queries from replicas when enabled.
+	 */
+	@Autowired
+	private ReplicaReads replicaReads;
+
+	/**
+	 * EntityManager to detach streamed Accounts once consumed.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Method to get one Account by Id. May be read from a replica that has the
+	 * last change of the Account made on this node.
 	 * 
 	 * @param id of the Account that we want to return.
 	 * @return optional account retrieved from database.
 	 */
 	@Override
-	@Transactional(propagation = Propagation.SUPPORTS)
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public Optional<Account> findOne(@NonNull Long id) {
-		return repository.findById(id);
+		return replicaReads.read(id, () -> repository.findById(id).map(transferStrategy::refresh));
 	}
 
 	/**
 	 * Method to get all accounts as a list.
 	 * 
-	 * @return list of accounts retrieved from database.
+	 * @return list of accounts retrieved from database, or from a replica.
 	 */
 	@Override
-	@Transactional(propagation = Propagation.SUPPORTS)
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public List<Account> findAll() {
-		return repository.findAll();
+		return replicaReads.read(() -> transferStrategy.refreshAll(repository.findAll()));
+	}
+
+	/**
+	 * Method to get one page of accounts seeking by id.
+	 * 
+	 * @param afterId last id of the previous page. Zero to get first page.
+	 * @param size    max number of accounts on the page.
+	 * @return accounts with id greater than afterId, ordered by id, from database
+	 *         or from a replica.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public List<Account> findPage(@NonNull Long afterId, int size) {
+		return replicaReads
+				.read(() -> transferStrategy.refreshAll(repository.findPageAfter(afterId, PageRequest.of(0, size))));
+	}
+
+	/**
+	 * Method to read every account from a database cursor, one by one. Each
+	 * account is detached once consumed so the persistence context doesn't grow
+	 * with the table.
+	 * 
+	 * @param consumer called once for every account, ordered by id.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAll(@NonNull Consumer<Account> consumer) {
+		replicaReads.read(() -> {
+			try (Stream<Account> accounts = repository.streamAll()) {
+				accounts.forEach(account -> {
+					entityManager.detach(account);
+					consumer.accept(transferStrategy.refresh(account));
+				});
+			}
+			return null;
+		});
 	}
 
 	/**
@@ -64,110 +146,140 @@ public class AccountServiceImpl implements AccountService {
 	 */
 	@Override
 	public Optional<Account> create(Account entity) throws CustomException {
-		validateTreasureCreateAllow(entity);
-		return Optional.of(repository.save(entity));
-	}
+		TreasuryRules.validateCreate(entity);
+		Account created = repository.save(entity);
+		journal.set(created.getId(), created.getBalance());
+		replicaReads.written(created.getId());
 
-	private void validateTreasureCreateAllow(Account entity) throws CustomException {
-		if (!entity.getTreasury() && entity.getBalance() < 0)
-			throw new CustomException(
-					"Error Create: Account profile Treasury not allowed to create Account with negative Balande. Operation fails");
+		return Optional.of(created);
 	}
 
 	/**
-	 * Method to update Account. This method validate if treasure was modified too.
+	 * Method to update Account with one statement. This method validate if
+	 * treasure was modified too: the update only matches the row if Treasury is
+	 * unchanged, and the Account is only looked up again when nothing was updated,
+	 * to tell not found from Treasury changed.
 	 * 
 	 * @param entity Account to update values on Database.
 	 * @return updated Account and saved on database.
 	 * @throws CustomException if Treasury is changed on put request. Because id
 	 *                         can't be changed after creation of Account.
+	 * @throws AccountNotFoundException if Account doesn't exist.
 	 */
 	@Override
 	public Account update(Account entity) throws CustomException {
-		Account actual = findOne(entity.getId()).orElseThrow(() -> new AccountNotFoundException(
-				String.format("Update Account Id: %s was not found", entity.getId())));
+		int updated = repository.updateIfTreasuryUnchanged(entity.getId(), entity.getName(), entity.getCurrency(),
+				entity.getBalance(), Boolean.TRUE.equals(entity.getTreasury()));
 
-		if (actual != null && !entity.getTreasury().equals(actual.getTreasury()))
+		if (updated == 0) {
+			if (!repository.existsById(entity.getId()))
+				throw new AccountNotFoundException(String.format("Update Account Id: %s was not found", entity.getId()));
 			throw new CustomException("Error: Treasury value changed. Operation fails");
-		entity.setId(actual.getId());
-		
-		return repository.save(entity);
+		}
+		transferStrategy.evict(entity.getId());
+		journal.set(entity.getId(), entity.getBalance());
+		replicaReads.written(entity.getId());
+
+		return entity;
 	}
 
 	/**
-	 * Method to delete Account.
+	 * Method to delete Account with one statement.
 	 * 
 	 * @param id of account that we want to delete.
+	 * @throws AccountNotFoundException if Account doesn't exist.
 	 */
 	@Override
-	public void delete(Account entity) {
-		repository.delete(entity);
+	public void delete(@NonNull Long id) {
+		if (repository.deleteAccountById(id) == 0)
+			throw new AccountNotFoundException(String.format("Delete Account Id: %s was not found", id));
+		transferStrategy.evict(id);
+		journal.delete(id);
+		replicaReads.written(id);
 	}
 
 	/**
 	 * Method to transfer balance from an Account to another Account. This method
-	 * validates Treasury profile and if it could set balance to negative amount. It
-	 * validates too if the Treasury value was changed after success transaction.
+	 * validates the currency of both Accounts, Treasury profile and if it could
+	 * set balance to negative amount. The transaction is applied by the
+	 * TransferStrategy selected on configuration, which opens its own database
+	 * transaction when it needs one.
 	 * 
 	 * @param transaction dto to map values origin account and payee account.
 	 * @return origin account
-	 * @throws CustomException if Treasury is changed or profile doesn't accept
-	 *                         negative balance.
+	 * @throws CustomException if currencies differ, Treasury is changed or
+	 *                         profile doesn't accept negative balance.
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public Optional<Account> transference(@NonNull TransactionOperationDto transaction) throws CustomException {
-		Account origin = repository.getOne(transaction.getOrigin());
-
-		validateTreasuryNotChanged(origin);
-		validateTreasuryNegativeValid(origin, transaction.getAmountToTransfer());
-
-		origin.setBalance(origin.getBalance() - transaction.getAmountToTransfer());
-		Account payee = repository.getOne(transaction.getPayee());
-		payee.setBalance(payee.getBalance() + transaction.getAmountToTransfer());
-
-		repository.save(payee);
-		repository.flush();
-
-		return Optional.of(repository.save(origin));
+		currencies(Arrays.asList(transaction.getOrigin(), transaction.getPayee()))
+				.forEach((id, currency) -> TreasuryRules.validateCurrency(transaction, id, currency));
+		Account origin = transferStrategy.transfer(transaction);
+		replicaReads.written(transaction.getOrigin(), transaction.getPayee());
+		return Optional.of(origin);
 	}
 
 	/**
-	 * Private Method to validate if an Account is allowed to realize transaction
-	 * and save negative value on balance on it's balance.
+	 * Method to apply many transactions at once, in request order. Each
+	 * transaction is validated like {@link #transference(TransactionOperationDto)}
+	 * but a rejected transaction doesn't stop the following ones.
 	 * 
-	 * @param origin account to validate.
-	 * @param amount amount to subtract from the actual origin account balance.
-	 * @throws CustomException
+	 * @param transactions list of dto to map values origin account and payee
+	 *                     account.
+	 * @return result of each transaction, in request order.
 	 */
-	private void validateTreasuryNegativeValid(Account origin, Double amount) throws CustomException {
-		if (!origin.getTreasury() && calculateTransfer(origin.getBalance(), amount))
-			throw new CustomException(
-					"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails");
-	}
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public List<TransactionResultDto> transferenceBatch(@NonNull List<TransactionOperationDto> transactions) {
+		Set<Long> ids = new HashSet<>();
+		transactions.forEach(transaction -> {
+			ids.add(transaction.getOrigin());
+			ids.add(transaction.getPayee());
+		});
+		Map<Long, String> currencies = currencies(ids);
 
-	/**
-	 * Private Method to calculate balance result after decrement amount transfer
-	 * 
-	 * @param balance origin account balance.
-	 * @param amount  amount to discount to actual account balance.
-	 * @return true or false value depending on statement result.
-	 */
-	private boolean calculateTransfer(Double balance, Double amount) {
-		return (balance - amount) < 0;
+		// Transactions in another currency are rejected here, the others keep their
+		// request order on the strategy.
+		TransactionResultDto[] results = new TransactionResultDto[transactions.size()];
+		List<TransactionOperationDto> accepted = new ArrayList<>(transactions.size());
+		List<Integer> positions = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			TransactionOperationDto transaction = transactions.get(i);
+			try {
+				for (Long id : Arrays.asList(transaction.getOrigin(), transaction.getPayee()))
+					if (currencies.containsKey(id))
+						TreasuryRules.validateCurrency(transaction, id, currencies.get(id));
+				accepted.add(transaction);
+				positions.add(i);
+			} catch (CustomException e) {
+				results[i] = new TransactionResultDto(i, transaction, false, e.getMessage());
+			}
+		}
+
+		for (TransactionResultDto result : transferStrategy.transferAll(accepted)) {
+			int position = positions.get(result.getIndex());
+			result.setIndex(position);
+			results[position] = result;
+			if (result.isSuccess())
+				replicaReads.written(result.getOrigin(), result.getPayee());
+		}
+		return Arrays.asList(results);
 	}
 
 	/**
-	 * Private Methdo to validate if the origin value Treasury was changed. Because
-	 * it can't be changed on update entity. Just setted only on creation of
-	 * account.
+	 * Private method to get the currency of many Accounts with one scalar query.
+	 * Accounts aren't loaded as entities, so the strategy never finds a stale
+	 * Account in the persistence context of the request after it changes the row.
 	 * 
-	 * @param origin account to treasury validate
-	 * @throws CustomException exception if treasure was changed.
+	 * @param ids of the Accounts.
+	 * @return currency of each Account found, by id.
 	 */
-	private void validateTreasuryNotChanged(Account origin) throws CustomException {
-		Account actual = repository.getOne(origin.getId());
-		if (actual != null && !origin.getTreasury().equals(actual.getTreasury()))
-			throw new CustomException("Error: Treasury value changed. Operation fails");
+	private Map<Long, String> currencies(Collection<Long> ids) {
+		Map<Long, String> currencies = new HashMap<>();
+		for (Object[] row : repository.findCurrencies(ids))
+			currencies.put((Long) row[0], (String) row[1]);
+		return currencies;
 	}
 
 }
@@ -0,0 +1,112 @@
+package io.accountservice.test.service.impl;
+
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.accountservice.test.config.ReactiveProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.AccountService;
+import io.accountservice.test.service.ReactiveAccountService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service Implementation of ReactiveAccountService. Every operation is applied
+ * by AccountService, so rules and transactions are the same, on a bounded
+ * scheduler: callers never block, and at most threadCap database calls are in
+ * progress at once.
+ * 
+ * @author Austr0s
+ */
+@Service
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+	/**
+	 * AccountService to apply every operation.
+	 */
+	@Autowired
+	private AccountService service;
+
+	@Autowired
+	private ReactiveProperties properties;
+
+	private Scheduler scheduler;
+
+	@PostConstruct
+	public void start() {
+		scheduler = Schedulers.newBoundedElastic(properties.getThreadCap(), properties.getQueuedTaskCap(),
+				"reactive-account");
+	}
+
+	@PreDestroy
+	public void stop() {
+		scheduler.dispose();
+	}
+
+	@Override
+	public Mono<Account> findOne(Long id) {
+		return Mono.fromCallable(() -> service.findOne(id)
+				.orElseThrow(() -> new AccountNotFoundException("Get One Account Id: " + id + " was not found")))
+				.subscribeOn(scheduler);
+	}
+
+	/**
+	 * Method to get every Account. Pages are read seeking by id, one page for each
+	 * request of the subscriber, so a slow client holds no database resources
+	 * between pages.
+	 * 
+	 * @return accounts ordered by id.
+	 */
+	@Override
+	public Flux<Account> findAll() {
+		int pageSize = properties.getPageSize();
+		return Flux.<List<Account>, Long>generate(() -> 0L, (after, sink) -> {
+			List<Account> page = service.findPage(after, pageSize);
+			if (page.isEmpty()) {
+				sink.complete();
+				return after;
+			}
+			sink.next(page);
+			if (page.size() < pageSize)
+				sink.complete();
+			return page.get(page.size() - 1).getId();
+		}).flatMapIterable(page -> page, 1).subscribeOn(scheduler);
+	}
+
+	@Override
+	public Mono<Account> create(Account entity) {
+		return Mono.fromCallable(() -> service.create(entity).orElseThrow(
+				() -> new CustomException("Create Account: Some thing went wrong creating" + entity.getName())))
+				.subscribeOn(scheduler);
+	}
+
+	@Override
+	public Mono<Account> update(Account entity) {
+		return Mono.fromCallable(() -> service.update(entity)).subscribeOn(scheduler);
+	}
+
+	@Override
+	public Mono<Void> delete(Long id) {
+		return Mono.<Void>fromRunnable(() -> service.delete(id)).subscribeOn(scheduler);
+	}
+
+	@Override
+	public Mono<Account> transference(TransactionOperationDto transaction) {
+		return Mono.fromCallable(() -> service.transference(transaction)
+				.orElseThrow(() -> new CustomException(String.format(
+						"Transaction - Origin Account Id: %s  and Payee Id: %s. Something went wrong.",
+						transaction.getOrigin(), transaction.getPayee()))))
+				.subscribeOn(scheduler);
+	}
+
+}
@@ -0,0 +1,316 @@
+package io.accountservice.test.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.accountservice.test.config.ImportProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.ImportErrorDto;
+import io.accountservice.test.model.dto.ImportResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.model.money.Money;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.export.ExportFormat;
+import io.accountservice.test.service.journal.TransferJournal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service to create many Accounts at once. Accounts are processed in chunks:
+ * every Account of a chunk is validated in parallel with the same rules as
+ * AccountService create, and the valid ones are inserted in one database
+ * transaction, as JDBC batches. A rejected Account doesn't stop the others.
+ * <p>
+ * Files use the formats of the export, so an export can be loaded back. Ids and
+ * versions found on the input are ignored; every Account gets a new id. Only
+ * created with the JPA store, as rows are inserted on the ACCOUNT table.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class AccountImporter {
+
+	/**
+	 * AccountRepository to insert Accounts.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * TransferJournal to record the balance of every Account inserted.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	/**
+	 * EntityManager shared with the caller, cleared after each chunk so Accounts
+	 * inserted don't stay managed until the request ends.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * TransactionTemplate to insert each chunk in one commit.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * Validator to check the constraints of Account entity.
+	 */
+	@Autowired
+	private Validator validator;
+
+	/**
+	 * ObjectMapper to read Accounts from NDJSON.
+	 */
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private ImportProperties properties;
+
+	/**
+	 * Method to create many Accounts.
+	 *
+	 * @param accounts to create.
+	 * @return accounts created and reason of each one rejected.
+	 */
+	public ImportResultDto importAll(List<Account> accounts) {
+		ImportResultDto result = new ImportResultDto();
+		int chunkSize = Math.max(1, properties.getChunkSize());
+		List<Row> chunk = new ArrayList<>(Math.min(chunkSize, accounts.size()));
+		for (int i = 0; i < accounts.size(); i++) {
+			chunk.add(new Row(i, accounts.get(i)));
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		importChunk(chunk, result);
+		return result;
+	}
+
+	/**
+	 * Method to create every Account of a file. Rows are read one chunk at a
+	 * time, so the file is never held in memory.
+	 *
+	 * @param in     content of the file, uncompressed.
+	 * @param format of the file.
+	 * @return accounts created and reason of each row rejected.
+	 * @throws IOException if the file can't be read.
+	 */
+	public ImportResultDto importFile(InputStream in, ExportFormat format) throws IOException {
+		ImportResultDto result = new ImportResultDto();
+		int chunkSize = Math.max(1, properties.getChunkSize());
+		List<Row> chunk = new ArrayList<>(chunkSize);
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		Map<String, Integer> columns = format == ExportFormat.CSV ? header(reader.readLine()) : null;
+		long index = 0;
+		for (String line; (line = reader.readLine()) != null;) {
+			if (line.trim().isEmpty())
+				continue;
+
+			chunk.add(format == ExportFormat.CSV ? csvRow(index++, line, columns) : jsonRow(index++, line));
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		importChunk(chunk, result);
+		return result;
+	}
+
+	private void importChunk(List<Row> chunk, ImportResultDto result) {
+		if (chunk.isEmpty())
+			return;
+
+		chunk.parallelStream().filter(row -> row.error == null).forEach(row -> row.error = validate(row.account));
+
+		List<Row> valid = chunk.stream().filter(row -> row.error == null).collect(Collectors.toList());
+		if (!valid.isEmpty()) {
+			try {
+				transactionTemplate.execute(status -> {
+					List<Account> saved = repository
+							.saveAll(valid.stream().map(row -> row.account).collect(Collectors.toList()));
+					Map<Long, Long> balances = new LinkedHashMap<>();
+					saved.forEach(account -> balances.put(account.getId(), account.getBalance()));
+					journal.setAll(balances);
+					return null;
+				});
+				result.setImported(result.getImported() + valid.size());
+			} catch (RuntimeException e) {
+				log.error("Import of {} Accounts failed", valid.size(), e);
+				valid.forEach(row -> row.error = "Import failed: " + e.getMessage());
+			} finally {
+				entityManager.clear();
+			}
+		}
+
+		for (Row row : chunk) {
+			if (row.error != null) {
+				result.setFailed(result.getFailed() + 1);
+				result.getErrors().add(new ImportErrorDto(row.index, row.error));
+			}
+		}
+	}
+
+	/**
+	 * Method to validate an Account to create.
+	 *
+	 * @param account to create.
+	 * @return reason why the Account is rejected, or null if it's valid.
+	 */
+	private String validate(Account account) {
+		account.setId(null);
+		account.setVersion(null);
+		if (account.getTreasury() == null)
+			account.setTreasury(Boolean.FALSE);
+
+		Set<ConstraintViolation<Account>> violations = validator.validate(account);
+		if (!violations.isEmpty())
+			return violations.stream().map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+					.sorted().collect(Collectors.joining(", "));
+
+		try {
+			TreasuryRules.validateCreate(account);
+		} catch (CustomException e) {
+			return e.getMessage();
+		}
+		return null;
+	}
+
+	private Map<String, Integer> header(String line) {
+		if (line == null)
+			return null;
+
+		Map<String, Integer> columns = new LinkedHashMap<>();
+		List<String> names = csv(line);
+		for (int i = 0; i < names.size(); i++)
+			columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+
+		for (String required : Arrays.asList("name", "currency", "balance"))
+			if (!columns.containsKey(required))
+				throw new CustomException(String.format("Import file header hasn't %s column", required));
+		return columns;
+	}
+
+	private Row csvRow(long index, String line, Map<String, Integer> columns) {
+		List<String> values = csv(line);
+		if (values.size() < columns.size())
+			return new Row(index, String.format("Row has %s columns and header has %s", values.size(), columns.size()));
+
+		String currency = value(values, columns, "currency");
+		String balance = value(values, columns, "balance");
+		String treasury = value(values, columns, "treasury");
+		try {
+			Account account = Account.builder().name(value(values, columns, "name")).currency(currency)
+					.balance(balance == null ? null : Money.toMinorUnits(new BigDecimal(balance), currency))
+					.treasury(treasury == null ? null : Boolean.valueOf(treasury)).build();
+			return new Row(index, account);
+		} catch (IllegalArgumentException e) {
+			return new Row(index, e instanceof NumberFormatException
+					? String.format("Balance %s isn't a number", balance) : e.getMessage());
+		}
+	}
+
+	private Row jsonRow(long index, String line) {
+		try {
+			return new Row(index, mapper.readValue(line, Account.class));
+		} catch (JsonProcessingException e) {
+			return new Row(index, "Invalid JSON: " + e.getOriginalMessage());
+		}
+	}
+
+	private static String value(List<String> values, Map<String, Integer> columns, String column) {
+		Integer position = columns.get(column);
+		if (position == null)
+			return null;
+		String value = values.get(position);
+		return value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * Method to split a CSV line, with fields optionally quoted and quotes
+	 * escaped by doubling them, as written by the export.
+	 */
+	private static List<String> csv(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					value.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString());
+		return values;
+	}
+
+	/**
+	 * Account read from the input with its position, or the reason it's
+	 * rejected.
+	 */
+	private static final class Row {
+
+		private final long index;
+
+		private final Account account;
+
+		private String error;
+
+		Row(long index, Account account) {
+			this.index = index;
+			this.account = account;
+		}
+
+		Row(long index, String error) {
+			this.index = index;
+			this.account = null;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package io.accountservice.test.service.journal;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.JournalProperties;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of every balance change. Entries are written with
+ * JdbcTemplate, so they join the transaction that changes the balances and are
+ * committed with them.
+ * <p>
+ * Balances are periodically folded into snapshots by a single snapshot thread:
+ * a new snapshot is the previous one plus the journal entries after it. All
+ * balances can then be rebuilt from the latest snapshot and the journal tail,
+ * without reading the ACCOUNT table.
+ * <p>
+ * Only created with the JPA store, as other stores keep balances outside the
+ * ACCOUNT table.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class TransferJournal {
+
+	private static final String APPEND = "INSERT INTO ACCOUNT_JOURNAL (ENTRY_TYPE, ORIGIN, PAYEE, AMOUNT, CREATED_AT) VALUES (?, ?, ?, ?, ?)";
+
+	private static final String SELECT_ENTRIES = "SELECT ENTRY_TYPE, ORIGIN, PAYEE, AMOUNT FROM ACCOUNT_JOURNAL WHERE SEQ > ? AND SEQ <= ? ORDER BY SEQ";
+
+	private static final String SELECT_LATEST_SNAPSHOT = "SELECT MAX(SEQ) FROM ACCOUNT_SNAPSHOT_HEAD";
+
+	private static final String SELECT_SNAPSHOT = "SELECT ACCOUNT_ID, BALANCE FROM ACCOUNT_SNAPSHOT WHERE SEQ = ?";
+
+	/**
+	 * Type of a journal entry. Transfers are the hot path; accounts created,
+	 * updated or deleted are recorded too, so replaying the journal gives the same
+	 * balances as the ACCOUNT table.
+	 */
+	public enum Type {
+
+		/**
+		 * Amount moved from ORIGIN to PAYEE.
+		 */
+		TRANSFER,
+
+		/**
+		 * Balance of ORIGIN set to AMOUNT, on creation or update.
+		 */
+		SET,
+
+		/**
+		 * ORIGIN deleted.
+		 */
+		DELETE
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * TransactionTemplate to write each snapshot in one commit.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JournalProperties properties;
+
+	private ScheduledExecutorService snapshotter;
+
+	@PostConstruct
+	public void start() {
+		transactionTemplate.execute(status -> {
+			if (latestSnapshot() == null)
+				baseSnapshot();
+			return null;
+		});
+
+		long interval = properties.getSnapshotInterval().toMillis();
+		snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "journal-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		snapshotter.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		snapshotter.shutdown();
+		snapshotter.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Method to record one transfer.
+	 *
+	 * @param origin id of origin Account.
+	 * @param payee  id of payee Account.
+	 * @param amount amount transferred, in minor units.
+	 */
+	public void transfer(Long origin, Long payee, long amount) {
+		jdbcTemplate.update(APPEND, Type.TRANSFER.name(), origin, payee, amount, now());
+	}
+
+	/**
+	 * Method to record many transfers in one JDBC batch.
+	 *
+	 * @param transactions transfers applied, in the order they were applied.
+	 */
+	public void transferAll(List<TransactionOperationDto> transactions) {
+		if (transactions.isEmpty())
+			return;
+
+		Timestamp now = now();
+		List<Object[]> batch = new ArrayList<>(transactions.size());
+		for (TransactionOperationDto transaction : transactions)
+			batch.add(new Object[] { Type.TRANSFER.name(), transaction.getOrigin(), transaction.getPayee(),
+					transaction.getAmountToTransfer(), now });
+		jdbcTemplate.batchUpdate(APPEND, batch);
+	}
+
+	/**
+	 * Method to record the balance an Account was created or updated with.
+	 *
+	 * @param id      of the Account.
+	 * @param balance new balance, in minor units.
+	 */
+	public void set(Long id, long balance) {
+		jdbcTemplate.update(APPEND, Type.SET.name(), id, null, balance, now());
+	}
+
+	/**
+	 * Method to record the balances many Accounts were created with, in one JDBC
+	 * batch.
+	 *
+	 * @param balances new balance in minor units by Account id.
+	 */
+	public void setAll(Map<Long, Long> balances) {
+		if (balances.isEmpty())
+			return;
+
+		Timestamp now = now();
+		List<Object[]> batch = new ArrayList<>(balances.size());
+		balances.forEach((id, balance) -> batch.add(new Object[] { Type.SET.name(), id, null, balance, now }));
+		jdbcTemplate.batchUpdate(APPEND, batch);
+	}
+
+	/**
+	 * Method to record that an Account was deleted.
+	 *
+	 * @param id of the Account.
+	 */
+	public void delete(Long id) {
+		jdbcTemplate.update(APPEND, Type.DELETE.name(), id, null, 0L, now());
+	}
+
+	/**
+	 * Method to rebuild every balance from the latest snapshot and the journal
+	 * entries committed after it.
+	 *
+	 * @return balance in minor units by Account id.
+	 */
+	public Map<Long, Long> rebuild() {
+		return transactionTemplate.execute(status -> {
+			Long seq = latestSnapshot();
+			Map<Long, Long> balances = loadSnapshot(seq);
+			replay(balances, seq, Long.MAX_VALUE);
+			return balances;
+		});
+	}
+
+	/**
+	 * Method to fold the journal entries older than the configured lag into a new
+	 * snapshot. Only the previous snapshot is kept besides the new one.
+	 */
+	void snapshot() {
+		try {
+			transactionTemplate.execute(status -> {
+				Long last = latestSnapshot();
+				Timestamp until = new Timestamp(System.currentTimeMillis() - properties.getSnapshotLag().toMillis());
+				Long upTo = jdbcTemplate.queryForObject("SELECT MAX(SEQ) FROM ACCOUNT_JOURNAL WHERE CREATED_AT < ?",
+						Long.class, until);
+				if (upTo == null || upTo <= last)
+					return null;
+
+				Map<Long, Long> balances = loadSnapshot(last);
+				replay(balances, last, upTo);
+
+				jdbcTemplate.update("INSERT INTO ACCOUNT_SNAPSHOT_HEAD (SEQ, CREATED_AT) VALUES (?, ?)", upTo, now());
+				List<Object[]> batch = new ArrayList<>(balances.size());
+				balances.forEach((id, balance) -> batch.add(new Object[] { upTo, id, balance }));
+				jdbcTemplate.batchUpdate("INSERT INTO ACCOUNT_SNAPSHOT (SEQ, ACCOUNT_ID, BALANCE) VALUES (?, ?, ?)",
+						batch);
+
+				jdbcTemplate.update("DELETE FROM ACCOUNT_SNAPSHOT WHERE SEQ < ?", last);
+				jdbcTemplate.update("DELETE FROM ACCOUNT_SNAPSHOT_HEAD WHERE SEQ < ?", last);
+				log.debug("Journal snapshot {} written with {} balances", upTo, balances.size());
+				return null;
+			});
+		} catch (RuntimeException e) {
+			log.error("Journal snapshot failed. Retrying on next snapshot", e);
+		}
+	}
+
+	/**
+	 * Private method to take the first snapshot from the ACCOUNT table, when the
+	 * journal has none yet. Runs on startup, before any transfer is served.
+	 */
+	private void baseSnapshot() {
+		Long seq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(SEQ), 0) FROM ACCOUNT_JOURNAL", Long.class);
+		jdbcTemplate.update("INSERT INTO ACCOUNT_SNAPSHOT_HEAD (SEQ, CREATED_AT) VALUES (?, ?)", seq, now());
+		jdbcTemplate.update("INSERT INTO ACCOUNT_SNAPSHOT (SEQ, ACCOUNT_ID, BALANCE) SELECT ?, ID, BALANCE FROM ACCOUNT",
+				seq);
+	}
+
+	private Long latestSnapshot() {
+		return jdbcTemplate.queryForObject(SELECT_LATEST_SNAPSHOT, Long.class);
+	}
+
+	private Map<Long, Long> loadSnapshot(Long seq) {
+		Map<Long, Long> balances = new HashMap<>();
+		jdbcTemplate.query(SELECT_SNAPSHOT, rs -> {
+			balances.put(rs.getLong(1), rs.getLong(2));
+		}, seq);
+		return balances;
+	}
+
+	private void replay(Map<Long, Long> balances, long after, long upTo) {
+		jdbcTemplate.query(SELECT_ENTRIES, rs -> {
+			long origin = rs.getLong(2);
+			long amount = rs.getLong(4);
+			switch (Type.valueOf(rs.getString(1))) {
+			case TRANSFER:
+				balances.merge(origin, -amount, Long::sum);
+				balances.merge(rs.getLong(3), amount, Long::sum);
+				break;
+			case SET:
+				balances.put(origin, amount);
+				break;
+			case DELETE:
+				balances.remove(origin);
+				break;
+			}
+		}, after, upTo);
+	}
+
+	private static Timestamp now() {
+		return new Timestamp(System.currentTimeMillis());
+	}
+}
@@ -0,0 +1,379 @@
+package io.accountservice.test.service.ledger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.accountservice.test.service.transfer.TransferStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory ledger engine. Balances of the Accounts involved in transactions
+ * are held in memory, guarded by striped locks, and written to database
+ * asynchronously by a single flusher thread.
+ * <p>
+ * An Account updated or deleted outside the engine is fenced until the
+ * transaction that changes it completes: transactions on it wait, and its entry
+ * is dropped on commit, so it is only reloaded once the change is visible.
+ * Flushes only write rows still at the version they were loaded or last flushed
+ * with, so a flush racing with such a change never overwrites it.
+ * <p>
+ * Each flush records the balances it wrote in the journal, in the same commit,
+ * so the journal holds exactly what rows hold. Balances are rebuilt from the
+ * journal on startup. An Account whose row disagrees with the journal when
+ * first loaded keeps the row balance, as the row was changed after the last
+ * entry recorded, and the mismatch is logged.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+public class LedgerEngine implements TransferStrategy {
+
+	private static final String UPDATE_BALANCE = "UPDATE ACCOUNT SET BALANCE = ?, VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ?";
+
+	/**
+	 * AccountRepository to load Accounts the first time they are used.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * JdbcTemplate to write changed balances in one batch.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * TransactionTemplate to commit each flush once.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * TransferJournal to record transactions in the same commit as their balances,
+	 * and to rebuild balances on startup.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	@Autowired
+	private TransferProperties properties;
+
+	private final ConcurrentMap<Long, LedgerEntry> entries = new ConcurrentHashMap<>();
+
+	private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Balances rebuilt from the journal on startup, by id of the Accounts not
+	 * loaded yet.
+	 */
+	private final ConcurrentMap<Long, Long> rebuilt = new ConcurrentHashMap<>();
+
+	/**
+	 * Ids changed by a transaction not completed yet, with the number of such
+	 * transactions. Guarded by the stripe of the id.
+	 */
+	private final ConcurrentMap<Long, Integer> fenced = new ConcurrentHashMap<>();
+
+	private ReentrantLock[] stripes;
+
+	/**
+	 * Signalled when an id of the stripe is released.
+	 */
+	private Condition[] released;
+
+	private ScheduledExecutorService flusher;
+
+	@PostConstruct
+	public void start() {
+		stripes = new ReentrantLock[Math.max(1, properties.getLedger().getStripes())];
+		released = new Condition[stripes.length];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new ReentrantLock();
+			released[i] = stripes[i].newCondition();
+		}
+		rebuilt.putAll(journal.rebuild());
+
+		long interval = properties.getLedger().getFlushInterval().toMillis();
+		flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ledger-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		flusher.shutdown();
+		flusher.awaitTermination(10, TimeUnit.SECONDS);
+		flush();
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account in memory.
+	 * Both stripes are always acquired in ascending stripe order, so two
+	 * transactions in opposite directions can't deadlock.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		while (true) {
+			awaitReleased(originId);
+			awaitReleased(payeeId);
+			LedgerEntry origin = entry(originId);
+			LedgerEntry payee = entry(payeeId);
+
+			int first = stripe(originId);
+			int second = stripe(payeeId);
+			if (first > second) {
+				int swap = first;
+				first = second;
+				second = swap;
+			}
+
+			stripes[first].lock();
+			if (second != first)
+				stripes[second].lock();
+			try {
+				// An entry fenced or evicted meanwhile is reloaded and the transaction
+				// retried.
+				if (fenced.containsKey(originId) || fenced.containsKey(payeeId) || entries.get(originId) != origin
+						|| entries.get(payeeId) != payee)
+					continue;
+
+				TreasuryRules.validateWithdrawal(origin.treasury, origin.balance, amount);
+				origin.balance -= amount;
+				payee.balance += amount;
+				dirty.add(originId);
+				dirty.add(payeeId);
+
+				return origin.toAccount();
+			} finally {
+				if (second != first)
+					stripes[second].unlock();
+				stripes[first].unlock();
+			}
+		}
+	}
+
+	@Override
+	public Account refresh(Account account) {
+		LedgerEntry entry = entries.get(account.getId());
+		if (entry == null)
+			return account;
+
+		ReentrantLock lock = stripes[stripe(account.getId())];
+		lock.lock();
+		try {
+			return entry.toAccount();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method to fence an Account changed by the current transaction. Its entry is
+	 * dropped once the transaction commits, and kept if it rolls back. Without a
+	 * transaction the entry is dropped at once.
+	 */
+	@Override
+	public void evict(Long id) {
+		ReentrantLock lock = stripes[stripe(id)];
+		lock.lock();
+		try {
+			fenced.merge(id, 1, Integer::sum);
+			rebuilt.remove(id);
+		} finally {
+			lock.unlock();
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					release(id, status == STATUS_COMMITTED);
+				}
+			});
+		else
+			release(id, true);
+	}
+
+	private void release(Long id, boolean committed) {
+		int stripe = stripe(id);
+		stripes[stripe].lock();
+		try {
+			if (committed) {
+				entries.remove(id);
+				dirty.remove(id);
+			}
+			fenced.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1);
+			released[stripe].signalAll();
+		} finally {
+			stripes[stripe].unlock();
+		}
+	}
+
+	private void awaitReleased(Long id) {
+		int stripe = stripe(id);
+		stripes[stripe].lock();
+		try {
+			while (fenced.containsKey(id))
+				released[stripe].awaitUninterruptibly();
+		} finally {
+			stripes[stripe].unlock();
+		}
+	}
+
+	/**
+	 * Method to write every changed balance to database in one JDBC batch and one
+	 * commit, with a journal entry of each balance written. Ids are removed from
+	 * the dirty set before their balance is read, so a transaction applied
+	 * meanwhile marks the Account dirty again for next flush. An entry whose row
+	 * changed since it was loaded is stale: it isn't written nor journaled, and is
+	 * dropped.
+	 */
+	void flush() {
+		if (dirty.isEmpty())
+			return;
+
+		List<Object[]> batch = new ArrayList<>();
+		List<LedgerEntry> flushed = new ArrayList<>();
+		for (Iterator<Long> it = dirty.iterator(); it.hasNext();) {
+			Long id = it.next();
+			it.remove();
+			LedgerEntry entry = entries.get(id);
+			if (entry == null)
+				continue;
+
+			ReentrantLock lock = stripes[stripe(id)];
+			lock.lock();
+			try {
+				batch.add(new Object[] { entry.balance, id, entry.version });
+				flushed.add(entry);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		int[] updated;
+		try {
+			updated = transactionTemplate.execute(status -> {
+				int[] rows = jdbcTemplate.batchUpdate(UPDATE_BALANCE, batch);
+				Map<Long, Long> written = new HashMap<>();
+				for (int i = 0; i < rows.length; i++)
+					if (rows[i] != 0)
+						written.put((Long) batch.get(i)[1], (Long) batch.get(i)[0]);
+				journal.setAll(written);
+				return rows;
+			});
+		} catch (RuntimeException e) {
+			log.error("Ledger flush of {} balances failed. Retrying on next flush", batch.size(), e);
+			batch.forEach(row -> dirty.add((Long) row[1]));
+			return;
+		}
+
+		for (int i = 0; i < flushed.size(); i++) {
+			LedgerEntry entry = flushed.get(i);
+			if (updated[i] != 0) {
+				entry.version++;
+				continue;
+			}
+
+			ReentrantLock lock = stripes[stripe(entry.id)];
+			lock.lock();
+			try {
+				if (entries.remove(entry.id, entry)) {
+					dirty.remove(entry.id);
+					log.warn("Ledger entry of Account {} was changed outside the ledger and is reloaded", entry.id);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private LedgerEntry entry(Long id) {
+		return entries.computeIfAbsent(id, this::load);
+	}
+
+	private LedgerEntry load(Long id) {
+		LedgerEntry entry = new LedgerEntry(repository.findById(id).orElseThrow(
+				() -> new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id))));
+		Long balance = rebuilt.remove(id);
+		if (balance != null && balance != entry.balance)
+			log.warn("Balance of Account {} is {} on its row and {} on the journal. Row balance is kept", id,
+					entry.balance, balance);
+		return entry;
+	}
+
+	private int stripe(Long id) {
+		return (int) Math.floorMod(id, (long) stripes.length);
+	}
+
+	/**
+	 * Account held in memory. Balance is guarded by the stripe of its id. Version
+	 * is the one of the row, only read and written by the flusher.
+	 */
+	static final class LedgerEntry {
+
+		private final Long id;
+
+		private final String name;
+
+		private final String currency;
+
+		private final boolean treasury;
+
+		private long balance;
+
+		private long version;
+
+		LedgerEntry(Account account) {
+			this.id = account.getId();
+			this.name = account.getName();
+			this.currency = account.getCurrency();
+			this.treasury = Boolean.TRUE.equals(account.getTreasury());
+			this.balance = account.getBalance();
+			this.version = account.getVersion() == null ? 0 : account.getVersion();
+		}
+
+		Account toAccount() {
+			return Account.builder().id(id).name(name).currency(currency).balance(balance).treasury(treasury).build();
+		}
+	}
+}
@@ -0,0 +1,493 @@
+package io.accountservice.test.service.partition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.accountservice.test.service.transfer.TransferStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Partitioned transfer engine. Accounts are split into partitions by id, and
+ * every partition is owned by a single writer thread that holds the balances of
+ * its Accounts, applies the transactions queued to it without locks and writes
+ * its changed balances to database.
+ * <p>
+ * A transaction between two partitions is applied in two phases: origin
+ * partition validates and withdraws, then hands the amount off to payee
+ * partition, which deposits it or hands it back if payee Account doesn't exist.
+ * <p>
+ * An Account updated or deleted outside the engine is fenced on its owner
+ * partition until the transaction that changes it completes: transactions on
+ * it are parked, and its entry is dropped on commit, so it is only reloaded once
+ * the change is visible. Flushes only write rows still at the version they were
+ * loaded or last flushed with, so a flush racing with such a change never
+ * overwrites it.
+ * <p>
+ * Each flush records the balances it wrote in the journal, in the same commit,
+ * so the journal holds exactly what rows hold. Balances are rebuilt from the
+ * journal on startup. An Account whose row disagrees with the journal when
+ * first loaded keeps the row balance, as the row was changed after the last
+ * entry recorded, and the mismatch is logged.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+public class PartitionedTransferEngine implements TransferStrategy {
+
+	private static final String UPDATE_BALANCE = "UPDATE ACCOUNT SET BALANCE = ?, VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ?";
+
+	/**
+	 * AccountRepository to load Accounts the first time they are used.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * JdbcTemplate to write changed balances of a partition in one batch.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * TransactionTemplate to commit each flush once.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * TransferJournal to record balances in the same commit as they are written,
+	 * and to rebuild balances on startup.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	@Autowired
+	private TransferProperties properties;
+
+	private Partition[] partitions;
+
+	/**
+	 * Balances rebuilt from the journal on startup, by id of the Accounts not
+	 * loaded yet.
+	 */
+	private final Map<Long, Long> rebuilt = new ConcurrentHashMap<>();
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		rebuilt.putAll(journal.rebuild());
+		TransferProperties.Partitioned config = properties.getPartitioned();
+		partitions = new Partition[Math.max(1, config.getPartitions())];
+		running = true;
+		for (int i = 0; i < partitions.length; i++) {
+			partitions[i] = new Partition(i, Math.max(1, config.getQueueCapacity()),
+					config.getFlushInterval().toMillis());
+			partitions[i].thread.start();
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		for (Partition partition : partitions)
+			partition.thread.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account. The
+	 * transaction is queued to origin partition and the caller waits until payee
+	 * partition has applied the deposit.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		Partition origin = partition(originId);
+		Partition payee = partition(payeeId);
+		CompletableFuture<Account> result = new CompletableFuture<>();
+		origin.submit(() -> origin.withdraw(originId, payeeId, amount, payee, result), result);
+		return await(result);
+	}
+
+	@Override
+	public Account refresh(Account account) {
+		PartitionEntry entry = partition(account.getId()).entries.get(account.getId());
+		return entry == null ? account : entry.toAccount();
+	}
+
+	/**
+	 * Method to fence an Account changed by the current transaction on its owner
+	 * partition. Its entry is dropped once the transaction commits, and kept if it
+	 * rolls back. Without a transaction the entry is dropped at once. Never waits
+	 * on the owner, as the caller may hold the row lock a flush is waiting for.
+	 *
+	 * @param id of the Account.
+	 */
+	@Override
+	public void evict(Long id) {
+		Partition owner = partition(id);
+		owner.handOff(() -> owner.fence(id), new CompletableFuture<>());
+
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					owner.handOff(() -> owner.release(id, status == STATUS_COMMITTED), new CompletableFuture<>());
+				}
+			});
+		else
+			owner.handOff(() -> owner.release(id, true), new CompletableFuture<>());
+	}
+
+	private Account await(CompletableFuture<Account> result) {
+		try {
+			return result.get(properties.getPartitioned().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new CustomException("Error Transfer: " + e.getCause().getMessage() + ". Operation fails");
+		} catch (TimeoutException e) {
+			throw new CustomException(
+					"Error Transfer: Transaction is still in progress. Check Account balance before retrying");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CustomException("Error Transfer: Transaction interrupted. Operation fails");
+		}
+	}
+
+	private Partition partition(Long id) {
+		return partitions[(int) Math.floorMod(id, (long) partitions.length)];
+	}
+
+	/**
+	 * Task run by the writer thread of a partition. A failure completes the
+	 * caller future.
+	 */
+	private static final class Command {
+
+		private final Runnable action;
+
+		private final CompletableFuture<?> result;
+
+		Command(Runnable action, CompletableFuture<?> result) {
+			this.action = action;
+			this.result = result;
+		}
+
+		void run() {
+			try {
+				action.run();
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Accounts owned by one writer thread. Every field but the entries map is only
+	 * accessed by that thread.
+	 */
+	final class Partition implements Runnable {
+
+		private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+
+		/**
+		 * Transactions queued by callers and not yet withdrawn. Hand-offs between
+		 * partitions don't take a permit, so a writer never waits on another one.
+		 */
+		private final Semaphore permits;
+
+		private final Map<Long, PartitionEntry> entries = new ConcurrentHashMap<>();
+
+		private final Set<Long> dirty = new HashSet<>();
+
+		/**
+		 * Ids changed by a transaction not completed yet, with the number of such
+		 * transactions.
+		 */
+		private final Map<Long, Integer> fenced = new HashMap<>();
+
+		/**
+		 * Commands on a fenced id, run again once it is released.
+		 */
+		private final Map<Long, List<Command>> parked = new HashMap<>();
+
+		private final long flushInterval;
+
+		private final Thread thread;
+
+		Partition(int index, int queueCapacity, long flushInterval) {
+			this.permits = new Semaphore(queueCapacity);
+			this.flushInterval = flushInterval;
+			this.thread = new Thread(this, "transfer-partition-" + index);
+			this.thread.setDaemon(true);
+		}
+
+		void submit(Runnable action, CompletableFuture<?> result) {
+			if (!permits.tryAcquire())
+				throw new TaskRejectedException("Transfer partition " + thread.getName() + " is full");
+
+			queue.add(new Command(() -> {
+				try {
+					action.run();
+				} finally {
+					permits.release();
+				}
+			}, result));
+		}
+
+		void handOff(Runnable action, CompletableFuture<?> result) {
+			queue.add(new Command(action, result));
+		}
+
+		/**
+		 * Phase one, on origin partition. Deposit is applied here as well when payee
+		 * Account is owned by this same partition.
+		 */
+		void withdraw(Long originId, Long payeeId, long amount, Partition payeePartition,
+				CompletableFuture<Account> result) {
+			Runnable retry = () -> withdraw(originId, payeeId, amount, payeePartition, result);
+			if (park(originId, retry, result) || (payeePartition == this && park(payeeId, retry, result)))
+				return;
+
+			PartitionEntry origin = entry(originId);
+			TreasuryRules.validateWithdrawal(origin.treasury, origin.balance, amount);
+
+			if (payeePartition == this) {
+				PartitionEntry payee = entry(payeeId);
+				origin.balance -= amount;
+				payee.balance += amount;
+				dirty.add(originId);
+				dirty.add(payeeId);
+				result.complete(origin.toAccount());
+				return;
+			}
+
+			origin.balance -= amount;
+			dirty.add(originId);
+			Account after = origin.toAccount();
+			payeePartition.handOff(() -> payeePartition.deposit(originId, payeeId, amount, after, this, result), result);
+		}
+
+		/**
+		 * Phase two, on payee partition. If payee Account doesn't exist the amount is
+		 * handed back to origin partition before the caller is answered.
+		 */
+		void deposit(Long originId, Long payeeId, long amount, Account origin, Partition originPartition,
+				CompletableFuture<Account> result) {
+			if (park(payeeId, () -> deposit(originId, payeeId, amount, origin, originPartition, result), result))
+				return;
+
+			PartitionEntry payee;
+			try {
+				payee = entry(payeeId);
+			} catch (AccountNotFoundException e) {
+				originPartition.handOff(() -> {
+					originPartition.refund(originId, amount);
+					throw e;
+				}, result);
+				return;
+			}
+
+			payee.balance += amount;
+			dirty.add(payeeId);
+			result.complete(origin);
+		}
+
+		void refund(Long originId, long amount) {
+			// An Account evicted meanwhile was overwritten outside this engine.
+			PartitionEntry origin = entries.get(originId);
+			if (origin == null)
+				return;
+
+			origin.balance += amount;
+			dirty.add(originId);
+		}
+
+		void fence(Long id) {
+			fenced.merge(id, 1, Integer::sum);
+			rebuilt.remove(id);
+		}
+
+		/**
+		 * Method to release an id fenced. On commit its entry is dropped, so it is
+		 * reloaded with the change. Commands parked on it run once no transaction
+		 * fences it.
+		 */
+		void release(Long id, boolean committed) {
+			if (committed) {
+				entries.remove(id);
+				dirty.remove(id);
+				rebuilt.remove(id);
+			}
+			if (fenced.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1) != null)
+				return;
+
+			List<Command> waiting = parked.remove(id);
+			if (waiting != null)
+				waiting.forEach(Command::run);
+		}
+
+		private boolean park(Long id, Runnable action, CompletableFuture<?> result) {
+			if (!fenced.containsKey(id))
+				return false;
+
+			parked.computeIfAbsent(id, key -> new ArrayList<>()).add(new Command(action, result));
+			return true;
+		}
+
+		@Override
+		public void run() {
+			long nextFlush = System.currentTimeMillis() + flushInterval;
+			while (running || !queue.isEmpty()) {
+				try {
+					Command command = queue.poll(Math.max(0, nextFlush - System.currentTimeMillis()),
+							TimeUnit.MILLISECONDS);
+					if (command != null)
+						command.run();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+
+				if (System.currentTimeMillis() >= nextFlush) {
+					flush();
+					nextFlush = System.currentTimeMillis() + flushInterval;
+				}
+			}
+			flush();
+		}
+
+		/**
+		 * Method to write every changed balance of this partition in one JDBC batch
+		 * and one commit, with a journal entry of each balance written. Nothing is
+		 * forgotten on failure, so next flush retries. An entry whose row changed
+		 * since it was loaded is stale: it isn't written nor journaled, and is
+		 * dropped.
+		 */
+		void flush() {
+			if (dirty.isEmpty())
+				return;
+
+			List<Object[]> batch = new ArrayList<>(dirty.size());
+			List<PartitionEntry> flushed = new ArrayList<>(dirty.size());
+			for (Long id : dirty) {
+				PartitionEntry entry = entries.get(id);
+				if (entry != null) {
+					batch.add(new Object[] { entry.balance, id, entry.version });
+					flushed.add(entry);
+				}
+			}
+
+			int[] updated;
+			try {
+				updated = transactionTemplate.execute(status -> {
+					int[] rows = jdbcTemplate.batchUpdate(UPDATE_BALANCE, batch);
+					Map<Long, Long> written = new HashMap<>();
+					for (int i = 0; i < rows.length; i++)
+						if (rows[i] != 0)
+							written.put((Long) batch.get(i)[1], (Long) batch.get(i)[0]);
+					journal.setAll(written);
+					return rows;
+				});
+				dirty.clear();
+			} catch (RuntimeException e) {
+				log.error("Flush of {} balances on {} failed. Retrying on next flush", batch.size(), thread.getName(),
+						e);
+				return;
+			}
+
+			for (int i = 0; i < flushed.size(); i++) {
+				PartitionEntry entry = flushed.get(i);
+				if (updated[i] != 0)
+					entry.version++;
+				else if (entries.remove(entry.id, entry))
+					log.warn("Partition entry of Account {} was changed outside the engine and is reloaded", entry.id);
+			}
+		}
+
+		private PartitionEntry entry(Long id) {
+			PartitionEntry entry = entries.get(id);
+			if (entry == null) {
+				entry = new PartitionEntry(repository.findById(id).orElseThrow(() -> new AccountNotFoundException(
+						String.format("Transaction - Account Id: %s was not found", id))));
+				Long balance = rebuilt.remove(id);
+				if (balance != null && balance != entry.balance)
+					log.warn("Balance of Account {} is {} on its row and {} on the journal. Row balance is kept", id,
+							entry.balance, balance);
+				entries.put(id, entry);
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Account held by its owner partition. Balance is only written by the owner
+	 * thread and read by any thread. Version is the one of the row, only read and
+	 * written by the owner thread.
+	 */
+	static final class PartitionEntry {
+
+		private final Long id;
+
+		private final String name;
+
+		private final String currency;
+
+		private final boolean treasury;
+
+		private volatile long balance;
+
+		private long version;
+
+		PartitionEntry(Account account) {
+			this.id = account.getId();
+			this.name = account.getName();
+			this.currency = account.getCurrency();
+			this.treasury = Boolean.TRUE.equals(account.getTreasury());
+			this.balance = account.getBalance();
+			this.version = account.getVersion() == null ? 0 : account.getVersion();
+		}
+
+		Account toAccount() {
+			return Account.builder().id(id).name(name).currency(currency).balance(balance).treasury(treasury).build();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package io.accountservice.test.service.replica;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.accountservice.test.config.ReplicaProperties;
+import io.accountservice.test.datasource.ReplicaReadContext;
+
+/**
+ * Reads that may be served by a replica. Accounts changed on this node are
+ * remembered for the max staleness allowed, so a read of one of them only goes
+ * to a replica that already has the change. Entities read this way are never
+ * put on the second-level cache, so a stale replica can't make the cache stale.
+ * Does nothing when replicas aren't enabled.
+ *
+ * @author Austr0s
+ */
+@Component
+public class ReplicaReads {
+
+	@Autowired
+	private ReplicaProperties properties;
+
+	/**
+	 * EntityManager to keep replica reads out of the second-level cache.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Time of the last change committed of each Account.
+	 */
+	private Cache<Long, Long> writes;
+
+	@PostConstruct
+	public void start() {
+		writes = Caffeine.newBuilder() //
+				.expireAfterWrite(properties.getMaxStaleness().toNanos(), TimeUnit.NANOSECONDS) //
+				.build();
+	}
+
+	/**
+	 * Method to remember that Accounts were changed. If a transaction is active,
+	 * they are remembered once it commits.
+	 *
+	 * @param ids of the Accounts changed.
+	 */
+	public void written(Long... ids) {
+		if (!properties.isEnabled() || !properties.isReadYourWrites())
+			return;
+
+		if (TransactionSynchronizationManager.isActualTransactionActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					record(ids);
+				}
+			});
+		else
+			record(ids);
+	}
+
+	/**
+	 * Method to run a read that doesn't depend on one Account.
+	 *
+	 * @param read to run inside a read-only transaction.
+	 * @return result of the read.
+	 */
+	public <T> T read(Supplier<T> read) {
+		return read(null, read);
+	}
+
+	/**
+	 * Method to run a read of one Account, on a replica that has its last change.
+	 *
+	 * @param id   of the Account read.
+	 * @param read to run inside a read-only transaction.
+	 * @return result of the read.
+	 */
+	public <T> T read(Long id, Supplier<T> read) {
+		if (!properties.isEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			return read.get();
+
+		Long writtenAt = id == null ? null : writes.getIfPresent(id);
+		Session session = entityManager.unwrap(Session.class);
+		CacheMode cacheMode = session.getCacheMode();
+		ReplicaReadContext.requireWrittenAfter(writtenAt == null ? 0 : writtenAt);
+		session.setCacheMode(CacheMode.GET);
+		try {
+			return read.get();
+		} finally {
+			session.setCacheMode(cacheMode);
+			ReplicaReadContext.clear();
+		}
+	}
+
+	private void record(Long... ids) {
+		long now = System.currentTimeMillis();
+		for (Long id : ids)
+			writes.put(id, now);
+	}
+
+}
@@ -0,0 +1,177 @@
+package io.accountservice.test.service.store;
+
+import java.nio.ByteBuffer;
+
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Fixed-width binary record of an Account, for stores that keep Accounts
+ * without SQL. Balance and version come first, so they can be read and written
+ * in place without decoding the rest of the record. Strings are kept as UTF-16
+ * code units, padded to the max length of their column.
+ *
+ * @author Austr0s
+ */
+public final class AccountRecord {
+
+	/**
+	 * Max characters of the name of an Account.
+	 */
+	public static final int NAME_LENGTH = 50;
+
+	/**
+	 * Max characters of the currency of an Account.
+	 */
+	public static final int CURRENCY_LENGTH = 5;
+
+	private static final int BALANCE = 0;
+
+	private static final int VERSION = 8;
+
+	private static final int PRESENT = 16;
+
+	private static final int TREASURY = 17;
+
+	private static final int CURRENCY_SIZE = 18;
+
+	private static final int NAME_SIZE = 19;
+
+	private static final int CURRENCY = 20;
+
+	private static final int NAME = CURRENCY + CURRENCY_LENGTH * Character.BYTES;
+
+	/**
+	 * Bytes of one record, rounded up to a multiple of 8 so balances of
+	 * consecutive records stay aligned.
+	 */
+	public static final int SIZE = (NAME + NAME_LENGTH * Character.BYTES + 7) & ~7;
+
+	private static final byte TREASURY_NULL = -1;
+
+	private AccountRecord() {
+	}
+
+	/**
+	 * Method to encode an Account into a new record.
+	 *
+	 * @param account to encode. Its id isn't part of the record.
+	 * @return record of the Account.
+	 */
+	public static byte[] encode(Account account) {
+		byte[] record = new byte[SIZE];
+		write(account, ByteBuffer.wrap(record), 0);
+		return record;
+	}
+
+	/**
+	 * Method to decode an Account from a record.
+	 *
+	 * @param id     of the Account.
+	 * @param record of the Account.
+	 * @return account decoded.
+	 */
+	public static Account decode(Long id, byte[] record) {
+		return read(id, ByteBuffer.wrap(record), 0);
+	}
+
+	/**
+	 * Method to write an Account as a present record at an offset of a buffer.
+	 *
+	 * @param account to write.
+	 * @param buffer  to write on. Its position isn't changed.
+	 * @param offset  of the record on the buffer.
+	 * @throws IllegalArgumentException if name or currency are too long for the
+	 *                                  record.
+	 */
+	public static void write(Account account, ByteBuffer buffer, int offset) {
+		String name = account.getName();
+		String currency = account.getCurrency();
+		if (name.length() > NAME_LENGTH)
+			throw new IllegalArgumentException(
+					String.format("Name of Account longer than %s characters", NAME_LENGTH));
+		if (currency.length() > CURRENCY_LENGTH)
+			throw new IllegalArgumentException(
+					String.format("Currency of Account longer than %s characters", CURRENCY_LENGTH));
+
+		buffer.putLong(offset + BALANCE, account.getBalance());
+		buffer.putLong(offset + VERSION, account.getVersion() == null ? 0 : account.getVersion());
+		buffer.put(offset + TREASURY, account.getTreasury() == null ? TREASURY_NULL
+				: (byte) (account.getTreasury() ? 1 : 0));
+		buffer.put(offset + CURRENCY_SIZE, (byte) currency.length());
+		buffer.put(offset + NAME_SIZE, (byte) name.length());
+		for (int i = 0; i < currency.length(); i++)
+			buffer.putChar(offset + CURRENCY + i * Character.BYTES, currency.charAt(i));
+		for (int i = 0; i < name.length(); i++)
+			buffer.putChar(offset + NAME + i * Character.BYTES, name.charAt(i));
+		buffer.put(offset + PRESENT, (byte) 1);
+	}
+
+	/**
+	 * Method to read an Account from the record at an offset of a buffer.
+	 *
+	 * @param id     of the Account.
+	 * @param buffer to read from. Its position isn't changed.
+	 * @param offset of the record on the buffer.
+	 * @return account read.
+	 */
+	public static Account read(Long id, ByteBuffer buffer, int offset) {
+		byte treasury = buffer.get(offset + TREASURY);
+		return Account.builder().id(id) //
+				.name(readString(buffer, offset + NAME, buffer.get(offset + NAME_SIZE))) //
+				.currency(readString(buffer, offset + CURRENCY, buffer.get(offset + CURRENCY_SIZE))) //
+				.balance(balance(buffer, offset)) //
+				.treasury(treasury == TREASURY_NULL ? null : treasury == 1) //
+				.version(buffer.getLong(offset + VERSION)) //
+				.build();
+	}
+
+	/**
+	 * Method to know if the record at an offset of a buffer holds an Account.
+	 */
+	public static boolean isPresent(ByteBuffer buffer, int offset) {
+		return buffer.get(offset + PRESENT) == 1;
+	}
+
+	/**
+	 * Method to mark the record at an offset of a buffer as empty.
+	 */
+	public static void clear(ByteBuffer buffer, int offset) {
+		buffer.put(offset + PRESENT, (byte) 0);
+	}
+
+	/**
+	 * Method to read the Treasury profile of the record at an offset of a buffer.
+	 *
+	 * @return true only if the Account is Treasury.
+	 */
+	public static boolean isTreasury(ByteBuffer buffer, int offset) {
+		return buffer.get(offset + TREASURY) == 1;
+	}
+
+	/**
+	 * Method to read the balance of the record at an offset of a buffer.
+	 *
+	 * @return balance in minor units.
+	 */
+	public static long balance(ByteBuffer buffer, int offset) {
+		return buffer.getLong(offset + BALANCE);
+	}
+
+	/**
+	 * Method to add an amount to the balance of the record at an offset of a
+	 * buffer, and increment its version.
+	 *
+	 * @param amount to add, negative to subtract, in minor units.
+	 */
+	public static void addBalance(ByteBuffer buffer, int offset, long amount) {
+		buffer.putLong(offset + BALANCE, buffer.getLong(offset + BALANCE) + amount);
+		buffer.putLong(offset + VERSION, buffer.getLong(offset + VERSION) + 1);
+	}
+
+	private static String readString(ByteBuffer buffer, int offset, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++)
+			chars[i] = buffer.getChar(offset + i * Character.BYTES);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,96 @@
+package io.accountservice.test.service.store;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Store of Accounts used instead of JPA when <code>account.store.type</code>
+ * isn't JPA. Each store applies transactions itself, with the same Treasury
+ * rules.
+ *
+ * @author Austr0s
+ */
+public interface AccountStore {
+
+	/**
+	 * Method to get one Account by id.
+	 *
+	 * @param id of the Account.
+	 * @return optional account.
+	 */
+	Optional<Account> findById(Long id);
+
+	/**
+	 * Method to get every Account.
+	 *
+	 * @return accounts ordered by id.
+	 */
+	List<Account> findAll();
+
+	/**
+	 * Method to get one page of Accounts seeking by id.
+	 *
+	 * @param afterId last id of the previous page. Zero to get first page.
+	 * @param size    max number of accounts on the page.
+	 * @return accounts with id greater than afterId, ordered by id.
+	 */
+	List<Account> findPage(Long afterId, int size);
+
+	/**
+	 * Method to read every Account without holding them all in memory. By
+	 * default pages are read seeking by id.
+	 *
+	 * @param pageSize max number of accounts read at once.
+	 * @param consumer called once for every account, ordered by id.
+	 */
+	default void forEach(int pageSize, Consumer<Account> consumer) {
+		List<Account> page = findPage(0L, pageSize);
+		while (!page.isEmpty()) {
+			page.forEach(consumer);
+			page = findPage(page.get(page.size() - 1).getId(), pageSize);
+		}
+	}
+
+	/**
+	 * Method to store a new Account. Its id is given by the store.
+	 *
+	 * @param account to store.
+	 * @return account stored, with its id and version.
+	 */
+	Account insert(Account account);
+
+	/**
+	 * Method to update name, currency and balance of an Account, only if its
+	 * Treasury value is still the same.
+	 *
+	 * @param account with the new values.
+	 * @return true if updated, false if not found or Treasury changed.
+	 */
+	boolean update(Account account);
+
+	/**
+	 * Method to delete an Account.
+	 *
+	 * @param id of the Account.
+	 * @return true if deleted, false if not found.
+	 */
+	boolean delete(Long id);
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException          if profile doesn't accept negative
+	 *                                  balance.
+	 * @throws AccountNotFoundException if an Account doesn't exist.
+	 */
+	Account transfer(TransactionOperationDto transaction) throws CustomException;
+
+}
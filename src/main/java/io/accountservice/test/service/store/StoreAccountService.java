@@ -0,0 +1,146 @@
+package io.accountservice.test.service.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.AccountService;
+import io.accountservice.test.service.TreasuryRules;
+import io.micrometer.core.lang.NonNull;
+
+/**
+ * Account service on top of the AccountStore selected by
+ * <code>account.store.type</code>. Used instead of AccountServiceImpl when
+ * Accounts aren't kept through JPA.
+ *
+ * @author Austr0s
+ */
+@Service
+@ConditionalOnExpression("!'${account.store.type:jpa}'.equalsIgnoreCase('jpa')")
+public class StoreAccountService implements AccountService {
+
+	/**
+	 * Page size used to stream every Account.
+	 */
+	private static final int STREAM_PAGE_SIZE = 500;
+
+	@Autowired
+	private AccountStore store;
+
+	@Override
+	public Optional<Account> findOne(@NonNull Long id) {
+		return store.findById(id);
+	}
+
+	@Override
+	public List<Account> findAll() {
+		return store.findAll();
+	}
+
+	@Override
+	public List<Account> findPage(@NonNull Long afterId, int size) {
+		return store.findPage(afterId, size);
+	}
+
+	/**
+	 * Method to read every account without holding them all in memory, as the
+	 * store reads them best.
+	 *
+	 * @param consumer called once for every account, ordered by id.
+	 */
+	@Override
+	public void streamAll(@NonNull Consumer<Account> consumer) {
+		store.forEach(STREAM_PAGE_SIZE, consumer);
+	}
+
+	@Override
+	public Optional<Account> create(Account entity) throws CustomException {
+		TreasuryRules.validateCreate(entity);
+		return Optional.of(store.insert(entity));
+	}
+
+	/**
+	 * Method to update Account. A null Treasury is updated as false. The Account
+	 * is only looked up again when nothing was updated, to tell not found from
+	 * Treasury changed.
+	 *
+	 * @param entity Account to update values on store.
+	 * @return updated Account.
+	 * @throws CustomException          if Treasury is changed on put request.
+	 * @throws AccountNotFoundException if Account doesn't exist.
+	 */
+	@Override
+	public Account update(Account entity) throws CustomException {
+		entity.setTreasury(Boolean.TRUE.equals(entity.getTreasury()));
+		if (!store.update(entity)) {
+			if (!store.findById(entity.getId()).isPresent())
+				throw new AccountNotFoundException(String.format("Update Account Id: %s was not found", entity.getId()));
+			throw new CustomException("Error: Treasury value changed. Operation fails");
+		}
+		return entity;
+	}
+
+	@Override
+	public void delete(@NonNull Long id) {
+		if (!store.delete(id))
+			throw new AccountNotFoundException(String.format("Delete Account Id: %s was not found", id));
+	}
+
+	/**
+	 * Method to transfer balance from an Account to another Account, once the
+	 * transaction is known to be in the currency of both.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account
+	 * @throws CustomException if currencies differ or profile doesn't accept
+	 *                         negative balance.
+	 */
+	@Override
+	public Optional<Account> transference(@NonNull TransactionOperationDto transaction) throws CustomException {
+		validateCurrency(transaction);
+		return Optional.of(store.transfer(transaction));
+	}
+
+	/**
+	 * Method to apply many transactions in request order. A rejected transaction
+	 * doesn't stop the following ones.
+	 *
+	 * @param transactions list of transactions to apply.
+	 * @return result of each transaction, in request order.
+	 */
+	@Override
+	public List<TransactionResultDto> transferenceBatch(@NonNull List<TransactionOperationDto> transactions) {
+		List<TransactionResultDto> results = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			TransactionOperationDto transaction = transactions.get(i);
+			try {
+				validateCurrency(transaction);
+				store.transfer(transaction);
+				results.add(new TransactionResultDto(i, transaction, true, null));
+			} catch (CustomException | AccountNotFoundException e) {
+				results.add(new TransactionResultDto(i, transaction, false, e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Private method to validate the currency of a transaction against the
+	 * Accounts found. Accounts not found are reported by the store.
+	 */
+	private void validateCurrency(TransactionOperationDto transaction) throws CustomException {
+		store.findById(transaction.getOrigin()).ifPresent(account -> TreasuryRules.validateCurrency(transaction, account));
+		store.findById(transaction.getPayee()).ifPresent(account -> TreasuryRules.validateCurrency(transaction, account));
+	}
+
+}
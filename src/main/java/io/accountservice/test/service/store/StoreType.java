@@ -0,0 +1,33 @@
+package io.accountservice.test.service.store;
+
+/**
+ * Stores available to keep Accounts.
+ *
+ * @author Austr0s
+ */
+public enum StoreType {
+
+	/**
+	 * Accounts are kept on the application database through JPA, and transactions
+	 * are applied by the configured transfer mode.
+	 */
+	JPA,
+
+	/**
+	 * Accounts are spread by id over several databases. Transactions between two
+	 * databases are applied through an outbox.
+	 */
+	SHARDED,
+
+	/**
+	 * Accounts are kept as fixed-width records on an embedded MVStore file,
+	 * without SQL.
+	 */
+	MVSTORE,
+
+	/**
+	 * Accounts are kept as fixed-width records on a memory-mapped file, indexed
+	 * off the heap and made durable by an append-only journal.
+	 */
+	MMAP
+}
@@ -0,0 +1,680 @@
+package io.accountservice.test.service.store.mmap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.config.StoreProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.store.AccountRecord;
+import io.accountservice.test.service.store.AccountStore;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Store that keeps Accounts on a memory-mapped file of fixed-width slots: the
+ * Account id, the sequence number of its last change and an
+ * {@link AccountRecord}. Ids are found by an {@link OffHeapIndex}, so a lookup
+ * or a transfer is a few reads and writes on mapped memory, without SQL, JPA or
+ * objects on the heap besides the Account returned. Slots are padded to a power
+ * of two and the header to one slot, so a slot never spans two pages.
+ * <p>
+ * Every change is appended to a {@link MappedJournal} before it is applied to
+ * its slot. A checkpoint periodically forces the mapped file to disk, records
+ * the last sequence number it holds on the file header and deletes the journal
+ * segments before it. On start, slots are indexed and the journal after the
+ * checkpoint is replayed; slots whose sequence number is already as recent as
+ * an entry skip it, since the system may write mapped pages at any time.
+ * <p>
+ * Changes of one slot are serialized by a lock stripe, acquired in ascending
+ * stripe order by transactions. The journal is appended under the stripes, so
+ * entries of one Account are in the order they were applied.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "mmap")
+public class MappedAccountStore implements AccountStore {
+
+	private static final String ACCOUNTS = "accounts.dat";
+
+	private static final int MAGIC_VALUE = 0x41434354;
+
+	private static final int MAGIC = 0;
+
+	private static final int SLOT_SIZE = 4;
+
+	private static final int HIGH_WATER = 8;
+
+	private static final int NEXT_ID = 16;
+
+	private static final int CHECKPOINT = 24;
+
+	private static final int ID = 0;
+
+	private static final int LSN = 8;
+
+	private static final int RECORD = 16;
+
+	/**
+	 * Slot size, rounded up to a power of two so it divides the page size.
+	 */
+	private static final int SLOT = Integer.highestOneBit(RECORD + AccountRecord.SIZE - 1) << 1;
+
+	/**
+	 * Header is one slot, so slots start on a multiple of their size.
+	 */
+	private static final int HEADER = SLOT;
+
+	@Autowired
+	private StoreProperties properties;
+
+	private FileChannel file;
+
+	private MappedByteBuffer slots;
+
+	private MappedJournal journal;
+
+	private OffHeapIndex index;
+
+	/**
+	 * Guards index, free slots and high water.
+	 */
+	private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Held shared by every change, and exclusively by a checkpoint to find the
+	 * last change applied.
+	 */
+	private final ReentrantReadWriteLock changes = new ReentrantReadWriteLock();
+
+	private int capacity;
+
+	/**
+	 * Slots below high water that are empty.
+	 */
+	private int[] free;
+
+	private int freeCount;
+
+	/**
+	 * Slots from high water on have never been used.
+	 */
+	private int highWater;
+
+	private AtomicLong nextId;
+
+	private ReentrantLock[] stripes;
+
+	private ScheduledExecutorService checkpointer;
+
+	@PostConstruct
+	public void start() throws IOException {
+		StoreProperties.Mmap settings = properties.getMmap();
+		File directory = new File(settings.getDirectory());
+		directory.mkdirs();
+
+		capacity = settings.getCapacity();
+		long length = HEADER + (long) capacity * SLOT;
+		if (length > Integer.MAX_VALUE)
+			throw new IllegalStateException(
+					String.format("Capacity of %s Accounts doesn't fit in one mapped file", capacity));
+
+		file = FileChannel.open(new File(directory, ACCOUNTS).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		slots = file.map(FileChannel.MapMode.READ_WRITE, 0, length);
+		if (slots.getInt(MAGIC) == 0) {
+			slots.putInt(MAGIC, MAGIC_VALUE);
+			slots.putInt(SLOT_SIZE, SLOT);
+		} else if (slots.getInt(MAGIC) != MAGIC_VALUE || slots.getInt(SLOT_SIZE) != SLOT) {
+			throw new IllegalStateException("Account file has an unknown layout");
+		}
+
+		stripes = new ReentrantLock[Math.max(1, settings.getStripes())];
+		for (int i = 0; i < stripes.length; i++)
+			stripes[i] = new ReentrantLock();
+
+		recover(directory, settings.getSyncInterval().isZero());
+
+		long checkpointInterval = settings.getCheckpointInterval().toMillis();
+		long syncInterval = settings.getSyncInterval().toMillis();
+		checkpointer = Executors.newScheduledThreadPool(syncInterval > 0 ? 2 : 1, runnable -> {
+			Thread thread = new Thread(runnable, "mmap-checkpoint");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, checkpointInterval, checkpointInterval,
+				TimeUnit.MILLISECONDS);
+		if (syncInterval > 0)
+			checkpointer.scheduleWithFixedDelay(this::syncQuietly, syncInterval, syncInterval,
+					TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws IOException, InterruptedException {
+		checkpointer.shutdown();
+		checkpointer.awaitTermination(10, TimeUnit.SECONDS);
+		checkpoint();
+		journal.close();
+		file.close();
+	}
+
+	@Override
+	public Optional<Account> findById(Long id) {
+		int slot = slotOf(id);
+		if (slot < 0)
+			return Optional.empty();
+
+		ReentrantLock lock = stripes[stripe(slot)];
+		lock.lock();
+		try {
+			return holds(slot, id) ? Optional.of(AccountRecord.read(id, slots, offset(slot) + RECORD))
+					: Optional.empty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public List<Account> findAll() {
+		int water = highWater();
+		List<Account> accounts = new ArrayList<>();
+		for (int slot = 0; slot < water; slot++) {
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				int offset = offset(slot);
+				if (AccountRecord.isPresent(slots, offset + RECORD))
+					accounts.add(AccountRecord.read(slots.getLong(offset + ID), slots, offset + RECORD));
+			} finally {
+				lock.unlock();
+			}
+		}
+		accounts.sort(Comparator.comparing(Account::getId));
+		return accounts;
+	}
+
+	/**
+	 * Method to read a page of Accounts. Slots aren't in id order, so every slot
+	 * used is read once, keeping the lowest ids after afterId in a heap bounded by
+	 * the page size.
+	 */
+	@Override
+	public List<Account> findPage(Long afterId, int size) {
+		if (size <= 0)
+			return new ArrayList<>();
+
+		int water = highWater();
+		PriorityQueue<Account> lowest = new PriorityQueue<>(size + 1,
+				Comparator.comparing(Account::getId).reversed());
+		for (int slot = 0; slot < water; slot++) {
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				int offset = offset(slot);
+				long id = slots.getLong(offset + ID);
+				if (id <= afterId || !AccountRecord.isPresent(slots, offset + RECORD)
+						|| (lowest.size() == size && id > lowest.peek().getId()))
+					continue;
+				lowest.add(AccountRecord.read(id, slots, offset + RECORD));
+				if (lowest.size() > size)
+					lowest.poll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		List<Account> page = new ArrayList<>(lowest);
+		page.sort(Comparator.comparing(Account::getId));
+		return page;
+	}
+
+	/**
+	 * Method to read every Account with one pass over the slots, instead of one
+	 * pass per page. Only the ids of the slots used are kept and sorted; each
+	 * Account is read when it is consumed, and skipped if deleted meanwhile.
+	 */
+	@Override
+	public void forEach(int pageSize, Consumer<Account> consumer) {
+		int water = highWater();
+		long[] ids = new long[water];
+		int count = 0;
+		for (int slot = 0; slot < water; slot++) {
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				int offset = offset(slot);
+				if (AccountRecord.isPresent(slots, offset + RECORD))
+					ids[count++] = slots.getLong(offset + ID);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		Arrays.sort(ids, 0, count);
+		for (int i = 0; i < count; i++)
+			findById(ids[i]).ifPresent(consumer);
+	}
+
+	/**
+	 * Method to insert an Account on a free slot.
+	 *
+	 * @throws IllegalArgumentException if name or currency are too long for the
+	 *                                  record.
+	 * @throws IllegalStateException    if every slot is used.
+	 */
+	@Override
+	public Account insert(Account account) {
+		changes.readLock().lock();
+		try {
+			int slot;
+			indexLock.writeLock().lock();
+			try {
+				slot = allocate();
+			} finally {
+				indexLock.writeLock().unlock();
+			}
+
+			account.setId(nextId.getAndIncrement());
+			account.setVersion(0L);
+			long lsn;
+			try {
+				lsn = journal.put(account.getId(), account);
+			} catch (IOException | RuntimeException e) {
+				indexLock.writeLock().lock();
+				try {
+					free[freeCount++] = slot;
+				} finally {
+					indexLock.writeLock().unlock();
+				}
+				throw e;
+			}
+
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				write(slot, account.getId(), lsn);
+				AccountRecord.write(account, slots, offset(slot) + RECORD);
+			} finally {
+				lock.unlock();
+			}
+
+			indexLock.writeLock().lock();
+			try {
+				index.put(account.getId(), slot);
+			} finally {
+				indexLock.writeLock().unlock();
+			}
+			return account;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			changes.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean update(Account account) {
+		Long id = account.getId();
+		changes.readLock().lock();
+		try {
+			int slot = slotOf(id);
+			if (slot < 0)
+				return false;
+
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				int offset = offset(slot) + RECORD;
+				if (!holds(slot, id))
+					return false;
+				Account current = AccountRecord.read(id, slots, offset);
+				if (Boolean.TRUE.equals(current.getTreasury()) != Boolean.TRUE.equals(account.getTreasury()))
+					return false;
+
+				Account updated = Account.builder().id(id).name(account.getName()).currency(account.getCurrency())
+						.balance(account.getBalance()).treasury(account.getTreasury())
+						.version(current.getVersion() + 1).build();
+				long lsn = journal.put(id, updated);
+				AccountRecord.write(updated, slots, offset);
+				slots.putLong(offset(slot) + LSN, lsn);
+				return true;
+			} finally {
+				lock.unlock();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			changes.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean delete(Long id) {
+		changes.readLock().lock();
+		try {
+			int slot = slotOf(id);
+			if (slot < 0)
+				return false;
+
+			ReentrantLock lock = stripes[stripe(slot)];
+			lock.lock();
+			try {
+				if (!holds(slot, id))
+					return false;
+				long lsn = journal.delete(id);
+				AccountRecord.clear(slots, offset(slot) + RECORD);
+				slots.putLong(offset(slot) + LSN, lsn);
+			} finally {
+				lock.unlock();
+			}
+
+			indexLock.writeLock().lock();
+			try {
+				release(id, slot);
+			} finally {
+				indexLock.writeLock().unlock();
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			changes.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account. Only
+	 * balance and version of both slots are read and written.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException          if profile doesn't accept negative
+	 *                                  balance.
+	 * @throws AccountNotFoundException if an Account doesn't exist.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		changes.readLock().lock();
+		try {
+			int originSlot = existing(originId);
+			int payeeSlot = existing(payeeId);
+
+			int first = stripe(originSlot);
+			int second = stripe(payeeSlot);
+			if (first > second) {
+				int swap = first;
+				first = second;
+				second = swap;
+			}
+
+			stripes[first].lock();
+			if (second != first)
+				stripes[second].lock();
+			try {
+				if (!holds(originSlot, originId))
+					throw notFound(originId);
+				if (!holds(payeeSlot, payeeId))
+					throw notFound(payeeId);
+
+				int origin = offset(originSlot) + RECORD;
+				int payee = offset(payeeSlot) + RECORD;
+				TreasuryRules.validateWithdrawal(AccountRecord.isTreasury(slots, origin),
+						AccountRecord.balance(slots, origin), amount);
+
+				long lsn = journal.transfer(originId, payeeId, amount);
+				AccountRecord.addBalance(slots, origin, -amount);
+				AccountRecord.addBalance(slots, payee, amount);
+				slots.putLong(offset(originSlot) + LSN, lsn);
+				slots.putLong(offset(payeeSlot) + LSN, lsn);
+
+				return AccountRecord.read(originId, slots, origin);
+			} finally {
+				if (second != first)
+					stripes[second].unlock();
+				stripes[first].unlock();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			changes.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to force the mapped file to disk and drop the journal segments it
+	 * makes unnecessary. Changes are held only while the journal is rotated.
+	 */
+	public synchronized void checkpoint() throws IOException {
+		long lsn;
+		int water;
+		long next;
+		changes.writeLock().lock();
+		try {
+			lsn = journal.rotate();
+			water = highWater;
+			next = nextId.get();
+		} finally {
+			changes.writeLock().unlock();
+		}
+
+		slots.force();
+		slots.putInt(HIGH_WATER, water);
+		slots.putLong(NEXT_ID, next);
+		slots.putLong(CHECKPOINT, lsn);
+		slots.force();
+		journal.discard();
+	}
+
+	/**
+	 * Private method to index the slots held by the file and replay the journal
+	 * after the last checkpoint.
+	 */
+	private void recover(File directory, boolean syncEachWrite) throws IOException {
+		index = new OffHeapIndex(capacity);
+		free = new int[capacity];
+		freeCount = 0;
+		highWater = slots.getInt(HIGH_WATER);
+		if (highWater > capacity)
+			throw new IllegalStateException(
+					String.format("Account file holds %s slots, more than capacity %s", highWater, capacity));
+
+		long lastId = slots.getLong(NEXT_ID) - 1;
+		long lastLsn = slots.getLong(CHECKPOINT);
+		for (int slot = 0; slot < highWater; slot++) {
+			int offset = offset(slot);
+			lastLsn = Math.max(lastLsn, slots.getLong(offset + LSN));
+			if (AccountRecord.isPresent(slots, offset + RECORD)) {
+				long id = slots.getLong(offset + ID);
+				index.put(id, slot);
+				lastId = Math.max(lastId, id);
+			} else {
+				free[freeCount++] = slot;
+			}
+		}
+		nextId = new AtomicLong(Math.max(1, lastId + 1));
+
+		journal = new MappedJournal(directory, syncEachWrite);
+		lastLsn = Math.max(lastLsn, journal.replay(slots.getLong(CHECKPOINT), this::redo));
+		journal.open(lastLsn);
+		log.info("Mapped Account store opened with {} Accounts", highWater - freeCount);
+	}
+
+	/**
+	 * Private method to apply a journal entry on replay, unless its slot already
+	 * holds it.
+	 */
+	private void redo(byte type, long lsn, long id, long payee, long amount, ByteBuffer entry, int record) {
+		switch (type) {
+		case MappedJournal.PUT:
+			redoPut(id, lsn, entry, record);
+			break;
+		case MappedJournal.DELETE:
+			int slot = index.get(id);
+			if (slot >= 0 && slots.getLong(offset(slot) + LSN) < lsn) {
+				AccountRecord.clear(slots, offset(slot) + RECORD);
+				slots.putLong(offset(slot) + LSN, lsn);
+				release(id, slot);
+			}
+			break;
+		case MappedJournal.TRANSFER:
+			// A transfer to the same Account doesn't change its balance.
+			if (id != payee) {
+				redoBalance(id, -amount, lsn);
+				redoBalance(payee, amount, lsn);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void redoPut(long id, long lsn, ByteBuffer entry, int record) {
+		int slot = index.get(id);
+		if (slot < 0) {
+			slot = allocate();
+			write(slot, id, 0);
+			index.put(id, slot);
+		}
+		int offset = offset(slot);
+		if (slots.getLong(offset + LSN) < lsn) {
+			for (int i = 0; i < AccountRecord.SIZE; i += Long.BYTES)
+				slots.putLong(offset + RECORD + i, entry.getLong(record + i));
+			slots.putLong(offset + LSN, lsn);
+		}
+		nextId.accumulateAndGet(id + 1, Math::max);
+	}
+
+	private void redoBalance(long id, long amount, long lsn) {
+		int slot = index.get(id);
+		if (slot >= 0 && slots.getLong(offset(slot) + LSN) < lsn) {
+			AccountRecord.addBalance(slots, offset(slot) + RECORD, amount);
+			slots.putLong(offset(slot) + LSN, lsn);
+		}
+	}
+
+	/**
+	 * Private method to take a free slot. Callers hold the index write lock.
+	 *
+	 * @throws IllegalStateException if every slot is used.
+	 */
+	private int allocate() {
+		if (freeCount > 0)
+			return free[--freeCount];
+		if (highWater == capacity)
+			throw new IllegalStateException(String.format("Account store is full: %s Accounts", capacity));
+		return highWater++;
+	}
+
+	/**
+	 * Private method to give back the slot of a deleted Account. Callers hold the
+	 * index write lock.
+	 */
+	private void release(long id, int slot) {
+		index.remove(id);
+		free[freeCount++] = slot;
+	}
+
+	private void write(int slot, long id, long lsn) {
+		slots.putLong(offset(slot) + ID, id);
+		slots.putLong(offset(slot) + LSN, lsn);
+	}
+
+	/**
+	 * Private method to know if a slot still holds an Account. Callers hold the
+	 * stripe of the slot.
+	 */
+	private boolean holds(int slot, Long id) {
+		int offset = offset(slot);
+		return slots.getLong(offset + ID) == id && AccountRecord.isPresent(slots, offset + RECORD);
+	}
+
+	private int slotOf(Long id) {
+		indexLock.readLock().lock();
+		try {
+			return index.get(id);
+		} finally {
+			indexLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @throws AccountNotFoundException if Account doesn't exist.
+	 */
+	private int existing(Long id) {
+		int slot = slotOf(id);
+		if (slot < 0)
+			throw notFound(id);
+		return slot;
+	}
+
+	private AccountNotFoundException notFound(Long id) {
+		return new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id));
+	}
+
+	private void checkpointQuietly() {
+		try {
+			checkpoint();
+		} catch (IOException | RuntimeException e) {
+			log.error("Checkpoint of mapped Account store failed", e);
+		}
+	}
+
+	private void syncQuietly() {
+		try {
+			journal.sync();
+		} catch (IOException | RuntimeException e) {
+			log.error("Sync of mapped Account journal failed", e);
+		}
+	}
+
+	private int highWater() {
+		indexLock.readLock().lock();
+		try {
+			return highWater;
+		} finally {
+			indexLock.readLock().unlock();
+		}
+	}
+
+	private int offset(int slot) {
+		return HEADER + slot * SLOT;
+	}
+
+	private int stripe(int slot) {
+		return slot % stripes.length;
+	}
+
+}
@@ -0,0 +1,262 @@
+package io.accountservice.test.service.store.mmap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.store.AccountRecord;
+
+/**
+ * Append-only journal of the changes of a {@link MappedAccountStore}, split in
+ * segment files named by the first sequence number they may hold. Each entry is
+ * written with one channel write and ends with a CRC32 of its bytes, so an entry
+ * torn by a crash is found on replay and ends its segment.
+ * <p>
+ * Entries are built on one reused direct buffer, so appending doesn't allocate.
+ *
+ * @author Austr0s
+ */
+final class MappedJournal implements Closeable {
+
+	/**
+	 * Record of ID written, on creation or update.
+	 */
+	static final byte PUT = 1;
+
+	/**
+	 * ID deleted.
+	 */
+	static final byte DELETE = 2;
+
+	/**
+	 * AMOUNT moved from ID to PAYEE.
+	 */
+	static final byte TRANSFER = 3;
+
+	private static final int TYPE = 0;
+
+	private static final int LSN = 1;
+
+	private static final int ID = 9;
+
+	private static final int BODY = 17;
+
+	private static final int PAYEE = BODY;
+
+	private static final int AMOUNT = BODY + 8;
+
+	private static final int CRC = 4;
+
+	private static final String PREFIX = "journal-";
+
+	private static final String SUFFIX = ".log";
+
+	/**
+	 * Callback of the entries found on replay. For PUT, the record is on the entry
+	 * buffer at offset record.
+	 */
+	interface Handler {
+		void apply(byte type, long lsn, long id, long payee, long amount, ByteBuffer entry, int record);
+	}
+
+	private final File directory;
+
+	/**
+	 * Whether each entry is forced to disk before append returns.
+	 */
+	private final boolean syncEachWrite;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BODY + AccountRecord.SIZE + CRC);
+
+	private final CRC32 crc = new CRC32();
+
+	private volatile FileChannel channel;
+
+	private File segment;
+
+	/**
+	 * Sequence number of the last entry appended.
+	 */
+	private long lsn;
+
+	MappedJournal(File directory, boolean syncEachWrite) {
+		this.directory = directory;
+		this.syncEachWrite = syncEachWrite;
+	}
+
+	/**
+	 * Method to read every segment in order, passing the entries after a sequence
+	 * number to a handler.
+	 *
+	 * @param afterLsn sequence number already applied.
+	 * @return sequence number of the last valid entry found, or afterLsn if none
+	 *         is after it.
+	 */
+	synchronized long replay(long afterLsn, Handler handler) throws IOException {
+		long last = afterLsn;
+		for (File file : segments()) {
+			ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			int start = 0;
+			while (entries.limit() - start > BODY) {
+				int length = length(entries.get(start + TYPE));
+				if (length < 0 || entries.limit() - start < length || !valid(entries, start, length))
+					break;
+
+				byte type = entries.get(start + TYPE);
+				long entryLsn = entries.getLong(start + LSN);
+				if (entryLsn > afterLsn)
+					handler.apply(type, entryLsn, entries.getLong(start + ID),
+							type == TRANSFER ? entries.getLong(start + PAYEE) : 0,
+							type == TRANSFER ? entries.getLong(start + AMOUNT) : 0, entries, start + BODY);
+				last = Math.max(last, entryLsn);
+				start += length;
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * Method to start appending to a new segment.
+	 *
+	 * @param lastLsn sequence number of the last change already applied. Entries
+	 *                appended get greater numbers.
+	 */
+	synchronized void open(long lastLsn) throws IOException {
+		lsn = lastLsn;
+		segment = new File(directory, String.format("%s%019d%s", PREFIX, lsn + 1, SUFFIX));
+		channel = FileChannel.open(segment.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Method to append the record of an Account.
+	 *
+	 * @return sequence number of the entry.
+	 * @throws IllegalArgumentException if name or currency are too long for the
+	 *                                  record.
+	 */
+	synchronized long put(long id, Account account) throws IOException {
+		begin(PUT, id);
+		AccountRecord.write(account, buffer, BODY);
+		buffer.position(BODY + AccountRecord.SIZE);
+		return end();
+	}
+
+	/**
+	 * Method to append a deletion.
+	 *
+	 * @return sequence number of the entry.
+	 */
+	synchronized long delete(long id) throws IOException {
+		begin(DELETE, id);
+		return end();
+	}
+
+	/**
+	 * Method to append a transfer.
+	 *
+	 * @return sequence number of the entry.
+	 */
+	synchronized long transfer(long origin, long payee, long amount) throws IOException {
+		begin(TRANSFER, origin);
+		buffer.putLong(PAYEE, payee).putLong(AMOUNT, amount).position(AMOUNT + 8);
+		return end();
+	}
+
+	/**
+	 * Method to force the entries appended to disk. Not synchronized, so appends
+	 * aren't held while the disk syncs.
+	 */
+	void sync() throws IOException {
+		try {
+			channel.force(false);
+		} catch (ClosedChannelException e) {
+			// Segment was rotated, which forced it.
+		}
+	}
+
+	/**
+	 * Method to close the current segment and start a new one.
+	 *
+	 * @return sequence number of the last entry of the closed segments.
+	 */
+	synchronized long rotate() throws IOException {
+		channel.force(false);
+		channel.close();
+		open(lsn);
+		return lsn;
+	}
+
+	/**
+	 * Method to delete the closed segments, once their changes are on the Account
+	 * file.
+	 */
+	synchronized void discard() throws IOException {
+		for (File file : segments())
+			if (!file.equals(segment))
+				Files.deleteIfExists(file.toPath());
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.force(false);
+		channel.close();
+	}
+
+	private void begin(byte type, long id) {
+		buffer.clear();
+		buffer.put(TYPE, type).putLong(LSN, lsn + 1).putLong(ID, id).position(BODY);
+	}
+
+	private long end() throws IOException {
+		ByteBuffer bytes = buffer.duplicate();
+		bytes.flip();
+		crc.reset();
+		crc.update(bytes);
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		if (syncEachWrite)
+			channel.force(false);
+		return ++lsn;
+	}
+
+	private boolean valid(ByteBuffer entries, int start, int length) {
+		ByteBuffer bytes = entries.duplicate();
+		bytes.limit(start + length - CRC).position(start);
+		crc.reset();
+		crc.update(bytes);
+		return (int) crc.getValue() == entries.getInt(start + length - CRC);
+	}
+
+	private File[] segments() {
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+		if (files == null)
+			return new File[0];
+		Arrays.sort(files);
+		return files;
+	}
+
+	private static int length(byte type) {
+		switch (type) {
+		case PUT:
+			return BODY + AccountRecord.SIZE + CRC;
+		case DELETE:
+			return BODY + CRC;
+		case TRANSFER:
+			return AMOUNT + 8 + CRC;
+		default:
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package io.accountservice.test.service.store.mmap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash table from Account id to record slot, held on a direct
+ * buffer out of the heap. Collisions are resolved by linear probing and removed
+ * ids leave a tombstone, which is dropped the next time the table is rehashed.
+ * Not thread-safe.
+ *
+ * @author Austr0s
+ */
+final class OffHeapIndex {
+
+	private static final int ENTRY = 16;
+
+	private static final int SLOT = 8;
+
+	/**
+	 * Key of a free entry. Ids start at one.
+	 */
+	private static final long EMPTY = 0;
+
+	/**
+	 * Key of an entry removed.
+	 */
+	private static final long REMOVED = -1;
+
+	private final int size;
+
+	private final int mask;
+
+	private ByteBuffer table;
+
+	/**
+	 * Entries not empty, tombstones included.
+	 */
+	private int used;
+
+	/**
+	 * Method to create an index able to hold a number of ids with a load factor
+	 * below one half.
+	 *
+	 * @param capacity max ids held.
+	 */
+	OffHeapIndex(int capacity) {
+		size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+		mask = size - 1;
+		table = ByteBuffer.allocateDirect(size * ENTRY);
+	}
+
+	/**
+	 * Method to get the slot of an id.
+	 *
+	 * @return slot of the id, or -1 if not held.
+	 */
+	int get(long id) {
+		for (int i = hash(id);; i = (i + 1) & mask) {
+			long key = table.getLong(i * ENTRY);
+			if (key == id)
+				return table.getInt(i * ENTRY + SLOT);
+			if (key == EMPTY)
+				return -1;
+		}
+	}
+
+	/**
+	 * Method to add an id not held yet.
+	 */
+	void put(long id, int slot) {
+		if (used + 1 > size / 4 * 3)
+			rehash();
+
+		int i = hash(id);
+		while (table.getLong(i * ENTRY) > EMPTY)
+			i = (i + 1) & mask;
+		if (table.getLong(i * ENTRY) == EMPTY)
+			used++;
+		table.putLong(i * ENTRY, id);
+		table.putInt(i * ENTRY + SLOT, slot);
+	}
+
+	/**
+	 * Method to remove an id.
+	 */
+	void remove(long id) {
+		for (int i = hash(id);; i = (i + 1) & mask) {
+			long key = table.getLong(i * ENTRY);
+			if (key == id) {
+				table.putLong(i * ENTRY, REMOVED);
+				return;
+			}
+			if (key == EMPTY)
+				return;
+		}
+	}
+
+	/**
+	 * Private method to copy the ids held to a new table without tombstones.
+	 */
+	private void rehash() {
+		ByteBuffer previous = table;
+		table = ByteBuffer.allocateDirect(size * ENTRY);
+		used = 0;
+		for (int i = 0; i < size; i++) {
+			long key = previous.getLong(i * ENTRY);
+			if (key > EMPTY) {
+				int j = hash(key);
+				while (table.getLong(j * ENTRY) != EMPTY)
+					j = (j + 1) & mask;
+				table.putLong(j * ENTRY, key);
+				table.putInt(j * ENTRY + SLOT, previous.getInt(i * ENTRY + SLOT));
+				used++;
+			}
+		}
+	}
+
+	private int hash(long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+}
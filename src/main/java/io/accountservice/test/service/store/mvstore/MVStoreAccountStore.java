@@ -0,0 +1,297 @@
+package io.accountservice.test.service.store.mvstore;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.accountservice.test.config.StoreProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.store.AccountRecord;
+import io.accountservice.test.service.store.AccountStore;
+
+/**
+ * Store that keeps Accounts on an embedded MVStore file, as fixed-width
+ * {@link AccountRecord}s keyed by id, so reads and writes don't go through SQL
+ * or JPA. MVStore auto-commit is disabled: changes are committed to the file by
+ * a committer thread, at most one auto-commit delay after they are made, and on
+ * close. Changes hold the read side of a commit lock and commits take the write
+ * side, so a commit never catches a transaction with only one of its records
+ * written.
+ * <p>
+ * Changes of one Account are serialized by a lock stripe. Transactions acquire
+ * both stripes in ascending stripe order, so two transactions in opposite
+ * directions can't deadlock.
+ *
+ * @author Austr0s
+ */
+@Component
+@ConditionalOnProperty(prefix = "account.store", name = "type", havingValue = "mvstore")
+public class MVStoreAccountStore implements AccountStore {
+
+	private static final String ACCOUNTS = "accounts";
+
+	@Autowired
+	private StoreProperties properties;
+
+	private MVStore store;
+
+	private MVMap<Long, byte[]> accounts;
+
+	private AtomicLong nextId;
+
+	private ReentrantLock[] stripes;
+
+	private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+	private boolean commitEveryChange;
+
+	private ScheduledExecutorService committer;
+
+	@PostConstruct
+	public void start() {
+		StoreProperties.MvStore settings = properties.getMvstore();
+		File file = new File(settings.getFile());
+		if (file.getParentFile() != null)
+			file.getParentFile().mkdirs();
+
+		MVStore.Builder builder = new MVStore.Builder() //
+				.fileName(file.getPath()) //
+				.cacheSize(settings.getCacheSize()) //
+				.autoCommitDisabled();
+		if (settings.isCompress())
+			builder.compress();
+		store = builder.open();
+		accounts = store.openMap(ACCOUNTS);
+
+		Long last = accounts.lastKey();
+		nextId = new AtomicLong(last == null ? 1 : last + 1);
+
+		stripes = new ReentrantLock[Math.max(1, settings.getStripes())];
+		for (int i = 0; i < stripes.length; i++)
+			stripes[i] = new ReentrantLock();
+
+		long delay = settings.getAutoCommitDelay().toMillis();
+		commitEveryChange = delay <= 0;
+		if (!commitEveryChange) {
+			committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "mvstore-commit");
+				thread.setDaemon(true);
+				return thread;
+			});
+			committer.scheduleWithFixedDelay(this::commit, delay, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		if (committer != null) {
+			committer.shutdown();
+			committer.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		commitLock.writeLock().lock();
+		try {
+			store.close();
+		} finally {
+			commitLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Optional<Account> findById(Long id) {
+		byte[] record = accounts.get(id);
+		return record == null ? Optional.empty() : Optional.of(AccountRecord.decode(id, record));
+	}
+
+	@Override
+	public List<Account> findAll() {
+		return read(accounts.cursor(null), Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<Account> findPage(Long afterId, int size) {
+		return read(accounts.cursor(afterId + 1), size);
+	}
+
+	@Override
+	public Account insert(Account account) {
+		account.setId(nextId.getAndIncrement());
+		account.setVersion(0L);
+		commitLock.readLock().lock();
+		try {
+			accounts.put(account.getId(), AccountRecord.encode(account));
+		} finally {
+			commitLock.readLock().unlock();
+		}
+		changed();
+		return account;
+	}
+
+	@Override
+	public boolean update(Account account) {
+		ReentrantLock lock = stripes[stripe(account.getId())];
+		lock.lock();
+		try {
+			byte[] record = accounts.get(account.getId());
+			if (record == null)
+				return false;
+			Account current = AccountRecord.decode(account.getId(), record);
+			if (Boolean.TRUE.equals(current.getTreasury()) != Boolean.TRUE.equals(account.getTreasury()))
+				return false;
+
+			Account updated = Account.builder().id(account.getId()).name(account.getName())
+					.currency(account.getCurrency()).balance(account.getBalance()).treasury(account.getTreasury())
+					.version(current.getVersion() + 1).build();
+			commitLock.readLock().lock();
+			try {
+				accounts.put(account.getId(), AccountRecord.encode(updated));
+			} finally {
+				commitLock.readLock().unlock();
+			}
+		} finally {
+			lock.unlock();
+		}
+		changed();
+		return true;
+	}
+
+	@Override
+	public boolean delete(Long id) {
+		ReentrantLock lock = stripes[stripe(id)];
+		boolean deleted;
+		lock.lock();
+		commitLock.readLock().lock();
+		try {
+			deleted = accounts.remove(id) != null;
+		} finally {
+			commitLock.readLock().unlock();
+			lock.unlock();
+		}
+		if (deleted)
+			changed();
+		return deleted;
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account. Only
+	 * balance and version of both records are read and written, and both are
+	 * committed together.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException          if profile doesn't accept negative
+	 *                                  balance.
+	 * @throws AccountNotFoundException if an Account doesn't exist.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		int first = stripe(originId);
+		int second = stripe(payeeId);
+		if (first > second) {
+			int swap = first;
+			first = second;
+			second = swap;
+		}
+
+		Account result;
+		stripes[first].lock();
+		if (second != first)
+			stripes[second].lock();
+		try {
+			byte[] origin = copy(originId);
+			ByteBuffer originBuffer = ByteBuffer.wrap(origin);
+			TreasuryRules.validateWithdrawal(AccountRecord.isTreasury(originBuffer, 0),
+					AccountRecord.balance(originBuffer, 0), amount);
+			byte[] payee = originId.equals(payeeId) ? origin : copy(payeeId);
+
+			AccountRecord.addBalance(originBuffer, 0, -amount);
+			AccountRecord.addBalance(ByteBuffer.wrap(payee), 0, amount);
+			commitLock.readLock().lock();
+			try {
+				accounts.put(originId, origin);
+				accounts.put(payeeId, payee);
+			} finally {
+				commitLock.readLock().unlock();
+			}
+
+			result = AccountRecord.decode(originId, origin);
+		} finally {
+			if (second != first)
+				stripes[second].unlock();
+			stripes[first].unlock();
+		}
+		changed();
+		return result;
+	}
+
+	/**
+	 * Method to commit every complete change to the file. Waits for changes in
+	 * progress to write all their records.
+	 */
+	void commit() {
+		commitLock.writeLock().lock();
+		try {
+			if (store.hasUnsavedChanges())
+				store.commit();
+		} finally {
+			commitLock.writeLock().unlock();
+		}
+	}
+
+	private void changed() {
+		if (commitEveryChange)
+			commit();
+	}
+
+	/**
+	 * Private method to copy the record of an Account, since records held by the
+	 * map must not be changed.
+	 *
+	 * @throws AccountNotFoundException if Account doesn't exist.
+	 */
+	private byte[] copy(Long id) {
+		byte[] record = accounts.get(id);
+		if (record == null)
+			throw new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id));
+		return record.clone();
+	}
+
+	private List<Account> read(Cursor<Long, byte[]> cursor, int size) {
+		List<Account> page = new ArrayList<>();
+		while (page.size() < size && cursor.hasNext()) {
+			Long id = cursor.next();
+			page.add(AccountRecord.decode(id, cursor.getValue()));
+		}
+		return page;
+	}
+
+	private int stripe(Long id) {
+		return (int) Math.floorMod(id, (long) stripes.length);
+	}
+
+}
@@ -0,0 +1,395 @@
+package io.accountservice.test.service.store.sharded;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.store.AccountStore;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Store that spreads Accounts over several databases by id: an Account lives on
+ * the shard given by its id modulo the number of shards. Reads of many
+ * Accounts are sent to every shard in parallel and merged by id.
+ * <p>
+ * A transaction inside one shard is applied in one local transaction. A
+ * transaction between two shards is applied through an outbox: origin shard
+ * withdraws and records the amount on its outbox in one local transaction, then
+ * payee shard deposits it and records it on its inbox in another one, and the
+ * outbox entry is removed. The inbox makes a delivery retried apply once. If
+ * payee Account doesn't exist, the amount is refunded to origin Account. If
+ * payee shard can't be reached, the entry is left on the outbox and delivered
+ * later by a relay thread.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+public class ShardedAccountStore implements AccountStore {
+
+	private static final String SELECT = "SELECT ID, NAME, CURRENCY, BALANCE, TREASURY, VERSION FROM ACCOUNT";
+
+	private static final String SELECT_ONE = SELECT + " WHERE ID = ?";
+
+	private static final String SELECT_ALL = SELECT + " ORDER BY ID";
+
+	private static final String SELECT_PAGE = SELECT + " WHERE ID > ? ORDER BY ID LIMIT ?";
+
+	private static final String EXISTS = "SELECT COUNT(*) FROM ACCOUNT WHERE ID = ?";
+
+	private static final String NEXT_ID = "SELECT NEXT VALUE FOR ACCOUNT_SHARD_SEQ";
+
+	private static final String INSERT = "INSERT INTO ACCOUNT (ID, NAME, CURRENCY, BALANCE, TREASURY, VERSION) VALUES (?, ?, ?, ?, ?, 0)";
+
+	private static final String UPDATE = "UPDATE ACCOUNT SET NAME = ?, CURRENCY = ?, BALANCE = ?, VERSION = VERSION + 1 WHERE ID = ? AND COALESCE(TREASURY, FALSE) = ?";
+
+	private static final String DELETE = "DELETE FROM ACCOUNT WHERE ID = ?";
+
+	private static final String WITHDRAW = "UPDATE ACCOUNT SET BALANCE = BALANCE - ?, VERSION = VERSION + 1 "
+			+ "WHERE ID = ? AND (TREASURY = TRUE OR BALANCE >= ?)";
+
+	private static final String DEPOSIT = "UPDATE ACCOUNT SET BALANCE = BALANCE + ?, VERSION = VERSION + 1 WHERE ID = ?";
+
+	private static final String NEXT_OUTBOX_ID = "SELECT NEXT VALUE FOR ACCOUNT_OUTBOX_SEQ";
+
+	private static final String INSERT_OUTBOX = "INSERT INTO ACCOUNT_OUTBOX (ID, ORIGIN, PAYEE, AMOUNT, CREATED_AT) VALUES (?, ?, ?, ?, ?)";
+
+	private static final String SELECT_OUTBOX = "SELECT ID, ORIGIN, PAYEE, AMOUNT FROM ACCOUNT_OUTBOX WHERE CREATED_AT < ? ORDER BY ID";
+
+	private static final String DELETE_OUTBOX = "DELETE FROM ACCOUNT_OUTBOX WHERE ID = ?";
+
+	private static final String INSERT_INBOX = "INSERT INTO ACCOUNT_INBOX (ORIGIN_SHARD, OUTBOX_ID, PAYEE, AMOUNT, CREATED_AT) VALUES (?, ?, ?, ?, ?)";
+
+	private static final RowMapper<Account> ACCOUNT = (rs, row) -> Account.builder().id(rs.getLong("ID"))
+			.name(rs.getString("NAME")).currency(rs.getString("CURRENCY")).balance(rs.getLong("BALANCE"))
+			.treasury(rs.getBoolean("TREASURY")).version(rs.getLong("VERSION")).build();
+
+	private final List<Shard> shards = new ArrayList<>();
+
+	private final long relayInterval;
+
+	/**
+	 * Shard of the next Account created. Accounts are created on every shard in
+	 * turns.
+	 */
+	private final AtomicInteger next = new AtomicInteger();
+
+	private ExecutorService fanOut;
+
+	private ScheduledExecutorService relay;
+
+	public ShardedAccountStore(List<DataSource> dataSources, long relayInterval) {
+		for (int i = 0; i < dataSources.size(); i++)
+			shards.add(new Shard(i, dataSources.get(i)));
+		this.relayInterval = relayInterval;
+	}
+
+	@PostConstruct
+	public void start() {
+		ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("shard/schema.sql"));
+		shards.forEach(shard -> schema.execute(shard.dataSource));
+
+		fanOut = Executors.newFixedThreadPool(shards.size(), runnable -> {
+			Thread thread = new Thread(runnable, "account-shard-fan-out");
+			thread.setDaemon(true);
+			return thread;
+		});
+		relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "account-outbox-relay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		relay.scheduleWithFixedDelay(this::relay, relayInterval, relayInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		relay.shutdown();
+		relay.awaitTermination(10, TimeUnit.SECONDS);
+		fanOut.shutdown();
+	}
+
+	@Override
+	public Optional<Account> findById(Long id) {
+		return shardOf(id).jdbcTemplate.query(SELECT_ONE, ACCOUNT, id).stream().findFirst();
+	}
+
+	@Override
+	public List<Account> findAll() {
+		List<Account> accounts = fanOut(shard -> shard.jdbcTemplate.query(SELECT_ALL, ACCOUNT));
+		accounts.sort(Comparator.comparing(Account::getId));
+		return accounts;
+	}
+
+	/**
+	 * Method to get one page of Accounts seeking by id. Every shard returns its
+	 * own page and the first ones of all of them are kept.
+	 */
+	@Override
+	public List<Account> findPage(Long afterId, int size) {
+		List<Account> accounts = fanOut(shard -> shard.jdbcTemplate.query(SELECT_PAGE, ACCOUNT, afterId, size));
+		accounts.sort(Comparator.comparing(Account::getId));
+		return accounts.size() > size ? new ArrayList<>(accounts.subList(0, size)) : accounts;
+	}
+
+	/**
+	 * Method to store a new Account on the next shard. Its id is a value of the
+	 * shard sequence multiplied by the number of shards plus the shard index, so
+	 * it leads back to the shard.
+	 */
+	@Override
+	public Account insert(Account account) {
+		Shard shard = shards.get(Math.floorMod(next.getAndIncrement(), shards.size()));
+		long id = shard.jdbcTemplate.queryForObject(NEXT_ID, Long.class) * shards.size() + shard.index;
+		shard.jdbcTemplate.update(INSERT, id, account.getName(), account.getCurrency(), account.getBalance(),
+				account.getTreasury());
+		account.setId(id);
+		account.setVersion(0L);
+		return account;
+	}
+
+	@Override
+	public boolean update(Account account) {
+		return shardOf(account.getId()).jdbcTemplate.update(UPDATE, account.getName(), account.getCurrency(),
+				account.getBalance(), account.getId(), Boolean.TRUE.equals(account.getTreasury())) == 1;
+	}
+
+	@Override
+	public boolean delete(Long id) {
+		return shardOf(id).jdbcTemplate.update(DELETE, id) == 1;
+	}
+
+	/**
+	 * Method to transfer balance from an Account to another Account, in one local
+	 * transaction if both are on the same shard or through the outbox of origin
+	 * shard if not. A transaction left on the outbox because payee shard can't be
+	 * reached is applied later; its origin Account is returned already charged.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account with its new balance.
+	 * @throws CustomException          if profile doesn't accept negative
+	 *                                  balance.
+	 * @throws AccountNotFoundException if an Account doesn't exist.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		Shard origin = shardOf(originId);
+		if (origin == shardOf(payeeId))
+			transferLocal(origin, originId, payeeId, amount);
+		else
+			transferAcross(origin, originId, payeeId, amount);
+
+		return findById(originId).orElseThrow(() -> notFound(originId));
+	}
+
+	/**
+	 * Private method to apply a transaction inside one shard. Statements are sent
+	 * in Account id order, so opposite transactions can't deadlock each other.
+	 */
+	private void transferLocal(Shard shard, Long originId, Long payeeId, long amount) {
+		shard.transactionTemplate.execute(status -> {
+			if (originId.compareTo(payeeId) <= 0) {
+				withdraw(shard, originId, amount);
+				deposit(shard, payeeId, amount);
+			} else {
+				deposit(shard, payeeId, amount);
+				withdraw(shard, originId, amount);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Private method to apply a transaction between two shards through the outbox
+	 * of origin shard.
+	 */
+	private void transferAcross(Shard origin, Long originId, Long payeeId, long amount) {
+		if (shardOf(payeeId).jdbcTemplate.queryForObject(EXISTS, Long.class, payeeId) == 0)
+			throw notFound(payeeId);
+
+		Long outboxId = origin.transactionTemplate.execute(status -> {
+			withdraw(origin, originId, amount);
+			Long id = origin.jdbcTemplate.queryForObject(NEXT_OUTBOX_ID, Long.class);
+			origin.jdbcTemplate.update(INSERT_OUTBOX, id, originId, payeeId, amount, now());
+			return id;
+		});
+
+		boolean delivered;
+		try {
+			delivered = deliver(origin, outboxId, originId, payeeId, amount);
+		} catch (DataAccessException e) {
+			log.warn("Transaction {} of shard {} left on outbox", outboxId, origin.index, e);
+			return;
+		}
+		if (!delivered)
+			throw notFound(payeeId);
+	}
+
+	/**
+	 * Method to deposit an amount recorded on the outbox of origin shard on payee
+	 * Account, once. The outbox entry is removed once deposited, or once refunded
+	 * to origin Account if payee Account doesn't exist.
+	 *
+	 * @return true if deposited, now or before, false if refunded.
+	 */
+	boolean deliver(Shard origin, long outboxId, Long originId, Long payeeId, long amount) {
+		Shard payee = shardOf(payeeId);
+		boolean delivered = payee.transactionTemplate.execute(status -> {
+			try {
+				payee.jdbcTemplate.update(INSERT_INBOX, origin.index, outboxId, payeeId, amount, now());
+			} catch (DuplicateKeyException e) {
+				return true;
+			}
+			if (payee.jdbcTemplate.update(DEPOSIT, amount, payeeId) == 1)
+				return true;
+			status.setRollbackOnly();
+			return false;
+		});
+
+		if (delivered)
+			origin.jdbcTemplate.update(DELETE_OUTBOX, outboxId);
+		else
+			origin.transactionTemplate.execute(status -> {
+				if (origin.jdbcTemplate.update(DELETE_OUTBOX, outboxId) == 1
+						&& origin.jdbcTemplate.update(DEPOSIT, amount, originId) == 0)
+					log.error("Transaction {} of shard {} couldn't be refunded: Account Id: {} was not found",
+							outboxId, origin.index, originId);
+				return null;
+			});
+		return delivered;
+	}
+
+	/**
+	 * Method to deliver the outbox entries older than the relay interval, which
+	 * their caller couldn't deliver. An entry that fails again is left for the
+	 * next run.
+	 */
+	void relay() {
+		Timestamp before = new Timestamp(System.currentTimeMillis() - relayInterval);
+		for (Shard shard : shards) {
+			List<Map<String, Object>> entries;
+			try {
+				entries = shard.jdbcTemplate.queryForList(SELECT_OUTBOX, before);
+			} catch (DataAccessException e) {
+				log.warn("Outbox of shard {} couldn't be read", shard.index, e);
+				continue;
+			}
+
+			for (Map<String, Object> entry : entries) {
+				long outboxId = ((Number) entry.get("ID")).longValue();
+				try {
+					deliver(shard, outboxId, ((Number) entry.get("ORIGIN")).longValue(),
+							((Number) entry.get("PAYEE")).longValue(), ((Number) entry.get("AMOUNT")).longValue());
+				} catch (DataAccessException e) {
+					log.warn("Transaction {} of shard {} couldn't be delivered", outboxId, shard.index, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Private method to subtract amount from origin Account balance.
+	 *
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	private void withdraw(Shard shard, Long id, long amount) throws CustomException {
+		if (shard.jdbcTemplate.update(WITHDRAW, amount, id, amount) == 1)
+			return;
+		if (shard.jdbcTemplate.queryForObject(EXISTS, Long.class, id) == 0)
+			throw notFound(id);
+		throw TreasuryRules.negativeBalance();
+	}
+
+	private void deposit(Shard shard, Long id, long amount) {
+		if (shard.jdbcTemplate.update(DEPOSIT, amount, id) == 0)
+			throw notFound(id);
+	}
+
+	/**
+	 * Private method to run a query on every shard in parallel.
+	 *
+	 * @param query to run on one shard.
+	 * @return results of every shard, unordered.
+	 */
+	private <T> List<T> fanOut(Function<Shard, List<T>> query) {
+		List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+		for (Shard shard : shards)
+			futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), fanOut));
+
+		List<T> results = new ArrayList<>();
+		try {
+			futures.forEach(future -> results.addAll(future.join()));
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+		return results;
+	}
+
+	Shard shardOf(Long id) {
+		return shards.get((int) Math.floorMod(id, (long) shards.size()));
+	}
+
+	private AccountNotFoundException notFound(Long id) {
+		return new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id));
+	}
+
+	private static Timestamp now() {
+		return new Timestamp(System.currentTimeMillis());
+	}
+
+	/**
+	 * One database holding Accounts.
+	 */
+	static final class Shard {
+
+		private final int index;
+
+		private final DataSource dataSource;
+
+		private final JdbcTemplate jdbcTemplate;
+
+		private final TransactionTemplate transactionTemplate;
+
+		private Shard(int index, DataSource dataSource) {
+			this.index = index;
+			this.dataSource = dataSource;
+			this.jdbcTemplate = new JdbcTemplate(dataSource);
+			this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		}
+	}
+
+}
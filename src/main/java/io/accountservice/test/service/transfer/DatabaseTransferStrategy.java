@@ -0,0 +1,206 @@
+package io.accountservice.test.service.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.hot.HotAccountSlots;
+import io.accountservice.test.service.journal.TransferJournal;
+
+/**
+ * Transfer strategy that applies every transaction on database inside its own
+ * transaction. Default strategy. Accounts configured as hot are changed on one
+ * of their balance slots instead of their row. Only transfers open a
+ * transaction; refreshes are plain reads, and evict runs in the transaction of
+ * the caller.
+ *
+ * @author Austr0s
+ */
+public class DatabaseTransferStrategy implements TransferStrategy {
+
+	/**
+	 * AccountRepository to persist on database.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * TransferJournal to record every balance change in the same commit.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	/**
+	 * HotAccountSlots to change the balance of hot Accounts.
+	 */
+	@Autowired
+	private HotAccountSlots slots;
+
+	/**
+	 * Method to transfer balance from an Account to another Account. Both balances
+	 * are changed by the database with one atomic statement each, so the Treasury
+	 * rule is checked on the row itself and no entity is loaded or dirty-checked.
+	 * Statements are sent in Account id order, so opposite transactions can't
+	 * deadlock each other.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account with its new balance.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	@Override
+	@Transactional
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		Long originId = transaction.getOrigin();
+		Long payeeId = transaction.getPayee();
+		long amount = transaction.getAmountToTransfer();
+
+		if (originId.compareTo(payeeId) <= 0) {
+			withdraw(originId, amount);
+			deposit(payeeId, amount);
+		} else {
+			deposit(payeeId, amount);
+			withdraw(originId, amount);
+		}
+		journal.transfer(originId, payeeId, amount);
+
+		return repository.findById(originId).map(this::refresh).orElseThrow(() -> notFound(originId));
+	}
+
+	/**
+	 * Method to apply many transactions in one database transaction. Every Account
+	 * involved is loaded and locked with one query, transactions are validated in
+	 * request order against the running balances, and each Account is written once
+	 * with its net balance. Hibernate sends those updates as JDBC batches. Slots of
+	 * hot Accounts involved are moved into their row first.
+	 *
+	 * @param transactions list of transactions to apply.
+	 * @return result of each transaction, in request order.
+	 */
+	@Override
+	@Transactional
+	public List<TransactionResultDto> transferAll(List<TransactionOperationDto> transactions) {
+		if (transactions.isEmpty())
+			return new ArrayList<>();
+
+		Set<Long> ids = new HashSet<>();
+		for (TransactionOperationDto transaction : transactions) {
+			ids.add(transaction.getOrigin());
+			ids.add(transaction.getPayee());
+		}
+
+		slots.lockAll(ids);
+		Map<Long, Account> accounts = new HashMap<>();
+		for (Account account : repository.findAllForUpdate(ids))
+			accounts.put(account.getId(), account);
+
+		Map<Long, Long> balances = new HashMap<>();
+		List<TransactionOperationDto> applied = new ArrayList<>(transactions.size());
+		List<TransactionResultDto> results = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			TransactionOperationDto transaction = transactions.get(i);
+			Account origin = accounts.get(transaction.getOrigin());
+			Account payee = accounts.get(transaction.getPayee());
+			if (origin == null || payee == null) {
+				results.add(new TransactionResultDto(i, transaction, false, String.format(
+						"Transaction - Account Id: %s was not found",
+						origin == null ? transaction.getOrigin() : transaction.getPayee())));
+				continue;
+			}
+
+			long amount = transaction.getAmountToTransfer();
+			long originBalance = balances.getOrDefault(origin.getId(), origin.getBalance());
+			try {
+				TreasuryRules.validateWithdrawal(origin.getTreasury(), originBalance, amount);
+			} catch (CustomException e) {
+				results.add(new TransactionResultDto(i, transaction, false, e.getMessage()));
+				continue;
+			}
+
+			balances.put(origin.getId(), originBalance - amount);
+			balances.put(payee.getId(), balances.getOrDefault(payee.getId(), payee.getBalance()) + amount);
+			applied.add(transaction);
+			results.add(new TransactionResultDto(i, transaction, true, null));
+		}
+
+		balances.forEach((id, balance) -> accounts.get(id).setBalance(balance));
+		journal.transferAll(applied);
+		return results;
+	}
+
+	/**
+	 * Private method to subtract amount from origin Account balance.
+	 *
+	 * @param id     of origin Account.
+	 * @param amount amount to subtract.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	private void withdraw(Long id, long amount) throws CustomException {
+		if (slots.isHot(id) ? slots.withdraw(id, amount) : repository.withdraw(id, amount))
+			return;
+		if (!repository.existsById(id))
+			throw notFound(id);
+		throw TreasuryRules.negativeBalance();
+	}
+
+	/**
+	 * Private method to add amount to payee Account balance.
+	 *
+	 * @param id     of payee Account.
+	 * @param amount amount to add.
+	 */
+	private void deposit(Long id, long amount) {
+		if (!(slots.isHot(id) ? slots.deposit(id, amount) : repository.deposit(id, amount)))
+			throw notFound(id);
+	}
+
+	/**
+	 * Method to return the Account with its balance slots added, if it is hot.
+	 *
+	 * @param account retrieved from database.
+	 * @return account with the whole balance.
+	 */
+	@Override
+	public Account refresh(Account account) {
+		return slots.refresh(account);
+	}
+
+	/**
+	 * Method to return many Accounts with the balance slots of the hot ones added,
+	 * summed in one query.
+	 *
+	 * @param accounts retrieved from database.
+	 * @return accounts with the whole balance, in the same order.
+	 */
+	@Override
+	public List<Account> refreshAll(List<Account> accounts) {
+		return slots.refreshAll(accounts);
+	}
+
+	/**
+	 * Method to drop the balance slots of an Account updated or deleted.
+	 *
+	 * @param id of the Account.
+	 */
+	@Override
+	public void evict(Long id) {
+		slots.clear(id);
+	}
+
+	private AccountNotFoundException notFound(Long id) {
+		return new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id));
+	}
+
+}
@@ -0,0 +1,277 @@
+package io.accountservice.test.service.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.journal.TransferJournal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transfer strategy that commits transactions of many callers together. A
+ * single committer thread collects queued transactions for a short window or
+ * until a max count, applies them in queue order inside one database
+ * transaction, and answers every caller only once that transaction has been
+ * committed.
+ *
+ * @author Austr0s
+ */
+@Slf4j
+public class GroupCommitTransferStrategy implements TransferStrategy {
+
+	/**
+	 * AccountRepository to load and lock the Accounts of a group.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * TransactionTemplate to commit each group once.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * TransferJournal to record the transactions of a group in the same commit.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	@Autowired
+	private TransferProperties properties;
+
+	private BlockingQueue<Pending> queue;
+
+	private Thread committer;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(Math.max(1, properties.getGroupCommit().getQueueCapacity()));
+		running = true;
+		committer = new Thread(this::run, "transfer-group-commit");
+		committer.setDaemon(true);
+		committer.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		committer.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account. Waits until
+	 * the group of the transaction has been committed.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		return await(submit(transaction));
+	}
+
+	/**
+	 * Method to apply many transactions in request order. Every transaction is
+	 * queued before waiting for the first one, so all of them usually share one
+	 * commit. A transaction refused because the queue is full fails alone.
+	 *
+	 * @param transactions list of transactions to apply.
+	 * @return result of each transaction, in request order.
+	 */
+	@Override
+	public List<TransactionResultDto> transferAll(List<TransactionOperationDto> transactions) {
+		List<CompletableFuture<Account>> submitted = new ArrayList<>(transactions.size());
+		for (TransactionOperationDto transaction : transactions) {
+			try {
+				submitted.add(submit(transaction));
+			} catch (TaskRejectedException e) {
+				CompletableFuture<Account> rejected = new CompletableFuture<>();
+				rejected.completeExceptionally(e);
+				submitted.add(rejected);
+			}
+		}
+
+		List<TransactionResultDto> results = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			try {
+				await(submitted.get(i));
+				results.add(new TransactionResultDto(i, transactions.get(i), true, null));
+			} catch (CustomException | AccountNotFoundException | TaskRejectedException e) {
+				results.add(new TransactionResultDto(i, transactions.get(i), false, e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	private CompletableFuture<Account> submit(TransactionOperationDto transaction) {
+		CompletableFuture<Account> result = new CompletableFuture<>();
+		if (!queue.offer(new Pending(transaction, result)))
+			throw new TaskRejectedException("Group commit queue is full");
+		return result;
+	}
+
+	private Account await(CompletableFuture<Account> result) {
+		try {
+			return result.get(properties.getGroupCommit().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new CustomException("Error Transfer: " + e.getCause().getMessage() + ". Operation fails");
+		} catch (TimeoutException e) {
+			throw new CustomException(
+					"Error Transfer: Transaction is still in progress. Check Account balance before retrying");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CustomException("Error Transfer: Transaction interrupted. Operation fails");
+		}
+	}
+
+	private void run() {
+		TransferProperties.GroupCommit config = properties.getGroupCommit();
+		int maxCount = Math.max(1, config.getMaxCount());
+		long window = TimeUnit.MILLISECONDS.toNanos(config.getWindow().toMillis());
+
+		List<Pending> group = new ArrayList<>(maxCount);
+		while (running || !queue.isEmpty()) {
+			try {
+				Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null)
+					continue;
+
+				group.add(first);
+				long deadline = System.nanoTime() + window;
+				while (group.size() < maxCount) {
+					Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					if (next == null)
+						break;
+					group.add(next);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+
+			commit(group);
+			group.clear();
+		}
+	}
+
+	/**
+	 * Method to apply a group of transactions in one database transaction. Every
+	 * Account involved is loaded and locked with one query, transactions are
+	 * validated in queue order against the running balances, and each Account is
+	 * written once with its net balance as part of one JDBC batch. Callers are
+	 * answered after commit; if commit fails every transaction of the group fails.
+	 *
+	 * @param group transactions to apply, in queue order.
+	 */
+	void commit(List<Pending> group) {
+		Map<Pending, Object> outcomes = new HashMap<>();
+		try {
+			transactionTemplate.execute(status -> {
+				apply(group, outcomes);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			log.error("Group commit of {} transactions failed", group.size(), e);
+			group.forEach(pending -> pending.result.completeExceptionally(e));
+			return;
+		}
+
+		for (Pending pending : group) {
+			Object outcome = outcomes.get(pending);
+			if (outcome instanceof Account)
+				pending.result.complete((Account) outcome);
+			else
+				pending.result.completeExceptionally((RuntimeException) outcome);
+		}
+	}
+
+	private void apply(List<Pending> group, Map<Pending, Object> outcomes) {
+		Set<Long> ids = new HashSet<>();
+		for (Pending pending : group) {
+			ids.add(pending.transaction.getOrigin());
+			ids.add(pending.transaction.getPayee());
+		}
+
+		Map<Long, Account> accounts = new HashMap<>();
+		for (Account account : repository.findAllForUpdate(ids))
+			accounts.put(account.getId(), account);
+
+		Map<Long, Long> balances = new HashMap<>();
+		List<TransactionOperationDto> applied = new ArrayList<>(group.size());
+		for (Pending pending : group) {
+			TransactionOperationDto transaction = pending.transaction;
+			Account origin = accounts.get(transaction.getOrigin());
+			Account payee = accounts.get(transaction.getPayee());
+			if (origin == null || payee == null) {
+				outcomes.put(pending, new AccountNotFoundException(String.format(
+						"Transaction - Account Id: %s was not found",
+						origin == null ? transaction.getOrigin() : transaction.getPayee())));
+				continue;
+			}
+
+			long amount = transaction.getAmountToTransfer();
+			long originBalance = balances.getOrDefault(origin.getId(), origin.getBalance());
+			try {
+				TreasuryRules.validateWithdrawal(origin.getTreasury(), originBalance, amount);
+			} catch (CustomException e) {
+				outcomes.put(pending, e);
+				continue;
+			}
+
+			balances.put(origin.getId(), originBalance - amount);
+			balances.put(payee.getId(), balances.getOrDefault(payee.getId(), payee.getBalance()) + amount);
+			applied.add(transaction);
+			outcomes.put(pending, Account.builder().id(origin.getId()).name(origin.getName())
+					.currency(origin.getCurrency()).balance(originBalance - amount).treasury(origin.getTreasury())
+					.build());
+		}
+
+		balances.forEach((id, balance) -> accounts.get(id).setBalance(balance));
+		journal.transferAll(applied);
+	}
+
+	/**
+	 * Transaction waiting for its group to be committed.
+	 */
+	static final class Pending {
+
+		private final TransactionOperationDto transaction;
+
+		private final CompletableFuture<Account> result;
+
+		Pending(TransactionOperationDto transaction, CompletableFuture<Account> result) {
+			this.transaction = transaction;
+			this.result = result;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package io.accountservice.test.service.transfer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.TreasuryRules;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transfer strategy that applies every transaction on database without taking
+ * row locks. Account version is checked when changes are flushed; on conflict
+ * the whole transaction is retried after a jittered, exponentially growing
+ * delay, up to the configured attempts.
+ *
+ * @author Austr0s
+ */
+public class OptimisticTransferStrategy implements TransferStrategy {
+
+	/**
+	 * AccountRepository to persist on database.
+	 */
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * TransactionTemplate to run each attempt in a new transaction.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * TransferJournal to record every balance change in the same commit.
+	 */
+	@Autowired
+	private TransferJournal journal;
+
+	@Autowired
+	private TransferProperties properties;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Counter attempts;
+
+	private Counter conflicts;
+
+	private Counter exhausted;
+
+	@PostConstruct
+	public void init() {
+		attempts = Counter.builder("account.transfer.optimistic.attempts")
+				.description("Attempts to apply a transaction, retries included").register(meterRegistry);
+		conflicts = Counter.builder("account.transfer.optimistic.conflicts")
+				.description("Attempts rejected because an Account was modified concurrently").register(meterRegistry);
+		exhausted = Counter.builder("account.transfer.optimistic.exhausted")
+				.description("Transactions failed after every attempt conflicted").register(meterRegistry);
+	}
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account, retrying
+	 * while another transaction modifies any of both Accounts meanwhile. Inside a
+	 * transaction of the caller there is one attempt only, as a conflict rolls the
+	 * whole caller transaction back.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException if profile doesn't accept negative balance or every
+	 *                         attempt conflicted.
+	 */
+	@Override
+	public Account transfer(TransactionOperationDto transaction) throws CustomException {
+		int maxAttempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1
+				: Math.max(1, properties.getOptimistic().getMaxAttempts());
+		for (int attempt = 1;; attempt++) {
+			attempts.increment();
+			try {
+				return transactionTemplate.execute(status -> apply(transaction));
+			} catch (OptimisticLockingFailureException e) {
+				conflicts.increment();
+				if (attempt >= maxAttempts) {
+					exhausted.increment();
+					throw new CustomException(
+							"Error Transfer: Account was modified by another transaction. Operation fails");
+				}
+				backoff(attempt);
+			}
+		}
+	}
+
+	private Account apply(TransactionOperationDto transaction) {
+		Account origin = find(transaction.getOrigin());
+		Account payee = find(transaction.getPayee());
+
+		long amount = transaction.getAmountToTransfer();
+		TreasuryRules.validateWithdrawal(origin.getTreasury(), origin.getBalance(), amount);
+
+		origin.setBalance(origin.getBalance() - amount);
+		payee.setBalance(payee.getBalance() + amount);
+		// Version check happens here, inside the attempt, and not on commit.
+		repository.flush();
+		journal.transfer(origin.getId(), payee.getId(), amount);
+
+		return origin;
+	}
+
+	private Account find(Long id) {
+		return repository.findById(id).orElseThrow(
+				() -> new AccountNotFoundException(String.format("Transaction - Account Id: %s was not found", id)));
+	}
+
+	private void backoff(int attempt) {
+		long ceiling = properties.getOptimistic().getBackoff().toMillis() << Math.min(attempt - 1, 10);
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CustomException("Error Transfer: Transaction interrupted. Operation fails");
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package io.accountservice.test.service.transfer;
+
+/**
+ * Engines available to apply transactions between Accounts.
+ *
+ * @author Austr0s
+ */
+public enum TransferMode {
+
+	/**
+	 * Every transaction is applied on database inside its own transaction.
+	 */
+	DATABASE,
+
+	/**
+	 * Balances are held in memory and written to database asynchronously.
+	 */
+	LEDGER,
+
+	/**
+	 * Every transaction is applied on database without locks, checking Account
+	 * version on commit and retrying on conflict.
+	 */
+	OPTIMISTIC,
+
+	/**
+	 * Accounts are split into partitions, each one owned by a single writer thread
+	 * that holds its balances and writes them to database asynchronously.
+	 */
+	PARTITIONED,
+
+	/**
+	 * Transactions of many callers are applied and committed together by one
+	 * committer thread. Callers are answered once their group is committed.
+	 */
+	GROUP_COMMIT
+}
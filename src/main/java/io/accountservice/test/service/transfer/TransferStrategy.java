@@ -0,0 +1,88 @@
+package io.accountservice.test.service.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Strategy to apply transactions between Accounts. Only one implementation is
+ * active, created by TransferStrategyConfig for <code>account.transfer.mode</code>.
+ *
+ * @author Austr0s
+ */
+public interface TransferStrategy {
+
+	/**
+	 * Method to transfer balance from origin Account to payee Account.
+	 *
+	 * @param transaction dto to map values origin account and payee account.
+	 * @return origin account after the transaction.
+	 * @throws CustomException if profile doesn't accept negative balance.
+	 */
+	Account transfer(TransactionOperationDto transaction) throws CustomException;
+
+	/**
+	 * Method to apply many transactions in request order. A rejected transaction,
+	 * or one refused because the strategy is saturated, doesn't stop the following
+	 * ones. By default every transaction is applied on its own.
+	 *
+	 * @param transactions list of transactions to apply.
+	 * @return result of each transaction, in request order.
+	 */
+	default List<TransactionResultDto> transferAll(List<TransactionOperationDto> transactions) {
+		List<TransactionResultDto> results = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			TransactionOperationDto transaction = transactions.get(i);
+			try {
+				transfer(transaction);
+				results.add(new TransactionResultDto(i, transaction, true, null));
+			} catch (CustomException | AccountNotFoundException | TaskRejectedException e) {
+				results.add(new TransactionResultDto(i, transaction, false, e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Method to return the Account with the balance known by this strategy. Used
+	 * by strategies that hold balances outside database.
+	 *
+	 * @param account retrieved from database.
+	 * @return account with the actual balance.
+	 */
+	default Account refresh(Account account) {
+		return account;
+	}
+
+	/**
+	 * Method to return many Accounts with the balance known by this strategy. By
+	 * default every Account is refreshed on its own.
+	 *
+	 * @param accounts retrieved from database.
+	 * @return accounts with the actual balance, in the same order.
+	 */
+	default List<Account> refreshAll(List<Account> accounts) {
+		List<Account> refreshed = new ArrayList<>(accounts.size());
+		for (Account account : accounts)
+			refreshed.add(refresh(account));
+		return refreshed;
+	}
+
+	/**
+	 * Method to forget any state held for an Account that is updated or deleted
+	 * outside this strategy. Called inside the transaction that changes the
+	 * Account, after its statement: strategies holding balances must not reload
+	 * the Account until that transaction has completed.
+	 *
+	 * @param id of the Account.
+	 */
+	default void evict(Long id) {
+	}
+}
@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS ACCOUNT (
+	ID BIGINT PRIMARY KEY,
+	NAME VARCHAR(50) NOT NULL,
+	CURRENCY VARCHAR(5) NOT NULL,
+	BALANCE BIGINT NOT NULL,
+	TREASURY BOOL DEFAULT(FALSE),
+	VERSION BIGINT NOT NULL DEFAULT 0
+);
+
+-- Ids of this shard are sequence values multiplied by the number of shards, plus the shard index.
+CREATE SEQUENCE IF NOT EXISTS ACCOUNT_SHARD_SEQ;
+
+-- Amounts withdrawn on this shard and not yet deposited on payee shard.
+CREATE SEQUENCE IF NOT EXISTS ACCOUNT_OUTBOX_SEQ;
+CREATE TABLE IF NOT EXISTS ACCOUNT_OUTBOX (
+	ID BIGINT PRIMARY KEY,
+	ORIGIN BIGINT NOT NULL,
+	PAYEE BIGINT NOT NULL,
+	AMOUNT BIGINT NOT NULL,
+	CREATED_AT TIMESTAMP NOT NULL
+);
+
+-- Amounts deposited on this shard from an outbox, so a delivery retried is applied once.
+CREATE TABLE IF NOT EXISTS ACCOUNT_INBOX (
+	ORIGIN_SHARD INT NOT NULL,
+	OUTBOX_ID BIGINT NOT NULL,
+	PAYEE BIGINT NOT NULL,
+	AMOUNT BIGINT NOT NULL,
+	CREATED_AT TIMESTAMP NOT NULL,
+	PRIMARY KEY (ORIGIN_SHARD, OUTBOX_ID)
+);
@@ -0,0 +1,63 @@
+package io.accountservice.test.config;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Test class for AccountMetricsAspect against the application context
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class AccountMetricsAspectTest {
+
+	@Autowired
+	private AccountService service;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private long count(String name, String operation, String outcome, String exception) {
+		Timer timer = registry.find(name).tag("operation", operation).tag("outcome", outcome)
+				.tag("exception", exception).timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	/**
+	 * Service call and the repository calls it makes are timed.
+	 */
+	@Test
+	public void testTimeSuccess() {
+		long services = count(AccountMetricsAspect.SERVICE_TIMER, "findOne", "SUCCESS", "none");
+		long repositories = count(AccountMetricsAspect.REPOSITORY_TIMER, "findById", "SUCCESS", "none");
+
+		service.findOne(1L);
+
+		assertEquals(services + 1, count(AccountMetricsAspect.SERVICE_TIMER, "findOne", "SUCCESS", "none"));
+		assertTrue(count(AccountMetricsAspect.REPOSITORY_TIMER, "findById", "SUCCESS", "none") > repositories);
+	}
+
+	/**
+	 * Failed call is timed with ERROR outcome and its exception type.
+	 */
+	@Test
+	public void testTimeError() {
+		long before = count(AccountMetricsAspect.SERVICE_TIMER, "delete", "ERROR", "AccountNotFoundException");
+
+		assertThatThrownBy(() -> service.delete(Long.MAX_VALUE)).isInstanceOf(AccountNotFoundException.class);
+
+		assertEquals(before + 1,
+				count(AccountMetricsAspect.SERVICE_TIMER, "delete", "ERROR", "AccountNotFoundException"));
+	}
+
+}
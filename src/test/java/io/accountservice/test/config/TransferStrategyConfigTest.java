@@ -0,0 +1,33 @@
+package io.accountservice.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.service.transfer.GroupCommitTransferStrategy;
+import io.accountservice.test.service.transfer.TransferStrategy;
+
+/**
+ * Test class for TransferStrategyConfig against the application context. The
+ * mode is bound from an underscore spelling on purpose.
+ *
+ * @author Austr0s
+ */
+@SpringBootTest(properties = "account.transfer.mode=group_commit")
+public class TransferStrategyConfigTest {
+
+	@Autowired
+	private TransferStrategy transferStrategy;
+
+	/**
+	 * {@link TransferStrategyConfig#transferStrategy(TransferProperties)}
+	 */
+	@Test
+	public void testGroupCommitMode() {
+		assertTrue(AopUtils.getTargetClass(transferStrategy) == GroupCommitTransferStrategy.class);
+	}
+
+}
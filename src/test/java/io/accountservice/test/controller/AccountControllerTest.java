@@ -1,33 +1,48 @@
 package io.accountservice.test.controller;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
+import io.accountservice.test.config.WebExecutionProperties;
+import io.accountservice.test.exception.account.AccountNotFoundException;
 import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
 import io.accountservice.test.model.entity.Account;
 import io.accountservice.test.service.AccountService;
+import io.accountservice.test.service.idempotency.IdempotencyService;
 
 /**
  * AccountController Layer Test.
@@ -35,6 +50,7 @@ import io.accountservice.test.service.AccountService;
  * @author nit0
  */
 @WebMvcTest(AccountController.class)
+@Import({ AccountRequestExecutor.class, WebExecutionProperties.class })
 @ActiveProfiles("test")
 public class AccountControllerTest {
 
@@ -46,14 +62,31 @@ public class AccountControllerTest {
 
 	@MockBean
 	private AccountService service;
+
+	@MockBean
+	private IdempotencyService idempotencyService;
+
+	/**
+	 * Private method to perform a request, dispatching its result when the handler
+	 * completed asynchronously.
+	 * 
+	 * @param builder request to perform.
+	 * @return actions on the final result.
+	 * @throws Exception
+	 */
+	private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+		ResultActions actions = mockMvc.perform(builder);
+		MvcResult result = actions.andReturn();
+		return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+	}
 	
 	@Test
 	public void testGetOne() throws Exception {
-		Account account = new Account(1L, "TEST", "EUR", Double.valueOf(5000), Boolean.FALSE);
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
 		
 		Mockito.when(service.findOne(1L)).thenReturn(Optional.of(account));
 		
-		mockMvc.perform(MockMvcRequestBuilders.get("/accounts/1")
+		perform(MockMvcRequestBuilders.get("/accounts/1")
 				.contentType(MediaType.APPLICATION_JSON)
 				.characterEncoding("UTF-8"))
 				.andExpect(status().isOk())
@@ -61,18 +94,19 @@ public class AccountControllerTest {
 				.andExpect(jsonPath("$.name", is("TEST")))
 				.andExpect(jsonPath("$.currency", is("EUR")))
 				.andExpect(jsonPath("$.balance", is(5000.0)))
-				.andExpect(jsonPath("$.treasury", is(false)));
+				.andExpect(jsonPath("$.treasury", is(false)))
+				.andExpect(jsonPath("$._links.self.href", is("http://localhost/accounts/1")));
 	}
 	
 	@Test
 	public void testGetAll() throws Exception {
-		Account account1 = new Account(1L, "TEST", "EUR", Double.valueOf(5000), Boolean.FALSE);
-		Account account2 = new Account(2L, "TEST2", "EUR", Double.valueOf(-1500), Boolean.TRUE);
+		Account account1 = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		Account account2 = new Account(2L, "TEST2", "EUR", Long.valueOf(-150000), Boolean.TRUE, 0L);
 		List<Account> accountList = Arrays.asList(account1, account2);
 		
 		Mockito.when(service.findAll()).thenReturn(accountList);
 		
-		mockMvc.perform(MockMvcRequestBuilders.get("/accounts")
+		perform(MockMvcRequestBuilders.get("/accounts")
 				.contentType(MediaType.APPLICATION_JSON)
 				.characterEncoding("UTF-8"))
 				.andExpect(status().isOk())
@@ -90,13 +124,132 @@ public class AccountControllerTest {
 				.andExpect(jsonPath("$._embedded.accountList[1].treasury", is(true)));
 	}
 
+	@Test
+	public void testGetAllCompact() throws Exception {
+		Account account1 = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		Account account2 = new Account(2L, "TEST2", "EUR", Long.valueOf(-150000), Boolean.TRUE, 0L);
+		
+		Mockito.when(service.findAll()).thenReturn(Arrays.asList(account1, account2));
+		
+		perform(MockMvcRequestBuilders.get("/accounts/compact")
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id", is(1)))
+				.andExpect(jsonPath("$[0].balance", is(5000.0)))
+				.andExpect(jsonPath("$[0]._links").doesNotExist())
+				.andExpect(jsonPath("$[1].id", is(2)))
+				.andExpect(jsonPath("$[1].balance", is(-1500.0)));
+	}
+
+	@Test
+	public void testGetOneSmile() throws Exception {
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		
+		Mockito.when(service.findOne(1L)).thenReturn(Optional.of(account));
+		
+		MvcResult result = perform(MockMvcRequestBuilders.get("/accounts/1")
+				.accept(AccountController.APPLICATION_SMILE_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(AccountController.APPLICATION_SMILE_VALUE))
+				.andReturn();
+		
+		JsonNode body = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+		assertEquals(1, body.get("id").asInt());
+		assertEquals("TEST", body.get("name").asText());
+		assertEquals(new BigDecimal("5000.00"), body.get("balance").decimalValue());
+		assertEquals("http://localhost/accounts/1", body.at("/_links/self/href").asText());
+	}
+
+	@Test
+	public void testTransactionSmile() throws Exception {
+		ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+		TransactionOperationDto transaction = new TransactionOperationDto(1L, 2L, Long.valueOf(200000));
+		Account originReturn = new Account(1L, "Test Name", "EUR", Long.valueOf(300000), Boolean.FALSE, 0L);
+		Mockito.when(service.transference(transaction)).thenReturn(Optional.of(originReturn));
+		
+		MvcResult result = perform(MockMvcRequestBuilders.post("/accounts/{originId}/payee/{payeeId}", 1L, 2L)
+				.contentType(AccountController.APPLICATION_SMILE_VALUE)
+				.accept(AccountController.APPLICATION_SMILE_VALUE)
+				.content(smileMapper.writeValueAsBytes(transaction)))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		JsonNode body = smileMapper.readTree(result.getResponse().getContentAsByteArray());
+		assertEquals(new BigDecimal("3000.00"), body.get("balance").decimalValue());
+	}
+
+	@Test
+	public void testGetOneSmileNotFound() throws Exception {
+		Mockito.when(service.findOne(1L)).thenReturn(Optional.empty());
+		
+		MvcResult result = perform(MockMvcRequestBuilders.get("/accounts/1")
+				.accept(AccountController.APPLICATION_SMILE_VALUE))
+				.andExpect(status().isNotFound())
+				.andReturn();
+		
+		JsonNode body = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+		assertEquals("Get One Account Id: 1 was not found", body.get("message").asText());
+	}
+
+	@Test
+	public void testGetAllPage() throws Exception {
+		Account account1 = new Account(3L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		Account account2 = new Account(4L, "TEST2", "EUR", Long.valueOf(-150000), Boolean.TRUE, 0L);
+		
+		Mockito.when(service.findPage(2L, 2)).thenReturn(Arrays.asList(account1, account2));
+		
+		perform(MockMvcRequestBuilders.get("/accounts")
+				.param("after", "2")
+				.param("size", "2")
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$._embedded.accountList[0].id", is(3)))
+				.andExpect(jsonPath("$._embedded.accountList[1].id", is(4)))
+				.andExpect(jsonPath("$._links.next.href", containsString("after=4")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testStream() throws Exception {
+		Account account1 = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		Account account2 = new Account(2L, "TEST2", "EUR", Long.valueOf(-150000), Boolean.TRUE, 0L);
+
+		Mockito.doAnswer(invocation -> {
+			Consumer<Account> consumer = invocation.getArgument(0);
+			consumer.accept(account1);
+			consumer.accept(account2);
+			return null;
+		}).when(service).streamAll(Mockito.any(Consumer.class));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/accounts/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("\"name\":\"TEST\"")))
+				.andExpect(content().string(containsString("\"name\":\"TEST2\"")));
+	}
+
+	@Test
+	public void testStreamEmpty() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/accounts/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(""));
+	}
+
 	@Test
 	public void testCreate() throws Exception {
-		Account account = new Account(1L, "TEST", "EUR", Double.valueOf(5000), Boolean.FALSE);
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
 		
 		Mockito.when(service.create(account)).thenReturn(Optional.of(account));
 		
-		mockMvc.perform(MockMvcRequestBuilders.post("/accounts")
+		perform(MockMvcRequestBuilders.post("/accounts")
 				.contentType(MediaType.APPLICATION_JSON)
 				.characterEncoding("UTF-8")
 				.content(mapper.writeValueAsString(account)))
@@ -110,10 +263,9 @@ public class AccountControllerTest {
 	
 	@Test
 	public void testUpdate() throws Exception {
-		Account account = new Account(1L, "TEST", "EUR", Double.valueOf(5000), Boolean.FALSE);
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
 		
 		Mockito.when(service.update(account)).thenReturn(account);
-		Mockito.when(service.findOne(1L)).thenReturn(Optional.of(account));
 		
 		MockHttpServletRequestBuilder builder = MockMvcRequestBuilders
 				.put("/accounts/{id}", 1L)
@@ -122,7 +274,7 @@ public class AccountControllerTest {
 				.characterEncoding("UTF-8")
 				.content(mapper.writeValueAsBytes(account));
 		
-		mockMvc.perform(builder).andExpect(status()
+		perform(builder).andExpect(status()
 				.isAccepted())
 				.andExpect(jsonPath("$.id", is(1)))
 				.andExpect(jsonPath("$.name", is("TEST")))
@@ -133,26 +285,32 @@ public class AccountControllerTest {
 	
 	@Test
 	public void testDelete() throws Exception {
-		Account account = new Account(1L, "TEST", "EUR", Double.valueOf(5000), Boolean.FALSE);
+		Mockito.doNothing().when(service).delete(1L);
 
-		AccountService serviceSpy = Mockito.spy(service);
-		when(service.findOne(1L)).thenReturn(Optional.of(account));
-		Mockito.doNothing().when(serviceSpy).delete(account);
-
-		mockMvc.perform(MockMvcRequestBuilders.delete("/accounts/{id}", 1L)
+		perform(MockMvcRequestBuilders.delete("/accounts/{id}", 1L)
 				.contentType(MediaType.APPLICATION_JSON))
 				.andExpect(status().isNoContent());
 
-		verify(service, times(1)).delete(account);
+		verify(service, times(1)).delete(1L);
+	}
+
+	@Test
+	public void testDeleteNotFound() throws Exception {
+		Mockito.doThrow(new AccountNotFoundException("Delete Account Id: 1 was not found")).when(service).delete(1L);
+
+		perform(MockMvcRequestBuilders.delete("/accounts/{id}", 1L)
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.message", is("Delete Account Id: 1 was not found")));
 	}
 
 	@Test
 	public void testTransaction() throws JsonProcessingException, Exception {
-		TransactionOperationDto transaction = new TransactionOperationDto(1L,2L,Double.valueOf(2000));
-		Account originReturn = new Account(1L, "Test Name", "EUR", Double.valueOf(3000), Boolean.FALSE);
+		TransactionOperationDto transaction = new TransactionOperationDto(1L,2L,Long.valueOf(200000));
+		Account originReturn = new Account(1L, "Test Name", "EUR", Long.valueOf(300000), Boolean.FALSE, 0L);
 		Mockito.when(service.transference(transaction)).thenReturn(Optional.of(originReturn));
 		
-		mockMvc.perform(MockMvcRequestBuilders.post("/accounts/{originId}/payee/{payeeId}", 1L, 2L)
+		perform(MockMvcRequestBuilders.post("/accounts/{originId}/payee/{payeeId}", 1L, 2L)
 				.contentType(MediaType.APPLICATION_JSON)
 				.characterEncoding("UTF-8")
 				.content(mapper.writeValueAsString(transaction)))
@@ -164,4 +322,63 @@ public class AccountControllerTest {
 				.andExpect(jsonPath("$.treasury", is(false)));
 	}
 
+	@Test
+	public void testTransactionIdempotencyKey() throws Exception {
+		TransactionOperationDto transaction = new TransactionOperationDto(1L, 2L, Long.valueOf(200000));
+		Account originReturn = new Account(1L, "Test Name", "EUR", Long.valueOf(300000), Boolean.FALSE, 0L);
+		Mockito.when(idempotencyService.execute(Mockito.eq("key-1"), Mockito.any(), Mockito.any()))
+				.thenReturn(originReturn);
+
+		perform(MockMvcRequestBuilders.post("/accounts/{originId}/payee/{payeeId}", 1L, 2L)
+				.header(AccountController.IDEMPOTENCY_KEY_HEADER, "key-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(mapper.writeValueAsString(transaction)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id", is(1)))
+				.andExpect(jsonPath("$.balance", is(3000.0)));
+
+		verify(service, times(0)).transference(Mockito.any());
+	}
+
+	@Test
+	public void testTransactionBatch() throws Exception {
+		List<TransactionOperationDto> transactions = Arrays.asList(
+				new TransactionOperationDto(1L, 2L, Long.valueOf(200000)),
+				new TransactionOperationDto(3L, 2L, Long.valueOf(900000)));
+		List<TransactionResultDto> results = Arrays.asList(
+				new TransactionResultDto(0, transactions.get(0), true, null),
+				new TransactionResultDto(1, transactions.get(1), false, "Error Transfer"));
+		Mockito.when(service.transferenceBatch(Mockito.anyList())).thenReturn(results);
+
+		perform(MockMvcRequestBuilders.post("/accounts/transactions")
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(mapper.writeValueAsString(transactions)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].index", is(0)))
+				.andExpect(jsonPath("$[0].amountToTransfer", is(2000.0)))
+				.andExpect(jsonPath("$[0].currency", is("EUR")))
+				.andExpect(jsonPath("$[0].success", is(true)))
+				.andExpect(jsonPath("$[1].index", is(1)))
+				.andExpect(jsonPath("$[1].origin", is(3)))
+				.andExpect(jsonPath("$[1].success", is(false)))
+				.andExpect(jsonPath("$[1].message", is("Error Transfer")));
+	}
+
+	@Test
+	public void testTransactionBatchInvalidElement() throws Exception {
+		String transactions = "[{\"origin\":1,\"payee\":2,\"amountToTransfer\":10.00},"
+				+ "{\"payee\":2,\"amountToTransfer\":10.00}]";
+
+		perform(MockMvcRequestBuilders.post("/accounts/transactions")
+				.contentType(MediaType.APPLICATION_JSON)
+				.characterEncoding("UTF-8")
+				.content(transactions))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message", containsString("origin")));
+
+		verify(service, times(0)).transferenceBatch(Mockito.anyList());
+	}
+
 }
@@ -0,0 +1,77 @@
+package io.accountservice.test.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.accountservice.test.config.WebExecutionProperties;
+
+/**
+ * Test class for AccountRequestExecutor logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class AccountRequestExecutorTest {
+
+	@Spy
+	private WebExecutionProperties properties = new WebExecutionProperties();
+
+	@InjectMocks
+	private AccountRequestExecutor executor;
+
+	@AfterEach
+	public void tearDown() {
+		executor.stop();
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	/**
+	 * {@link AccountRequestExecutor#submit(java.util.function.Supplier)}
+	 */
+	@Test
+	public void testSubmitBlocking() {
+		executor.start();
+
+		CompletableFuture<String> result = executor.submit(() -> Thread.currentThread().getName());
+
+		assertTrue(result.isDone());
+		assertEquals(Thread.currentThread().getName(), result.join());
+	}
+
+	/**
+	 * Handler runs on a request thread and still sees the current request.
+	 *
+	 * {@link AccountRequestExecutor#submit(java.util.function.Supplier)}
+	 */
+	@Test
+	public void testSubmitAsync() {
+		properties.setMode(ExecutionMode.ASYNC);
+		properties.getAsync().setPoolSize(1);
+		executor.start();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/1");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		String thread = executor.submit(() -> Thread.currentThread().getName()).join();
+		Object uri = executor
+				.submit(() -> ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+						.getRequestURI())
+				.join();
+
+		assertNotEquals(Thread.currentThread().getName(), thread);
+		assertTrue(thread.startsWith("account-request-"));
+		assertEquals("/accounts/1", uri);
+	}
+
+}
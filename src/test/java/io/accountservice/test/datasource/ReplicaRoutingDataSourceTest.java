@@ -0,0 +1,91 @@
+package io.accountservice.test.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Test class for ReplicaRoutingDataSource logic
+ *
+ * @author Austr0s
+ */
+public class ReplicaRoutingDataSourceTest {
+
+	private ReplicaRoutingDataSource routing;
+
+	@BeforeEach
+	public void setUp() {
+		routing = new ReplicaRoutingDataSource(mock(DataSource.class),
+				Arrays.asList(mock(HikariDataSource.class), mock(HikariDataSource.class)), Duration.ofSeconds(1));
+		routing.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ReplicaReadContext.clear();
+	}
+
+	/**
+	 * Transactions that may write always go to primary.
+	 */
+	@Test
+	public void testReadWriteGoesToPrimary() {
+		routing.caughtUp(0, System.currentTimeMillis());
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+		assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	/**
+	 * Only the replica that has caught up is read.
+	 */
+	@Test
+	public void testReadOnlyGoesToFreshReplica() {
+		routing.caughtUp(0, System.currentTimeMillis() - 5000);
+		routing.caughtUp(1, System.currentTimeMillis());
+
+		assertEquals(1, routing.determineCurrentLookupKey());
+		assertEquals(1, routing.determineCurrentLookupKey());
+	}
+
+	/**
+	 * Replicas lagging more than max staleness aren't read.
+	 */
+	@Test
+	public void testStaleReplicasFallBackToPrimary() {
+		routing.caughtUp(0, System.currentTimeMillis() - 5000);
+
+		assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	/**
+	 * A replica within max staleness but without the change just written isn't
+	 * read.
+	 */
+	@Test
+	public void testReadYourWrites() {
+		long now = System.currentTimeMillis();
+		routing.caughtUp(0, now - 100);
+		routing.caughtUp(1, now - 100);
+		ReplicaReadContext.requireWrittenAfter(now);
+
+		assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+		routing.caughtUp(0, now);
+		assertEquals(0, routing.determineCurrentLookupKey());
+	}
+
+}
@@ -0,0 +1,62 @@
+package io.accountservice.test.model.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Test class for AccountSerializer output
+ *
+ * @author Austr0s
+ */
+public class AccountSerializerTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testSerializeCompact() throws JsonProcessingException {
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500010), Boolean.FALSE, 3L);
+
+		assertEquals("{\"id\":1,\"name\":\"TEST\",\"currency\":\"EUR\",\"balance\":5000.10,\"treasury\":false,\"version\":3}",
+				mapper.writeValueAsString(account));
+	}
+
+	@Test
+	public void testSerializeHalLinks() throws JsonProcessingException {
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(-150000), Boolean.TRUE, 0L);
+		account.add(new Link("http://localhost/api/v1/accounts/1"));
+
+		assertEquals("{\"id\":1,\"name\":\"TEST\",\"currency\":\"EUR\",\"balance\":-1500.00,\"treasury\":true,\"version\":0,"
+				+ "\"_links\":{\"self\":{\"href\":\"http://localhost/api/v1/accounts/1\"}}}",
+				mapper.writeValueAsString(account));
+	}
+
+	/**
+	 * Output is the same whether Accounts are written by the HAL ObjectMapper or
+	 * a plain one.
+	 */
+	@Test
+	public void testSerializeWithHalModule() throws JsonProcessingException {
+		ObjectMapper halMapper = new ObjectMapper().registerModule(new Jackson2HalModule());
+		Account account = new Account(1L, "TEST", "EUR", Long.valueOf(500000), Boolean.FALSE, 0L);
+		account.add(new Link("http://localhost/api/v1/accounts/1"));
+
+		assertEquals(mapper.writeValueAsString(account), halMapper.writeValueAsString(account));
+	}
+
+	@Test
+	public void testSerializeNulls() throws JsonProcessingException {
+		Account account = new Account();
+
+		assertEquals("{\"id\":null,\"name\":null,\"currency\":null,\"balance\":null,\"treasury\":null,\"version\":null}",
+				mapper.writeValueAsString(account));
+	}
+
+}
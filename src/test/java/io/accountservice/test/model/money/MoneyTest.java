@@ -0,0 +1,42 @@
+package io.accountservice.test.model.money;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for Money conversions
+ *
+ * @author Austr0s
+ */
+public class MoneyTest {
+
+	@Test
+	public void testToMinorUnits() {
+		assertEquals(Long.valueOf(150025), Money.toMinorUnits(new BigDecimal("1500.25"), "EUR"));
+		assertEquals(Long.valueOf(-500000), Money.toMinorUnits(new BigDecimal("-5000"), "EUR"));
+		assertEquals(Long.valueOf(1500), Money.toMinorUnits(new BigDecimal("1500"), "JPY"));
+	}
+
+	/**
+	 * This test must fail because EUR only has two decimals and amount can't be
+	 * rounded.
+	 */
+	@Test
+	public void testToMinorUnitsTooManyDecimals() {
+		assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("0.001"), "EUR")) //
+				.isInstanceOf(IllegalArgumentException.class) //
+				.hasMessage("Amount 0.001 isn't a valid EUR amount");
+	}
+
+	@Test
+	public void testToDecimal() {
+		assertEquals(new BigDecimal("0.10"), Money.toDecimal(10, "EUR"));
+		assertEquals(new BigDecimal("1500"), Money.toDecimal(1500, "JPY"));
+		assertEquals(new BigDecimal("0.30"),
+				Money.toDecimal(Money.toMinorUnits(new BigDecimal("0.1"), "EUR") * 3, "EUR"));
+	}
+}
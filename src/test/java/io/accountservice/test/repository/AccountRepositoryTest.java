@@ -1,5 +1,6 @@
 package io.accountservice.test.repository;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.accountservice.test.model.entity.Account;
 
@@ -41,7 +43,7 @@ public class AccountRepositoryTest {
 	@Test
 	public void testSave() {
 		Account input = new Account();
-		input.setBalance(Double.valueOf(-1000));
+		input.setBalance(Long.valueOf(-100000));
 		input.setName("Test Name");
 		input.setCurrency("EUR");
 		input.setTreasury(Boolean.TRUE);
@@ -53,7 +55,7 @@ public class AccountRepositoryTest {
 	@Test
 	public void testDelete() {
 		Account input = new Account();
-		input.setBalance(Double.valueOf(5000));
+		input.setBalance(Long.valueOf(500000));
 		input.setName("Test Name");
 		input.setCurrency("EUR");
 		input.setTreasury(Boolean.FALSE);
@@ -66,4 +68,20 @@ public class AccountRepositoryTest {
 		
 	}
 
+
+	@Test
+	@Transactional
+	public void testUpdateNullTreasury() {
+		Account input = new Account();
+		input.setBalance(Long.valueOf(500000));
+		input.setName("Test Name");
+		input.setCurrency("EUR");
+
+		Account actual = repository.saveAndFlush(input);
+		assertEquals(1, repository.updateIfTreasuryUnchanged(actual.getId(), "Other Name", "EUR",
+				Long.valueOf(300000), Boolean.FALSE));
+		assertEquals(0, repository.updateIfTreasuryUnchanged(actual.getId(), "Other Name", "EUR",
+				Long.valueOf(300000), Boolean.TRUE));
+	}
+
 }
@@ -0,0 +1,119 @@
+package io.accountservice.test.service.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.accountservice.test.config.ExportProperties;
+import io.accountservice.test.model.dto.ExportFileDto;
+
+/**
+ * Test class for AccountExporter against the test database
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class AccountExporterTest {
+
+	@Autowired
+	private AccountExporter exporter;
+
+	@Autowired
+	private ExportProperties properties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	private List<String> lines(InputStream in) throws IOException {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8))) {
+			return reader.lines().collect(Collectors.toList());
+		}
+	}
+
+	private long count() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ACCOUNT", Long.class);
+	}
+
+	/**
+	 * {@link AccountExporter#export(ExportFormat, java.io.OutputStream)}
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportCsv() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = exporter.export(ExportFormat.CSV, out);
+
+		List<String> lines = lines(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(count(), rows);
+		assertEquals(rows + 1, lines.size());
+		assertEquals("id,name,currency,balance,treasury,version", lines.get(0));
+		assertTrue(lines.get(1).startsWith("1,"));
+	}
+
+	/**
+	 * {@link AccountExporter#export(ExportFormat, java.io.OutputStream)}
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportNdjson() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = exporter.export(ExportFormat.NDJSON, out);
+
+		List<String> lines = lines(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(rows, lines.size());
+		JsonNode first = mapper.readTree(lines.get(0));
+		assertEquals(1, first.get("id").asInt());
+		assertFalse(first.has("_links"));
+	}
+
+	/**
+	 * {@link AccountExporter#exportToFile(ExportFormat)}
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportToFile() throws IOException {
+		Path directory = Files.createTempDirectory("account-export");
+		properties.setDirectory(directory.toString());
+
+		ExportFileDto file = exporter.exportToFile(ExportFormat.CSV);
+
+		Path path = Paths.get(file.getFile());
+		assertEquals(directory, path.getParent());
+		assertTrue(path.getFileName().toString().endsWith(".csv.gz"));
+		assertEquals(Files.size(path), file.getBytes());
+		try (InputStream in = Files.newInputStream(path)) {
+			assertEquals(file.getRows() + 1, lines(in).size());
+		}
+		assertEquals(1, Files.list(directory).count());
+	}
+
+}
@@ -0,0 +1,193 @@
+package io.accountservice.test.service.hot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.accountservice.test.config.HotAccountProperties;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+
+/**
+ * Test class for HotAccountSlots logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class HotAccountSlotsTest {
+
+	/**
+	 * JdbcTemplate Mock
+	 */
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * AccountRepository Mock
+	 */
+	@Mock
+	private AccountRepository repository;
+
+	/**
+	 * HotAccountProperties Spy. Account 1 is hot with 4 slots.
+	 */
+	@Spy
+	private HotAccountProperties properties = new HotAccountProperties();
+
+	/**
+	 * HotAccountSlots InjectMock. Slots to Test with Mockito.
+	 */
+	@InjectMocks
+	private HotAccountSlots slots;
+
+	@BeforeEach
+	public void setUp() {
+		properties.setAccounts(new HashSet<>(Arrays.asList(1L)));
+		properties.setSlots(4);
+	}
+
+	private void lockAccount(long balance, boolean treasury) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("BALANCE", balance);
+		row.put("TREASURY", treasury);
+		when(jdbcTemplate.queryForList(startsWith("SELECT BALANCE, TREASURY"), eq(1L)))
+				.thenReturn(Collections.singletonList(row));
+	}
+
+	/**
+	 * Withdrawal paid by the slot picked doesn't lock the Account.
+	 *
+	 * {@link HotAccountSlots#withdraw(Long, long)}
+	 */
+	@Test
+	public void testWithdrawFromSlot() {
+		when(jdbcTemplate.update(startsWith("UPDATE ACCOUNT_SLOT SET BALANCE = BALANCE -"), eq(300L), eq(1L), anyInt(),
+				eq(300L))).thenReturn(1);
+
+		assertTrue(slots.withdraw(1L, 300L));
+
+		verify(jdbcTemplate, never()).queryForList(anyString(), eq(1L));
+		verify(repository, never()).deposit(anyLong(), anyLong());
+	}
+
+	/**
+	 * Slot picked can't pay, so the whole balance pays and the rest is spread
+	 * over every slot.
+	 *
+	 * {@link HotAccountSlots#withdraw(Long, long)}
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testWithdrawRebalance() {
+		lockAccount(1000L, false);
+		when(jdbcTemplate.queryForList(startsWith("SELECT BALANCE FROM ACCOUNT_SLOT"), eq(Long.class), eq(1L)))
+				.thenReturn(Arrays.asList(100L, 0L, 3L));
+
+		assertTrue(slots.withdraw(1L, 300L));
+
+		ArgumentCaptor<List<Object[]>> inserted = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO ACCOUNT_SLOT"), inserted.capture());
+		assertEquals(4, inserted.getValue().size());
+		assertEquals(203L, inserted.getValue().get(0)[2]);
+		assertEquals(200L, inserted.getValue().get(3)[2]);
+		verify(repository, times(1)).deposit(1L, -1000L);
+	}
+
+	/**
+	 * This test must fail because the whole balance of a non Treasury Account
+	 * can't pay the withdrawal. Nothing is written.
+	 *
+	 * {@link HotAccountSlots#withdraw(Long, long)}
+	 */
+	@Test
+	public void testWithdrawNegativeBalance() {
+		lockAccount(100L, false);
+		when(jdbcTemplate.queryForList(startsWith("SELECT BALANCE FROM ACCOUNT_SLOT"), eq(Long.class), eq(1L)))
+				.thenReturn(Arrays.asList(50L, 50L));
+
+		assertFalse(slots.withdraw(1L, 300L));
+
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+		verify(repository, never()).deposit(anyLong(), anyLong());
+	}
+
+	/**
+	 * Deposit to an Account deleted meanwhile must fail.
+	 *
+	 * {@link HotAccountSlots#deposit(Long, long)}
+	 */
+	@Test
+	public void testDepositNotFound() {
+		when(jdbcTemplate.queryForList(startsWith("SELECT BALANCE, TREASURY"), eq(1L)))
+				.thenReturn(Collections.emptyList());
+
+		assertFalse(slots.deposit(1L, 300L));
+	}
+
+	/**
+	 * {@link HotAccountSlots#refresh(Account)}
+	 */
+	@Test
+	public void testRefresh() {
+		Account hot = Account.builder().id(1L).name("HOT").currency("EUR").balance(-500000L).treasury(true)
+				.version(3L).build();
+		Account cold = Account.builder().id(2L).name("COLD").currency("EUR").balance(500000L).treasury(false)
+				.version(0L).build();
+		when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(SUM(BALANCE), 0)"), eq(Long.class), eq(1L)))
+				.thenReturn(-20000L);
+
+		assertEquals(Long.valueOf(-520000L), slots.refresh(hot).getBalance());
+		assertEquals(Long.valueOf(-500000L), hot.getBalance());
+		assertSame(cold, slots.refresh(cold));
+	}
+
+	/**
+	 * {@link HotAccountSlots#refreshAll(List)}
+	 */
+	@Test
+	public void testRefreshAll() {
+		Account hot = Account.builder().id(1L).name("HOT").currency("EUR").balance(-500000L).treasury(true)
+				.version(3L).build();
+		Account cold = Account.builder().id(2L).name("COLD").currency("EUR").balance(500000L).treasury(false)
+				.version(0L).build();
+		Map<String, Object> row = new HashMap<>();
+		row.put("ACCOUNT_ID", 1L);
+		row.put("BALANCE", -20000L);
+		when(jdbcTemplate.queryForList(startsWith("SELECT ACCOUNT_ID, SUM(BALANCE)"), eq(1L)))
+				.thenReturn(Collections.singletonList(row));
+
+		List<Account> refreshed = slots.refreshAll(Arrays.asList(cold, hot));
+
+		assertSame(cold, refreshed.get(0));
+		assertEquals(Long.valueOf(-520000L), refreshed.get(1).getBalance());
+		verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), anyLong());
+	}
+
+}
@@ -0,0 +1,131 @@
+package io.accountservice.test.service.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.IdempotencyProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Test class for IdempotencyService logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class IdempotencyServiceTest {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private IdempotencyProperties properties = new IdempotencyProperties();
+
+	@InjectMocks
+	private IdempotencyService idempotencyService;
+
+	private final AtomicInteger transfers = new AtomicInteger();
+
+	@BeforeEach
+	public void setUp() {
+		properties.setPurgeInterval(Duration.ofHours(1));
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		idempotencyService.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		idempotencyService.stop();
+	}
+
+	private Account transfer() {
+		transfers.incrementAndGet();
+		return Account.builder().id(1L).name("TEST").currency("EUR").balance(Long.valueOf(300000))
+				.treasury(Boolean.FALSE).version(1L).build();
+	}
+
+	/**
+	 * A retry with the same key gets the first result without applying the
+	 * transaction again.
+	 *
+	 * {@link IdempotencyService#execute(String, TransactionOperationDto, java.util.function.Supplier)}
+	 */
+	@Test
+	public void testExecuteOnce() {
+		TransactionOperationDto transaction = new TransactionOperationDto(1L, 2L, Long.valueOf(200000));
+
+		Account first = idempotencyService.execute("key-1", transaction, this::transfer);
+		Account retry = idempotencyService.execute("key-1", transaction, this::transfer);
+
+		assertEquals(1, transfers.get());
+		assertEquals(Long.valueOf(300000), retry.getBalance());
+		assertNotSame(first, retry);
+		verify(jdbcTemplate, times(1)).update(anyString(), eq("key-1"), anyString(), any());
+	}
+
+	/**
+	 * This test must fail because the key was used with a different transaction.
+	 *
+	 * {@link IdempotencyService#execute(String, TransactionOperationDto, java.util.function.Supplier)}
+	 */
+	@Test
+	public void testExecuteDifferentTransactionException() {
+		idempotencyService.execute("key-2", new TransactionOperationDto(1L, 2L, Long.valueOf(200000)),
+				this::transfer);
+
+		assertThatThrownBy(() -> idempotencyService.execute("key-2",
+				new TransactionOperationDto(1L, 2L, Long.valueOf(100)), this::transfer)) //
+						.isInstanceOf(CustomException.class) //
+						.hasMessage("Idempotency-Key key-2 was already used with a different transaction");
+
+		assertEquals(1, transfers.get());
+	}
+
+	/**
+	 * A transaction that fails rolls its claim back, and no result is stored.
+	 *
+	 * {@link IdempotencyService#execute(String, TransactionOperationDto, java.util.function.Supplier)}
+	 */
+	@Test
+	public void testExecuteFailureRollsBack() {
+		TransactionOperationDto transaction = new TransactionOperationDto(1L, 2L, Long.valueOf(200000));
+
+		assertThatThrownBy(() -> idempotencyService.execute("key-3", transaction, () -> {
+			throw new CustomException("Error Transfer");
+		})).isInstanceOf(CustomException.class);
+
+		verify(transactionTemplate, times(1)).execute(any());
+		verify(jdbcTemplate, never()).update(anyString(), any(), any(), any(), any(), any(), any(), eq("key-3"));
+
+		idempotencyService.execute("key-3", transaction, this::transfer);
+		assertEquals(1, transfers.get());
+	}
+
+}
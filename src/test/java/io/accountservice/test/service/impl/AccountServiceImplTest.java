@@ -2,7 +2,9 @@ package io.accountservice.test.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,8 +13,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Supplier;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -21,8 +26,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import io.accountservice.test.exception.CustomException;
 import io.accountservice.test.exception.account.AccountNotFoundException;
 import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
 import io.accountservice.test.model.entity.Account;
 import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.accountservice.test.service.replica.ReplicaReads;
+import io.accountservice.test.service.transfer.TransferStrategy;
 import net.bytebuddy.utility.RandomString;
 
 /**
@@ -39,12 +48,36 @@ public class AccountServiceImplTest {
 	@Mock
 	private AccountRepository repository;
 
+	/**
+	 * TransferStrategy Mock. Default methods keep their real behaviour.
+	 */
+	@Mock(answer = Answers.CALLS_REAL_METHODS)
+	private TransferStrategy transferStrategy;
+
+	/**
+	 * TransferJournal Mock
+	 */
+	@Mock
+	private TransferJournal journal;
+
+	/**
+	 * ReplicaReads Mock. Reads run as they are.
+	 */
+	@Mock
+	private ReplicaReads replicaReads;
+
 	/**
 	 * AccountServiceImpl InjectMock. Service to Test with Mockito.
 	 */
 	@InjectMocks
 	private AccountServiceImpl service;
 
+	@BeforeEach
+	public void setUp() {
+		when(replicaReads.read(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+		when(replicaReads.read(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+	}
+
 	/**
 	 * Private method to return random Long value.
 	 * 
@@ -105,7 +138,7 @@ public class AccountServiceImplTest {
 	@Test
 	public void testCreateException() throws CustomException {
 		Account entity = mock(Account.class);
-		when(entity.getBalance()).thenReturn(Double.valueOf(-5000));
+		when(entity.getBalance()).thenReturn(Long.valueOf(-500000));
 		when(entity.getCurrency()).thenReturn("EUR");
 		when(entity.getName()).thenReturn(getRandomString());
 		when(entity.getTreasury()).thenReturn(Boolean.FALSE);
@@ -130,7 +163,7 @@ public class AccountServiceImplTest {
 	@Test
 	public void testCreateTreasuryAllowNegativeBalance() throws CustomException {
 		Account entity = mock(Account.class);
-		when(entity.getBalance()).thenReturn(Double.valueOf(-5000));
+		when(entity.getBalance()).thenReturn(Long.valueOf(-500000));
 		when(entity.getCurrency()).thenReturn("EUR");
 		when(entity.getName()).thenReturn(getRandomString());
 		when(entity.getTreasury()).thenReturn(Boolean.TRUE);
@@ -153,7 +186,7 @@ public class AccountServiceImplTest {
 	@Test
 	public void testCreateTreasuryNotAllowedAndPositiveBalance() throws CustomException {
 		Account entity = mock(Account.class);
-		when(entity.getBalance()).thenReturn(Double.valueOf(5000));
+		when(entity.getBalance()).thenReturn(Long.valueOf(500000));
 		when(entity.getCurrency()).thenReturn("EUR");
 		when(entity.getName()).thenReturn(getRandomString());
 		when(entity.getTreasury()).thenReturn(Boolean.FALSE);
@@ -174,29 +207,52 @@ public class AccountServiceImplTest {
 	@Test
 	public void testUpdate() throws CustomException {
 		Long entityId = getRandomLong();
+		String name = getRandomString();
 		Account entity = mock(Account.class);
 		when(entity.getId()).thenReturn(entityId);
-		when(entity.getBalance()).thenReturn(Double.valueOf(5000));
+		when(entity.getBalance()).thenReturn(Long.valueOf(500000));
 		when(entity.getCurrency()).thenReturn("EUR");
-		when(entity.getName()).thenReturn(getRandomString());
+		when(entity.getName()).thenReturn(name);
 		when(entity.getTreasury()).thenReturn(Boolean.FALSE);
 
-		Account expected = mock(Account.class);
-		when(repository.save(entity)).thenReturn(expected);
-		when(repository.findById(entityId)).thenReturn(Optional.of(expected));
+		when(repository.updateIfTreasuryUnchanged(entityId, name, "EUR", Long.valueOf(500000), Boolean.FALSE))
+				.thenReturn(1);
 
-		Account updated = mock(Account.class);
-		when(repository.save(entity)).thenReturn(updated);
 		Account actual = service.update(entity);
-		assertEquals(updated, actual);
+		assertEquals(entity, actual);
 
-		verify(repository, times(1)).save(entity);
-		verify(repository, times(1)).findById(entityId);
+		verify(repository, times(1)).updateIfTreasuryUnchanged(entityId, name, "EUR", Long.valueOf(500000),
+				Boolean.FALSE);
+		verify(repository, never()).existsById(entityId);
+		verify(journal, times(1)).set(entityId, 500000L);
+	}
 
+	/**
+	 * A null Treasury is updated as false, so it matches an Account without
+	 * Treasury value.
+	 * {@link AccountServiceImpl#update(io.accountservice.test.model.entity.Account)}
+	 * 
+	 * @throws CustomException
+	 */
+	@Test
+	public void testUpdateNullTreasury() throws CustomException {
+		Long entityId = getRandomLong();
+		String name = getRandomString();
+		Account entity = mock(Account.class);
+		when(entity.getId()).thenReturn(entityId);
+		when(entity.getBalance()).thenReturn(Long.valueOf(500000));
+		when(entity.getCurrency()).thenReturn("EUR");
+		when(entity.getName()).thenReturn(name);
+		when(entity.getTreasury()).thenReturn(null);
+
+		when(repository.updateIfTreasuryUnchanged(entityId, name, "EUR", Long.valueOf(500000), Boolean.FALSE))
+				.thenReturn(1);
+
+		assertEquals(entity, service.update(entity));
 	}
 
 	/**
-	 * This method will throws exception
+	 * This method will throws exception because Account doesn't exist.
 	 * {@link AccountServiceImpl#update(io.accountservice.test.model.entity.Account)}
 	 * 
 	 * @throws CustomException
@@ -206,17 +262,13 @@ public class AccountServiceImplTest {
 		Long entityId = getRandomLong();
 		Account entity = mock(Account.class);
 		when(entity.getId()).thenReturn(entityId);
-		when(entity.getBalance()).thenReturn(Double.valueOf(5000));
+		when(entity.getBalance()).thenReturn(Long.valueOf(500000));
 		when(entity.getCurrency()).thenReturn("EUR");
 		when(entity.getName()).thenReturn(getRandomString());
-		when(entity.getTreasury()).thenReturn(Boolean.FALSE);
-
-		Account expected = mock(Account.class);
-		when(repository.save(entity)).thenReturn(expected);
-		when(repository.getOne(entityId)).thenReturn(expected);
-
 		when(entity.getTreasury()).thenReturn(Boolean.TRUE);
 
+		when(repository.existsById(entityId)).thenReturn(false);
+
 		assertThatThrownBy(() -> service.update(entity)) //
 				.isInstanceOf(AccountNotFoundException.class) //
 				.hasMessage(String.format("Update Account Id: %s was not found", entityId)) //
@@ -224,21 +276,55 @@ public class AccountServiceImplTest {
 	}
 
 	/**
-	 * {@link AccountServiceImpl#delete(io.accountservice.test.model.entity.Account)}
+	 * This method will throws exception because Treasury value was changed.
+	 * {@link AccountServiceImpl#update(io.accountservice.test.model.entity.Account)}
+	 * 
+	 * @throws CustomException
 	 */
 	@Test
-	public void testDelete() {
+	public void testUpdateTreasuryChangedException() throws CustomException {
+		Long entityId = getRandomLong();
 		Account entity = mock(Account.class);
-		when(entity.getId()).thenReturn(getRandomLong());
-		when(entity.getBalance()).thenReturn(Double.valueOf(5000));
+		when(entity.getId()).thenReturn(entityId);
+		when(entity.getBalance()).thenReturn(Long.valueOf(500000));
 		when(entity.getCurrency()).thenReturn("EUR");
 		when(entity.getName()).thenReturn(getRandomString());
-		when(entity.getTreasury()).thenReturn(Boolean.FALSE);
+		when(entity.getTreasury()).thenReturn(Boolean.TRUE);
 
-		Mockito.doNothing().when(repository).delete(entity);
-		service.delete(entity);
+		when(repository.existsById(entityId)).thenReturn(true);
 
-		verify(repository, times(1)).delete(entity);
+		assertThatThrownBy(() -> service.update(entity)) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage("Error: Treasury value changed. Operation fails") //
+				.hasNoCause();
+	}
+
+	/**
+	 * {@link AccountServiceImpl#delete(Long)}
+	 */
+	@Test
+	public void testDelete() {
+		Long entityId = getRandomLong();
+		when(repository.deleteAccountById(entityId)).thenReturn(1);
+
+		service.delete(entityId);
+
+		verify(repository, times(1)).deleteAccountById(entityId);
+	}
+
+	/**
+	 * This method will throws exception because Account doesn't exist.
+	 * {@link AccountServiceImpl#delete(Long)}
+	 */
+	@Test
+	public void testDeleteWithException() {
+		Long entityId = getRandomLong();
+		when(repository.deleteAccountById(entityId)).thenReturn(0);
+
+		assertThatThrownBy(() -> service.delete(entityId)) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage(String.format("Delete Account Id: %s was not found", entityId)) //
+				.hasNoCause();
 	}
 
 	/**
@@ -247,41 +333,57 @@ public class AccountServiceImplTest {
 	 */
 	@Test
 	public void testTransference() throws CustomException {
-		Long originId = getRandomLong();
-		Account origin = mock(Account.class);
-		when(origin.getId()).thenReturn(originId);
-		when(origin.getBalance()).thenReturn(Double.valueOf(5000));
-		when(origin.getCurrency()).thenReturn("EUR");
-		when(origin.getName()).thenReturn(getRandomString());
-		when(origin.getTreasury()).thenReturn(Boolean.FALSE);
-
-		Long payeeId = getRandomLong();
-		Account payee = mock(Account.class);
-		when(payee.getId()).thenReturn(payeeId);
-		when(payee.getBalance()).thenReturn(Double.valueOf(5000));
-		when(payee.getCurrency()).thenReturn("EUR");
-		when(payee.getName()).thenReturn(getRandomString());
-		when(payee.getTreasury()).thenReturn(Boolean.FALSE);
-
 		TransactionOperationDto transaction = mock(TransactionOperationDto.class);
-		when(transaction.getOrigin()).thenReturn(originId);
-		when(transaction.getPayee()).thenReturn(payeeId);
-		when(transaction.getAmountToTransfer()).thenReturn(Double.valueOf(1500));
+		when(transaction.getOrigin()).thenReturn(getRandomLong());
+		when(transaction.getPayee()).thenReturn(getRandomLong());
+		when(transaction.getAmountToTransfer()).thenReturn(Long.valueOf(150000));
 
 		Account expected = mock(Account.class);
-		when(repository.save(origin)).thenReturn(expected);
-		Account payeeExpected = mock(Account.class);
-		when(repository.save(payee)).thenReturn(payeeExpected);
-		when(repository.getOne(originId)).thenReturn(origin);
-		when(repository.getOne(payeeId)).thenReturn(payee);
-		
-		Account actual = service.transference(transaction).orElse(origin);
+		Mockito.doReturn(expected).when(transferStrategy).transfer(transaction);
+
+		Account actual = service.transference(transaction).orElse(null);
 		assertEquals(expected, actual);
-		
-		verify(repository, times(1)).save(origin);
-		verify(repository, times(1)).save(payee);
-		verify(repository, times(2)).getOne(originId);
-		verify(repository, times(1)).getOne(payeeId);
+
+		verify(transferStrategy, times(1)).transfer(transaction);
+	}
+
+	/**
+	 * {@link AccountServiceImpl#transference(io.accountservice.test.model.dto.TransactionOperationDto)}
+	 * with a currency that isn't the currency of the Accounts.
+	 */
+	@Test
+	public void testTransferenceCurrency() {
+		when(repository.findCurrencies(any())).thenReturn(Arrays.<Object[]>asList(new Object[] { 1L, "EUR" }));
+		TransactionOperationDto transaction = new TransactionOperationDto(1L, 2L, 1000L, "USD");
+
+		assertThatThrownBy(() -> service.transference(transaction)) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage("Error Transfer: Currency USD isn't the currency EUR of Account Id: 1. Operation fails");
+
+		verify(transferStrategy, never()).transfer(any());
+	}
+
+	/**
+	 * {@link AccountServiceImpl#transferenceBatch(List)} with one transaction in
+	 * another currency. Results keep request order.
+	 */
+	@Test
+	public void testTransferenceBatchCurrency() {
+		Account origin = Account.builder().id(1L).currency("EUR").balance(100000L).build();
+		when(repository.findCurrencies(any()))
+				.thenReturn(Arrays.<Object[]>asList(new Object[] { 1L, "EUR" }, new Object[] { 2L, "EUR" }));
+		TransactionOperationDto rejected = new TransactionOperationDto(1L, 2L, 1000L, "USD");
+		TransactionOperationDto accepted = new TransactionOperationDto(1L, 2L, 1000L);
+		Mockito.doReturn(origin).when(transferStrategy).transfer(accepted);
+
+		List<TransactionResultDto> results = service.transferenceBatch(Arrays.asList(rejected, accepted));
+
+		assertEquals(2, results.size());
+		assertEquals(0, results.get(0).getIndex());
+		assertEquals(false, results.get(0).isSuccess());
+		assertEquals(1, results.get(1).getIndex());
+		assertEquals(true, results.get(1).isSuccess());
+		verify(transferStrategy, never()).transfer(rejected);
 	}
 
 }
@@ -0,0 +1,88 @@
+package io.accountservice.test.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.AccountService;
+
+/**
+ * Test class for AccountServiceImpl transferences through the real
+ * TransferStrategy. Each test runs in one transaction, so the service and the
+ * strategy share one persistence context like a request with open in view.
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+@Transactional
+public class AccountServiceTransferenceTest {
+
+	private static final String SELECT_BALANCE = "SELECT BALANCE FROM ACCOUNT WHERE ID = ?";
+
+	@Autowired
+	private AccountService service;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * The origin Account returned has the balance of its row after the transfer.
+	 *
+	 * {@link AccountServiceImpl#transference(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferenceReturnsNewBalance() {
+		long before = balance(3L);
+
+		Account actual = service.transference(new TransactionOperationDto(3L, 4L, 1000L)).get();
+
+		assertEquals(before - 1000L, actual.getBalance().longValue());
+		assertEquals(balance(3L), actual.getBalance().longValue());
+	}
+
+	/**
+	 * Running balances of a batch start from the rows, so both transactions are
+	 * applied.
+	 *
+	 * {@link AccountServiceImpl#transferenceBatch(List)}
+	 */
+	@Test
+	public void testTransferenceBatchAppliesAll() {
+		long origin = balance(3L);
+		long payee = balance(4L);
+
+		List<TransactionResultDto> results = service.transferenceBatch(Arrays.asList(
+				new TransactionOperationDto(3L, 4L, 1000L), new TransactionOperationDto(4L, 3L, 400L)));
+
+		assertTrue(results.get(0).isSuccess());
+		assertTrue(results.get(1).isSuccess());
+		assertEquals(origin - 600L, balance(3L));
+		assertEquals(payee + 600L, balance(4L));
+	}
+
+	/**
+	 * Balance of the row, after pending entity changes are flushed.
+	 */
+	private long balance(Long id) {
+		entityManager.flush();
+		return jdbcTemplate.queryForObject(SELECT_BALANCE, Long.class, id);
+	}
+
+}
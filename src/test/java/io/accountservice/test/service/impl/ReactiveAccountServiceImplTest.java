@@ -0,0 +1,107 @@
+package io.accountservice.test.service.impl;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.config.ReactiveProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.service.AccountService;
+import reactor.test.StepVerifier;
+
+/**
+ * Test class for ReactiveAccountServiceImpl logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class ReactiveAccountServiceImplTest {
+
+	@Mock
+	private AccountService accountService;
+
+	@Spy
+	private ReactiveProperties properties = new ReactiveProperties();
+
+	@InjectMocks
+	private ReactiveAccountServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		properties.setPageSize(2);
+		service.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.stop();
+	}
+
+	private Account account(long id) {
+		return Account.builder().id(id).name("TEST").currency("EUR").balance(Long.valueOf(500000))
+				.treasury(Boolean.FALSE).build();
+	}
+
+	/**
+	 * {@link ReactiveAccountServiceImpl#findOne(Long)}
+	 */
+	@Test
+	public void testFindOneNotFound() {
+		when(accountService.findOne(1L)).thenReturn(Optional.empty());
+
+		StepVerifier.create(service.findOne(1L)) //
+				.expectErrorMatches(e -> e instanceof AccountNotFoundException
+						&& e.getMessage().equals("Get One Account Id: 1 was not found")) //
+				.verify();
+	}
+
+	/**
+	 * Pages are read until one is shorter than page size.
+	 *
+	 * {@link ReactiveAccountServiceImpl#findAll()}
+	 */
+	@Test
+	public void testFindAllPages() {
+		when(accountService.findPage(0L, 2)).thenReturn(Arrays.asList(account(1), account(2)));
+		when(accountService.findPage(2L, 2)).thenReturn(Arrays.asList(account(3)));
+
+		StepVerifier.create(service.findAll(), 2) //
+				.expectNextCount(2) //
+				.thenRequest(5) //
+				.expectNextMatches(account -> account.getId() == 3L) //
+				.verifyComplete();
+
+		verify(accountService, times(2)).findPage(anyLong(), anyInt());
+	}
+
+	/**
+	 * Treasury rules of AccountService are kept.
+	 *
+	 * {@link ReactiveAccountServiceImpl#create(Account)}
+	 */
+	@Test
+	public void testCreateException() {
+		Account entity = account(1);
+		when(accountService.create(entity)).thenThrow(new CustomException("Error Create"));
+
+		StepVerifier.create(service.create(entity)) //
+				.expectErrorMessage("Error Create") //
+				.verify();
+	}
+
+}
@@ -0,0 +1,107 @@
+package io.accountservice.test.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.model.dto.ImportResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.export.ExportFormat;
+
+/**
+ * Test class for AccountImporter against the test database
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class AccountImporterTest {
+
+	@Autowired
+	private AccountImporter importer;
+
+	@Autowired
+	private AccountRepository repository;
+
+	/**
+	 * Second Account must be rejected because it isn't Treasury and has negative
+	 * balance, while the others are created with new ids.
+	 *
+	 * {@link AccountImporter#importAll(java.util.List)}
+	 */
+	@Test
+	public void testImportAll() {
+		long before = repository.count();
+
+		ImportResultDto result = importer.importAll(Arrays.asList( //
+				new Account(1L, "IMPORT ONE", "EUR", Long.valueOf(100000), Boolean.FALSE, 7L), //
+				new Account(null, "IMPORT TWO", "EUR", Long.valueOf(-100000), Boolean.FALSE, null), //
+				new Account(null, "IMPORT THREE", "EUR", Long.valueOf(-100000), Boolean.TRUE, null)));
+
+		assertEquals(2, result.getImported());
+		assertEquals(1, result.getFailed());
+		assertEquals(1, result.getErrors().get(0).getIndex());
+		assertEquals(
+				"Error Create: Account profile Treasury not allowed to create Account with negative Balande. Operation fails",
+				result.getErrors().get(0).getMessage());
+		assertEquals(before + 2, repository.count());
+		assertTrue(repository.findAll().stream().filter(account -> account.getName().startsWith("IMPORT"))
+				.allMatch(account -> account.getId() > 5));
+	}
+
+	/**
+	 * Rows with an invalid amount or without name are rejected, each one with its
+	 * position.
+	 *
+	 * {@link AccountImporter#importFile(java.io.InputStream, ExportFormat)}
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testImportFileCsv() throws IOException {
+		String csv = "id,name,currency,balance,treasury,version\n" //
+				+ ",\"FILE, ONE\",EUR,1500.25,false,\n" //
+				+ ",FILE TWO,EUR,0.001,false,\n" //
+				+ ",,EUR,10,false,\n" //
+				+ ",FILE FOUR,EUR,abc,false,\n" //
+				+ ",FILE FIVE,EUR,-20,true,\n";
+
+		ImportResultDto result = importer
+				.importFile(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExportFormat.CSV);
+
+		assertEquals(2, result.getImported());
+		assertEquals(3, result.getFailed());
+		assertEquals(1, result.getErrors().get(0).getIndex());
+		assertEquals("Amount 0.001 isn't a valid EUR amount", result.getErrors().get(0).getMessage());
+		assertEquals(2, result.getErrors().get(1).getIndex());
+		assertEquals("name must not be null", result.getErrors().get(1).getMessage());
+		assertEquals("Balance abc isn't a number", result.getErrors().get(2).getMessage());
+	}
+
+	/**
+	 * {@link AccountImporter#importFile(java.io.InputStream, ExportFormat)}
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testImportFileNdjson() throws IOException {
+		String ndjson = "{\"name\":\"JSON ONE\",\"currency\":\"EUR\",\"balance\":10.50,\"treasury\":false}\n" //
+				+ "{\"name\":\"JSON TWO\",\n";
+
+		ImportResultDto result = importer
+				.importFile(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ExportFormat.NDJSON);
+
+		assertEquals(1, result.getImported());
+		assertEquals(1, result.getFailed());
+		assertEquals(1, result.getErrors().get(0).getIndex());
+	}
+
+}
@@ -0,0 +1,46 @@
+package io.accountservice.test.service.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Test class for TransferJournal against the test database
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class TransferJournalTest {
+
+	@Autowired
+	private TransferJournal journal;
+
+	/**
+	 * Balances rebuilt from the latest snapshot and the journal tail must include
+	 * every entry appended, in order.
+	 *
+	 * {@link TransferJournal#rebuild()}
+	 */
+	@Test
+	public void testRebuild() {
+		Map<Long, Long> before = journal.rebuild();
+
+		journal.transfer(3L, 4L, 100000);
+		journal.set(5L, 700000);
+		journal.transfer(4L, 5L, 50000);
+		journal.set(999L, 100);
+		journal.delete(999L);
+
+		Map<Long, Long> after = journal.rebuild();
+		assertEquals(before.get(3L) - 100000, after.get(3L).longValue());
+		assertEquals(before.get(4L) + 50000, after.get(4L).longValue());
+		assertEquals(750000L, after.get(5L).longValue());
+		assertFalse(after.containsKey(999L));
+	}
+
+}
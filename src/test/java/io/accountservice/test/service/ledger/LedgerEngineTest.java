@@ -0,0 +1,212 @@
+package io.accountservice.test.service.ledger;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.journal.TransferJournal;
+
+/**
+ * Test class for LedgerEngine logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class LedgerEngineTest {
+
+	@Mock
+	private AccountRepository repository;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private TransferProperties properties = new TransferProperties();
+
+	@Mock
+	private TransferJournal journal;
+
+	@InjectMocks
+	private LedgerEngine engine;
+
+	@BeforeEach
+	public void setUp() {
+		properties.getLedger().setFlushInterval(Duration.ofHours(1));
+		engine.start();
+
+		when(repository.findById(1L)).thenReturn(Optional.of(Account.builder().id(1L).name("TEST").currency("EUR")
+				.balance(Long.valueOf(500000)).treasury(Boolean.FALSE).build()));
+		when(repository.findById(2L)).thenReturn(Optional.of(Account.builder().id(2L).name("TEST2").currency("EUR")
+				.balance(Long.valueOf(-150000)).treasury(Boolean.TRUE).build()));
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		engine.stop();
+	}
+
+	/**
+	 * {@link LedgerEngine#transfer(TransactionOperationDto)}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		Account origin = engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		assertEquals(Long.valueOf(300000), origin.getBalance());
+
+		Account payee = engine.refresh(Account.builder().id(2L).build());
+		assertEquals(Long.valueOf(50000), payee.getBalance());
+
+		verify(repository, times(1)).findById(1L);
+		verify(repository, times(1)).findById(2L);
+	}
+
+	/**
+	 * This test must fail because origin Account isn't Treasury and can't set
+	 * negative balance.
+	 *
+	 * {@link LedgerEngine#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferNegativeBalanceException() {
+		assertThatThrownBy(() -> engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(600000)))) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage(
+						"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails")
+				.hasNoCause();
+
+		Account origin = engine.refresh(Account.builder().id(1L).build());
+		assertEquals(Long.valueOf(500000), origin.getBalance());
+	}
+
+	/**
+	 * {@link LedgerEngine#flush()}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testFlush() throws CustomException {
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 1 });
+
+		engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		engine.flush();
+		engine.flush();
+
+		verify(jdbcTemplate, times(1)).batchUpdate(
+				eq("UPDATE ACCOUNT SET BALANCE = ?, VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ?"), anyList());
+		Map<Long, Long> written = new HashMap<>();
+		written.put(1L, 300000L);
+		written.put(2L, 50000L);
+		verify(journal, times(1)).setAll(written);
+	}
+
+	/**
+	 * A row that disagrees with the balance rebuilt from the journal keeps its
+	 * balance, and nothing is written for it.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testStartKeepsRowBalance() throws InterruptedException {
+		engine.stop();
+		when(journal.rebuild()).thenReturn(Collections.singletonMap(1L, Long.valueOf(450000)));
+		engine.start();
+
+		Account origin = engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		assertEquals(Long.valueOf(300000), origin.getBalance());
+	}
+
+	/**
+	 * An entry whose row was changed outside the ledger isn't written and is
+	 * reloaded.
+	 *
+	 * {@link LedgerEngine#flush()}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testFlushStaleEntry() throws CustomException {
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0, 1 });
+
+		engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		engine.flush();
+
+		Account origin = Account.builder().id(1L).balance(Long.valueOf(700000)).build();
+		assertEquals(Long.valueOf(700000), engine.refresh(origin).getBalance());
+		verify(journal, times(1)).setAll(Collections.singletonMap(2L, 50000L));
+	}
+
+	/**
+	 * A transaction on an Account evicted by a transaction not committed yet waits
+	 * for the commit, and then reads the committed Account.
+	 *
+	 * {@link LedgerEngine#evict(Long)}
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testEvictWaitsForCommit() throws Exception {
+		engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			engine.evict(1L);
+			CompletableFuture<Account> blocked = CompletableFuture
+					.supplyAsync(() -> engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(100000))));
+			Thread.sleep(200);
+			assertFalse(blocked.isDone());
+
+			when(repository.findById(1L)).thenReturn(Optional.of(Account.builder().id(1L).name("TEST")
+					.currency("EUR").balance(Long.valueOf(900000)).treasury(Boolean.FALSE).build()));
+			TransactionSynchronizationUtils.invokeAfterCompletion(
+					TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+
+			assertEquals(Long.valueOf(800000), blocked.get(5, TimeUnit.SECONDS).getBalance());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+package io.accountservice.test.service.partition;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.journal.TransferJournal;
+
+/**
+ * Test class for PartitionedTransferEngine logic. With two partitions, Accounts
+ * 1 and 3 share a partition and Accounts 2 and 4 are owned by the other one.
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class PartitionedTransferEngineTest {
+
+	@Mock
+	private AccountRepository repository;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private TransferProperties properties = new TransferProperties();
+
+	@Mock
+	private TransferJournal journal;
+
+	@InjectMocks
+	private PartitionedTransferEngine engine;
+
+	@BeforeEach
+	public void setUp() {
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		when(repository.findById(1L)).thenReturn(Optional.of(Account.builder().id(1L).name("TEST").currency("EUR")
+				.balance(Long.valueOf(500000)).treasury(Boolean.FALSE).build()));
+		when(repository.findById(2L)).thenReturn(Optional.of(Account.builder().id(2L).name("TEST2").currency("EUR")
+				.balance(Long.valueOf(-150000)).treasury(Boolean.TRUE).build()));
+		when(repository.findById(3L)).thenReturn(Optional.of(Account.builder().id(3L).name("TEST3").currency("EUR")
+				.balance(Long.valueOf(0)).treasury(Boolean.FALSE).build()));
+		when(repository.findById(4L)).thenReturn(Optional.empty());
+
+		properties.getPartitioned().setPartitions(2);
+		properties.getPartitioned().setFlushInterval(Duration.ofHours(1));
+		engine.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		engine.stop();
+	}
+
+	/**
+	 * Transaction between two partitions.
+	 *
+	 * {@link PartitionedTransferEngine#transfer(TransactionOperationDto)}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		Account origin = engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		assertEquals(Long.valueOf(300000), origin.getBalance());
+
+		Account payee = engine.refresh(Account.builder().id(2L).build());
+		assertEquals(Long.valueOf(50000), payee.getBalance());
+	}
+
+	/**
+	 * Transaction inside one partition.
+	 *
+	 * {@link PartitionedTransferEngine#transfer(TransactionOperationDto)}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransferSamePartition() throws CustomException {
+		Account origin = engine.transfer(new TransactionOperationDto(1L, 3L, Long.valueOf(200000)));
+		assertEquals(Long.valueOf(300000), origin.getBalance());
+
+		Account payee = engine.refresh(Account.builder().id(3L).build());
+		assertEquals(Long.valueOf(200000), payee.getBalance());
+	}
+
+	/**
+	 * This test must fail because origin Account isn't Treasury and can't set
+	 * negative balance.
+	 *
+	 * {@link PartitionedTransferEngine#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferNegativeBalanceException() {
+		assertThatThrownBy(() -> engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(600000)))) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage(
+						"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails");
+
+		Account origin = engine.refresh(Account.builder().id(1L).build());
+		assertEquals(Long.valueOf(500000), origin.getBalance());
+	}
+
+	/**
+	 * This test must fail because payee Account doesn't exist. Amount withdrawn is
+	 * handed back to origin Account before the caller is answered.
+	 *
+	 * {@link PartitionedTransferEngine#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferPayeeNotFoundException() {
+		assertThatThrownBy(() -> engine.transfer(new TransactionOperationDto(1L, 4L, Long.valueOf(200000)))) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage("Transaction - Account Id: 4 was not found");
+
+		Account origin = engine.refresh(Account.builder().id(1L).build());
+		assertEquals(Long.valueOf(500000), origin.getBalance());
+	}
+
+	/**
+	 * Every partition writes and journals its own balances once, on stop.
+	 *
+	 * {@link PartitionedTransferEngine#stop()}
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testFlushOnStop() throws InterruptedException {
+		when(jdbcTemplate.batchUpdate(any(String.class), anyList())).thenReturn(new int[] { 1 });
+		engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+
+		engine.stop();
+
+		verify(jdbcTemplate, times(2)).batchUpdate(
+				eq("UPDATE ACCOUNT SET BALANCE = ?, VERSION = VERSION + 1 WHERE ID = ? AND VERSION = ?"), anyList());
+		verify(journal, times(2)).setAll(argThat(balances -> balances.size() == 1));
+	}
+
+	/**
+	 * An Account changed by a transaction not committed yet parks transactions on
+	 * it without blocking the caller of evict, and is reloaded once committed.
+	 *
+	 * {@link PartitionedTransferEngine#evict(Long)}
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testEvictWaitsForCommit() throws Exception {
+		engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			engine.evict(1L);
+			CompletableFuture<Account> parked = CompletableFuture
+					.supplyAsync(() -> engine.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(100000))));
+			Thread.sleep(200);
+			assertFalse(parked.isDone());
+
+			when(repository.findById(1L)).thenReturn(Optional.of(Account.builder().id(1L).name("TEST")
+					.currency("EUR").balance(Long.valueOf(900000)).treasury(Boolean.FALSE).build()));
+			TransactionSynchronizationUtils.invokeAfterCompletion(
+					TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+
+			assertEquals(Long.valueOf(800000), parked.get(5, TimeUnit.SECONDS).getBalance());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package io.accountservice.test.service.store.mmap;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.accountservice.test.config.StoreProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Test class for MappedAccountStore against a temporary directory
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class MappedAccountStoreTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * StoreProperties Spy
+	 */
+	@Spy
+	private StoreProperties properties = new StoreProperties();
+
+	/**
+	 * MappedAccountStore InjectMock. Store to Test with Mockito.
+	 */
+	@InjectMocks
+	private MappedAccountStore store;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		properties.getMmap().setDirectory(directory.toString());
+		properties.getMmap().setCapacity(4);
+		properties.getMmap().setCheckpointInterval(Duration.ofHours(1));
+		store.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		store.stop();
+	}
+
+	private Account insert(String name, long balance, Boolean treasury) {
+		return store.insert(Account.builder().name(name).currency("EUR").balance(balance).treasury(treasury).build());
+	}
+
+	/**
+	 * Private method to open another store on the same directory, as after a crash
+	 * of the one under test.
+	 */
+	private MappedAccountStore reopen() throws Exception {
+		MappedAccountStore reopened = new MappedAccountStore();
+		ReflectionTestUtils.setField(reopened, "properties", properties);
+		reopened.start();
+		return reopened;
+	}
+
+	/**
+	 * {@link MappedAccountStore#insert(Account)}
+	 */
+	@Test
+	public void testInsertAndFind() {
+		Account created = insert("JULIA ROMERA ROBLES", 300000, false);
+
+		Account actual = store.findById(created.getId()).get();
+		assertEquals("JULIA ROMERA ROBLES", actual.getName());
+		assertEquals("EUR", actual.getCurrency());
+		assertEquals(Long.valueOf(300000), actual.getBalance());
+		assertEquals(Boolean.FALSE, actual.getTreasury());
+		assertEquals(Long.valueOf(0), actual.getVersion());
+		assertFalse(store.findById(created.getId() + 1).isPresent());
+	}
+
+	/**
+	 * {@link MappedAccountStore#findPage(Long, int)}
+	 */
+	@Test
+	public void testFindPage() {
+		Account first = insert("FIRST", 1, false);
+		Account second = insert("SECOND", 2, false);
+		Account third = insert("THIRD", 3, false);
+		store.delete(second.getId());
+
+		List<Account> page = store.findPage(first.getId(), 1);
+		assertEquals(1, page.size());
+		assertEquals(third.getId(), page.get(0).getId());
+		assertEquals(2, store.findAll().size());
+	}
+
+	/**
+	 * Pages follow ids, not slots: a reused slot holds a higher id than the slots
+	 * after it.
+	 *
+	 * {@link MappedAccountStore#findPage(Long, int)}
+	 */
+	@Test
+	public void testFindPageReusedSlot() {
+		Account first = insert("FIRST", 1, false);
+		Account second = insert("SECOND", 2, false);
+		Account third = insert("THIRD", 3, false);
+		store.delete(second.getId());
+		Account fourth = insert("FOURTH", 4, false);
+
+		List<Account> page = store.findPage(0L, 2);
+		assertEquals(2, page.size());
+		assertEquals(first.getId(), page.get(0).getId());
+		assertEquals(third.getId(), page.get(1).getId());
+
+		page = store.findPage(third.getId(), 10);
+		assertEquals(1, page.size());
+		assertEquals(fourth.getId(), page.get(0).getId());
+	}
+
+	/**
+	 * Every Account is read once, in id order, even from a reused slot.
+	 *
+	 * {@link MappedAccountStore#forEach(int, java.util.function.Consumer)}
+	 */
+	@Test
+	public void testForEach() {
+		Account first = insert("FIRST", 1, false);
+		Account second = insert("SECOND", 2, false);
+		Account third = insert("THIRD", 3, false);
+		store.delete(second.getId());
+		Account fourth = insert("FOURTH", 4, false);
+
+		List<Long> ids = new ArrayList<>();
+		store.forEach(1, account -> ids.add(account.getId()));
+		assertEquals(Arrays.asList(first.getId(), third.getId(), fourth.getId()), ids);
+	}
+
+	/**
+	 * Slots of deleted Accounts are reused, and inserts fail once all are used.
+	 *
+	 * {@link MappedAccountStore#insert(Account)}
+	 */
+	@Test
+	public void testCapacity() {
+		for (int i = 0; i < 4; i++)
+			insert("ACCOUNT " + i, i, false);
+		assertThatThrownBy(() -> insert("FULL", 0, false)) //
+				.isInstanceOf(IllegalStateException.class);
+
+		assertTrue(store.delete(1L));
+		assertEquals(Long.valueOf(5), insert("REUSED", 0, false).getId());
+		assertEquals(4, store.findAll().size());
+	}
+
+	/**
+	 * Second transaction must be rejected because origin Account isn't Treasury
+	 * and has no balance left.
+	 *
+	 * {@link MappedAccountStore#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		Account origin = insert("ORIGIN", 5000, false);
+		Account payee = insert("PAYEE", -1000, true);
+
+		Account actual = store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 5000L));
+		assertEquals(Long.valueOf(0), actual.getBalance());
+		assertEquals(Long.valueOf(1), actual.getVersion());
+		assertEquals(Long.valueOf(4000), store.findById(payee.getId()).get().getBalance());
+
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 1L))) //
+				.isInstanceOf(CustomException.class);
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(payee.getId(), 99L, 1L))) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage("Transaction - Account Id: 99 was not found");
+		assertEquals(Long.valueOf(4000), store.findById(payee.getId()).get().getBalance());
+	}
+
+	/**
+	 * Update must fail if Treasury value changed.
+	 *
+	 * {@link MappedAccountStore#update(Account)}
+	 */
+	@Test
+	public void testUpdateAndDelete() {
+		Account account = insert("NAME", 100, false);
+
+		assertTrue(store.update(Account.builder().id(account.getId()).name("OTHER NAME").currency("USD").balance(200L)
+				.treasury(false).build()));
+		assertEquals("OTHER NAME", store.findById(account.getId()).get().getName());
+		assertFalse(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(true).build()));
+
+		assertTrue(store.delete(account.getId()));
+		assertFalse(store.delete(account.getId()));
+		assertFalse(store.findById(account.getId()).isPresent());
+	}
+
+	/**
+	 * An Account without Treasury is updated with Treasury null or false, as
+	 * both mean false.
+	 *
+	 * {@link MappedAccountStore#update(Account)}
+	 */
+	@Test
+	public void testUpdateNullTreasury() {
+		Account account = insert("NAME", 100, null);
+
+		assertTrue(store.update(Account.builder().id(account.getId()).name("OTHER NAME").currency("EUR").balance(200L)
+				.build()));
+		assertTrue(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(false).build()));
+		assertFalse(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(true).build()));
+	}
+
+	/**
+	 * Accounts are kept on the file after a checkpoint, and ids go on after the
+	 * last one even if it was deleted.
+	 */
+	@Test
+	public void testReopen() throws Exception {
+		Account account = insert("NAME", 100, null);
+		Account last = insert("LAST", 0, false);
+		store.delete(last.getId());
+		store.stop();
+		store.start();
+
+		assertEquals(Long.valueOf(100), store.findById(account.getId()).get().getBalance());
+		assertEquals(null, store.findById(account.getId()).get().getTreasury());
+		assertEquals(last.getId() + 1, insert("NEXT", 0, false).getId().longValue());
+	}
+
+	/**
+	 * Without a checkpoint, the journal alone rebuilds the Accounts, and replaying
+	 * it over slots that already hold its changes doesn't apply them twice.
+	 */
+	@Test
+	public void testRecovery() throws Exception {
+		Account origin = insert("ORIGIN", 5000, false);
+		Account payee = insert("PAYEE", 0, false);
+		Account deleted = insert("DELETED", 0, false);
+		store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 2000L));
+		store.update(Account.builder().id(payee.getId()).name("PAYEE").currency("USD").balance(2500L)
+				.treasury(false).build());
+		store.transfer(new TransactionOperationDto(payee.getId(), origin.getId(), 500L));
+		store.delete(deleted.getId());
+
+		MappedAccountStore replayed = reopen();
+		assertEquals(Long.valueOf(3500), replayed.findById(origin.getId()).get().getBalance());
+		assertEquals(Long.valueOf(2000), replayed.findById(payee.getId()).get().getBalance());
+		assertEquals(2, replayed.findAll().size());
+
+		Files.delete(directory.resolve("accounts.dat"));
+		MappedAccountStore rebuilt = reopen();
+		assertEquals(Long.valueOf(3500), rebuilt.findById(origin.getId()).get().getBalance());
+		assertEquals(Long.valueOf(2), rebuilt.findById(origin.getId()).get().getVersion());
+		assertEquals("USD", rebuilt.findById(payee.getId()).get().getCurrency());
+		assertEquals(Long.valueOf(2000), rebuilt.findById(payee.getId()).get().getBalance());
+		assertFalse(rebuilt.findById(deleted.getId()).isPresent());
+	}
+
+}
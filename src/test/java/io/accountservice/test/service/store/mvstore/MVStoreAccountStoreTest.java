@@ -0,0 +1,169 @@
+package io.accountservice.test.service.store.mvstore;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.config.StoreProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Test class for MVStoreAccountStore against a temporary MVStore file
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class MVStoreAccountStoreTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * StoreProperties Spy
+	 */
+	@Spy
+	private StoreProperties properties = new StoreProperties();
+
+	/**
+	 * MVStoreAccountStore InjectMock. Store to Test with Mockito.
+	 */
+	@InjectMocks
+	private MVStoreAccountStore store;
+
+	@BeforeEach
+	public void setUp() {
+		properties.getMvstore().setFile(directory.resolve("accounts.mv").toString());
+		store.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		store.stop();
+	}
+
+	private Account insert(String name, long balance, Boolean treasury) {
+		return store.insert(Account.builder().name(name).currency("EUR").balance(balance).treasury(treasury).build());
+	}
+
+	/**
+	 * {@link MVStoreAccountStore#insert(Account)}
+	 */
+	@Test
+	public void testInsertAndFind() {
+		Account created = insert("JULIA ROMERA ROBLES", 300000, false);
+
+		Account actual = store.findById(created.getId()).get();
+		assertEquals("JULIA ROMERA ROBLES", actual.getName());
+		assertEquals("EUR", actual.getCurrency());
+		assertEquals(Long.valueOf(300000), actual.getBalance());
+		assertEquals(Boolean.FALSE, actual.getTreasury());
+		assertEquals(Long.valueOf(0), actual.getVersion());
+		assertFalse(store.findById(created.getId() + 1).isPresent());
+	}
+
+	/**
+	 * {@link MVStoreAccountStore#findPage(Long, int)}
+	 */
+	@Test
+	public void testFindPage() {
+		Account first = insert("FIRST", 1, false);
+		Account second = insert("SECOND", 2, false);
+		insert("THIRD", 3, false);
+
+		List<Account> page = store.findPage(first.getId(), 1);
+		assertEquals(1, page.size());
+		assertEquals(second.getId(), page.get(0).getId());
+		assertEquals(3, store.findAll().size());
+	}
+
+	/**
+	 * Second transaction must be rejected because origin Account isn't Treasury
+	 * and has no balance left.
+	 *
+	 * {@link MVStoreAccountStore#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		Account origin = insert("ORIGIN", 5000, false);
+		Account payee = insert("PAYEE", -1000, true);
+
+		Account actual = store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 5000L));
+		assertEquals(Long.valueOf(0), actual.getBalance());
+		assertEquals(Long.valueOf(1), actual.getVersion());
+		assertEquals(Long.valueOf(4000), store.findById(payee.getId()).get().getBalance());
+
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 1L))) //
+				.isInstanceOf(CustomException.class);
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(payee.getId(), 99L, 1L))) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage("Transaction - Account Id: 99 was not found");
+		assertEquals(Long.valueOf(4000), store.findById(payee.getId()).get().getBalance());
+	}
+
+	/**
+	 * Update must fail if Treasury value changed.
+	 *
+	 * {@link MVStoreAccountStore#update(Account)}
+	 */
+	@Test
+	public void testUpdateAndDelete() {
+		Account account = insert("NAME", 100, false);
+
+		assertTrue(store.update(Account.builder().id(account.getId()).name("OTHER NAME").currency("USD").balance(200L)
+				.treasury(false).build()));
+		assertEquals("OTHER NAME", store.findById(account.getId()).get().getName());
+		assertFalse(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(true).build()));
+
+		assertTrue(store.delete(account.getId()));
+		assertFalse(store.delete(account.getId()));
+	}
+
+	/**
+	 * An Account without Treasury is updated with Treasury null or false, as
+	 * both mean false.
+	 *
+	 * {@link MVStoreAccountStore#update(Account)}
+	 */
+	@Test
+	public void testUpdateNullTreasury() {
+		Account account = insert("NAME", 100, null);
+
+		assertTrue(store.update(Account.builder().id(account.getId()).name("OTHER NAME").currency("EUR").balance(200L)
+				.build()));
+		assertTrue(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(false).build()));
+		assertFalse(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(true).build()));
+	}
+
+	/**
+	 * Accounts are kept on the file, and ids go on after the last one.
+	 */
+	@Test
+	public void testReopen() throws InterruptedException {
+		Account account = insert("NAME", 100, null);
+		store.stop();
+		store.start();
+
+		assertEquals(Long.valueOf(100), store.findById(account.getId()).get().getBalance());
+		assertEquals(null, store.findById(account.getId()).get().getTreasury());
+		assertEquals(account.getId() + 1, insert("NEXT", 0, false).getId().longValue());
+	}
+
+}
@@ -0,0 +1,214 @@
+package io.accountservice.test.service.store.sharded;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+
+/**
+ * Test class for ShardedAccountStore against two in-memory H2 shards
+ *
+ * @author Austr0s
+ */
+public class ShardedAccountStoreTest {
+
+	private List<JdbcTemplate> shards;
+
+	private ShardedAccountStore store;
+
+	@BeforeEach
+	public void setUp() {
+		List<DataSource> dataSources = new ArrayList<>();
+		for (int i = 0; i < 2; i++)
+			dataSources.add(new DriverManagerDataSource(
+					"jdbc:h2:mem:shard" + i + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MYSQL", "sa", ""));
+		shards = dataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+		store = new ShardedAccountStore(dataSources, 60_000);
+		store.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		store.stop();
+		shards.forEach(shard -> shard.execute("SHUTDOWN"));
+	}
+
+	private Account insert(String name, long balance, boolean treasury) {
+		return store.insert(Account.builder().name(name).currency("EUR").balance(balance).treasury(treasury).build());
+	}
+
+	private long balance(Long id) {
+		return store.findById(id).get().getBalance();
+	}
+
+	/**
+	 * Accounts are created on every shard in turns and read back merged by id.
+	 *
+	 * {@link ShardedAccountStore#findAll()}
+	 */
+	@Test
+	public void testInsertAndFindAll() {
+		Account first = insert("FIRST", 1000, false);
+		Account second = insert("SECOND", 2000, false);
+		Account third = insert("THIRD", 3000, false);
+
+		assertNotEquals(store.shardOf(first.getId()), store.shardOf(second.getId()));
+		assertEquals(2, shards.get(0).queryForObject("SELECT COUNT(*) FROM ACCOUNT", Integer.class));
+		assertEquals(1, shards.get(1).queryForObject("SELECT COUNT(*) FROM ACCOUNT", Integer.class));
+
+		List<Long> ids = store.findAll().stream().map(Account::getId).collect(Collectors.toList());
+		List<Long> expected = Arrays.asList(first.getId(), second.getId(), third.getId());
+		expected.sort(null);
+		assertEquals(expected, ids);
+
+		List<Account> page = store.findPage(expected.get(0), 1);
+		assertEquals(1, page.size());
+		assertEquals(expected.get(1), page.get(0).getId());
+	}
+
+	/**
+	 * Transaction between two shards goes through the outbox, which is empty once
+	 * delivered.
+	 *
+	 * {@link ShardedAccountStore#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferAcrossShards() throws CustomException {
+		Account origin = insert("ORIGIN", 5000, false);
+		Account payee = insert("PAYEE", 0, false);
+
+		Account actual = store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 1500L));
+
+		assertEquals(Long.valueOf(3500), actual.getBalance());
+		assertEquals(1500, balance(payee.getId()));
+		for (JdbcTemplate shard : shards)
+			assertEquals(0, shard.queryForObject("SELECT COUNT(*) FROM ACCOUNT_OUTBOX", Integer.class));
+	}
+
+	/**
+	 * Transaction inside one shard is applied locally, and the Treasury rule is
+	 * still checked.
+	 *
+	 * {@link ShardedAccountStore#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferSameShard() throws CustomException {
+		Account origin = insert("ORIGIN", 5000, false);
+		insert("OTHER", 0, false);
+		Account payee = insert("PAYEE", 0, false);
+
+		store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 5000L));
+		assertEquals(0, balance(origin.getId()));
+		assertEquals(5000, balance(payee.getId()));
+
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(origin.getId(), payee.getId(), 1L))) //
+				.isInstanceOf(CustomException.class);
+		assertEquals(5000, balance(payee.getId()));
+	}
+
+	/**
+	 * A delivery retried deposits once, and an amount whose payee Account doesn't
+	 * exist is refunded.
+	 *
+	 * {@link ShardedAccountStore#deliver}
+	 */
+	@Test
+	public void testDeliverOnceOrRefund() {
+		Account origin = insert("ORIGIN", 5000, true);
+		Account payee = insert("PAYEE", 0, false);
+		ShardedAccountStore.Shard originShard = store.shardOf(origin.getId());
+		JdbcTemplate originJdbc = shards.get((int) (origin.getId() % 2));
+
+		originJdbc.update("UPDATE ACCOUNT SET BALANCE = BALANCE - 100 WHERE ID = ?", origin.getId());
+		originJdbc.update("INSERT INTO ACCOUNT_OUTBOX VALUES (1, ?, ?, 100, ?)", origin.getId(), payee.getId(),
+				new Timestamp(0));
+		assertTrue(store.deliver(originShard, 1, origin.getId(), payee.getId(), 100));
+		assertTrue(store.deliver(originShard, 1, origin.getId(), payee.getId(), 100));
+		assertEquals(100, balance(payee.getId()));
+
+		Long missing = payee.getId() + 2;
+		originJdbc.update("UPDATE ACCOUNT SET BALANCE = BALANCE - 100 WHERE ID = ?", origin.getId());
+		originJdbc.update("INSERT INTO ACCOUNT_OUTBOX VALUES (2, ?, ?, 100, ?)", origin.getId(), missing,
+				new Timestamp(0));
+		assertFalse(store.deliver(originShard, 2, origin.getId(), missing, 100));
+		assertEquals(4900, balance(origin.getId()));
+		assertEquals(0, originJdbc.queryForObject("SELECT COUNT(*) FROM ACCOUNT_OUTBOX", Integer.class));
+	}
+
+	/**
+	 * Entries left on the outbox are delivered by the relay.
+	 *
+	 * {@link ShardedAccountStore#relay()}
+	 */
+	@Test
+	public void testRelay() {
+		Account origin = insert("ORIGIN", 5000, false);
+		Account payee = insert("PAYEE", 0, false);
+		JdbcTemplate originJdbc = shards.get((int) (origin.getId() % 2));
+		originJdbc.update("INSERT INTO ACCOUNT_OUTBOX VALUES (7, ?, ?, 300, ?)", origin.getId(), payee.getId(),
+				new Timestamp(0));
+
+		store.relay();
+
+		assertEquals(300, balance(payee.getId()));
+		assertEquals(0, originJdbc.queryForObject("SELECT COUNT(*) FROM ACCOUNT_OUTBOX", Integer.class));
+	}
+
+	/**
+	 * This test must fail because payee Account doesn't exist. Nothing is
+	 * withdrawn.
+	 *
+	 * {@link ShardedAccountStore#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferPayeeNotFound() {
+		Account origin = insert("ORIGIN", 5000, false);
+		Long missing = origin.getId() + 1;
+
+		assertThatThrownBy(() -> store.transfer(new TransactionOperationDto(origin.getId(), missing, 100L))) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage(String.format("Transaction - Account Id: %s was not found", missing));
+		assertEquals(5000, balance(origin.getId()));
+	}
+
+	/**
+	 * An Account without Treasury is updated with Treasury null or false, as
+	 * both mean false.
+	 *
+	 * {@link ShardedAccountStore#update(Account)}
+	 */
+	@Test
+	public void testUpdateNullTreasury() {
+		Account account = store
+				.insert(Account.builder().name("NAME").currency("EUR").balance(100L).treasury(null).build());
+
+		assertTrue(store.update(Account.builder().id(account.getId()).name("OTHER NAME").currency("EUR").balance(200L)
+				.build()));
+		assertTrue(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(false).build()));
+		assertFalse(store.update(Account.builder().id(account.getId()).name("NAME").currency("EUR").balance(100L)
+				.treasury(true).build()));
+	}
+
+}
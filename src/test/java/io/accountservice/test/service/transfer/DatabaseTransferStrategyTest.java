@@ -0,0 +1,170 @@
+package io.accountservice.test.service.transfer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.exception.account.AccountNotFoundException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.hot.HotAccountSlots;
+import io.accountservice.test.service.journal.TransferJournal;
+import net.bytebuddy.utility.RandomString;
+
+/**
+ * Test class for DatabaseTransferStrategy logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class DatabaseTransferStrategyTest {
+
+	/**
+	 * AccountRepository Mock
+	 */
+	@Mock
+	private AccountRepository repository;
+
+	/**
+	 * TransferJournal Mock
+	 */
+	@Mock
+	private TransferJournal journal;
+
+	/**
+	 * HotAccountSlots Mock. No Account is hot.
+	 */
+	@Mock
+	private HotAccountSlots slots;
+
+	/**
+	 * DatabaseTransferStrategy InjectMock. Strategy to Test with Mockito.
+	 */
+	@InjectMocks
+	private DatabaseTransferStrategy strategy;
+
+	private Long getRandomLong() {
+		return new Random().nextLong();
+	}
+
+	private String getRandomString() {
+		return RandomString.make(10);
+	}
+
+	/**
+	 * {@link DatabaseTransferStrategy#transfer(TransactionOperationDto)}
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		Long originId = getRandomLong();
+		Long payeeId = getRandomLong();
+
+		TransactionOperationDto transaction = mock(TransactionOperationDto.class);
+		when(transaction.getOrigin()).thenReturn(originId);
+		when(transaction.getPayee()).thenReturn(payeeId);
+		when(transaction.getAmountToTransfer()).thenReturn(Long.valueOf(150000));
+
+		Account expected = mock(Account.class);
+		when(repository.withdraw(originId, 150000)).thenReturn(true);
+		when(repository.deposit(payeeId, 150000)).thenReturn(true);
+		when(repository.findById(originId)).thenReturn(Optional.of(expected));
+		when(slots.refresh(expected)).thenReturn(expected);
+
+		Account actual = strategy.transfer(transaction);
+		assertEquals(expected, actual);
+
+		verify(repository, times(1)).withdraw(originId, 150000);
+		verify(repository, times(1)).deposit(payeeId, 150000);
+		verify(repository, never()).save(any());
+		verify(journal, times(1)).transfer(originId, payeeId, 150000);
+	}
+
+	/**
+	 * This test must fail because database rejects the withdrawal and origin
+	 * Account exists, so it isn't Treasury and can't set negative balance.
+	 *
+	 * {@link DatabaseTransferStrategy#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferNegativeBalanceException() {
+		when(repository.withdraw(1L, 600000)).thenReturn(false);
+		when(repository.existsById(1L)).thenReturn(true);
+
+		assertThatThrownBy(() -> strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(600000)))) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage(
+						"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails");
+
+		verify(repository, never()).deposit(anyLong(), anyLong());
+	}
+
+	/**
+	 * This test must fail because payee Account doesn't exist. Withdrawal is
+	 * rolled back with the transaction.
+	 *
+	 * {@link DatabaseTransferStrategy#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferPayeeNotFoundException() {
+		when(repository.withdraw(1L, 50000)).thenReturn(true);
+		when(repository.deposit(2L, 50000)).thenReturn(false);
+
+		assertThatThrownBy(() -> strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(50000)))) //
+				.isInstanceOf(AccountNotFoundException.class) //
+				.hasMessage("Transaction - Account Id: 2 was not found");
+	}
+
+	/**
+	 * Second transaction must be rejected because the running balance of origin
+	 * Account isn't enough, while the others are applied and netted.
+	 *
+	 * {@link DatabaseTransferStrategy#transferAll(List)}
+	 */
+	@Test
+	public void testTransferAll() {
+		Account origin = Account.builder().id(1L).name(getRandomString()).currency("EUR")
+				.balance(Long.valueOf(500000)).treasury(Boolean.FALSE).build();
+		Account payee = Account.builder().id(2L).name(getRandomString()).currency("EUR")
+				.balance(Long.valueOf(-150000)).treasury(Boolean.TRUE).build();
+		when(repository.findAllForUpdate(anyCollection())).thenReturn(Arrays.asList(origin, payee));
+
+		List<TransactionResultDto> results = strategy.transferAll(Arrays.asList( //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(300000)), //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(300000)), //
+				new TransactionOperationDto(2L, 1L, Long.valueOf(50000))));
+
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		assertEquals(1, results.get(1).getIndex());
+		assertTrue(results.get(2).isSuccess());
+
+		assertEquals(Long.valueOf(250000), origin.getBalance());
+		assertEquals(Long.valueOf(100000), payee.getBalance());
+		verify(repository, times(1)).findAllForUpdate(anyCollection());
+	}
+
+}
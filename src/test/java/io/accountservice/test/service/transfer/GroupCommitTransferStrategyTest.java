@@ -0,0 +1,148 @@
+package io.accountservice.test.service.transfer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.dto.TransactionResultDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.journal.TransferJournal;
+
+/**
+ * Test class for GroupCommitTransferStrategy logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class GroupCommitTransferStrategyTest {
+
+	@Mock
+	private AccountRepository repository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private TransferProperties properties = new TransferProperties();
+
+	@Mock
+	private TransferJournal journal;
+
+	@InjectMocks
+	private GroupCommitTransferStrategy strategy;
+
+	private Account origin;
+
+	private Account payee;
+
+	@BeforeEach
+	public void setUp() {
+		origin = Account.builder().id(1L).name("TEST").currency("EUR").balance(Long.valueOf(500000))
+				.treasury(Boolean.FALSE).build();
+		payee = Account.builder().id(2L).name("TEST2").currency("EUR").balance(Long.valueOf(-150000))
+				.treasury(Boolean.TRUE).build();
+
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		when(repository.findAllForUpdate(anyCollection())).thenReturn(Arrays.asList(origin, payee));
+
+		properties.getGroupCommit().setWindow(Duration.ofHours(1));
+		properties.getGroupCommit().setMaxCount(3);
+		strategy.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		strategy.stop();
+	}
+
+	/**
+	 * Three transactions fill one group, so they are applied with one query and
+	 * one commit. Second one is rejected because the running balance of origin
+	 * Account isn't enough.
+	 *
+	 * {@link GroupCommitTransferStrategy#transferAll(List)}
+	 */
+	@Test
+	public void testTransferAll() {
+		List<TransactionResultDto> results = strategy.transferAll(Arrays.asList( //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(300000)), //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(300000)), //
+				new TransactionOperationDto(2L, 1L, Long.valueOf(50000))));
+
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		assertEquals(
+				"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails",
+				results.get(1).getMessage());
+		assertTrue(results.get(2).isSuccess());
+
+		assertEquals(Long.valueOf(250000), origin.getBalance());
+		assertEquals(Long.valueOf(100000), payee.getBalance());
+		verify(repository, times(1)).findAllForUpdate(anyCollection());
+		verify(transactionTemplate, times(1)).execute(any());
+		verify(journal, times(1)).transferAll(argThat(applied -> applied.size() == 2));
+	}
+
+	/**
+	 * Every caller of a group fails when its commit fails.
+	 *
+	 * {@link GroupCommitTransferStrategy#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferCommitException() {
+		doThrow(new IllegalStateException("Commit failed")).when(transactionTemplate).execute(any());
+
+		assertThatThrownBy(() -> strategy.transferAll(Arrays.asList( //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(100000)), //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(100000)), //
+				new TransactionOperationDto(1L, 2L, Long.valueOf(100000))))) //
+				.isInstanceOf(IllegalStateException.class) //
+				.hasMessage("Commit failed");
+	}
+
+	/**
+	 * {@link GroupCommitTransferStrategy#transfer(TransactionOperationDto)}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransfer() throws CustomException {
+		properties.getGroupCommit().setMaxCount(1);
+		strategy.stop();
+		strategy.start();
+
+		Account actual = strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+
+		assertEquals(Long.valueOf(300000), actual.getBalance());
+		assertEquals(Long.valueOf(50000), payee.getBalance());
+	}
+
+}
@@ -0,0 +1,127 @@
+package io.accountservice.test.service.transfer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.accountservice.test.config.TransferProperties;
+import io.accountservice.test.exception.CustomException;
+import io.accountservice.test.model.dto.TransactionOperationDto;
+import io.accountservice.test.model.entity.Account;
+import io.accountservice.test.repository.AccountRepository;
+import io.accountservice.test.service.journal.TransferJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test class for OptimisticTransferStrategy logic
+ *
+ * @author Austr0s
+ */
+@SpringBootTest
+public class OptimisticTransferStrategyTest {
+
+	@Mock
+	private AccountRepository repository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private TransferProperties properties = new TransferProperties();
+
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Mock
+	private TransferJournal journal;
+
+	@InjectMocks
+	private OptimisticTransferStrategy strategy;
+
+	@BeforeEach
+	public void setUp() {
+		properties.getOptimistic().setMaxAttempts(2);
+		properties.getOptimistic().setBackoff(Duration.ZERO);
+		ReflectionTestUtils.setField(strategy, "meterRegistry", meterRegistry);
+		strategy.init();
+
+		when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+		when(repository.findById(1L)).thenAnswer(invocation -> Optional.of(Account.builder().id(1L).name("TEST")
+				.currency("EUR").balance(Long.valueOf(500000)).treasury(Boolean.FALSE).version(0L).build()));
+		when(repository.findById(2L)).thenAnswer(invocation -> Optional.of(Account.builder().id(2L).name("TEST2")
+				.currency("EUR").balance(Long.valueOf(-150000)).treasury(Boolean.TRUE).version(0L).build()));
+	}
+
+	/**
+	 * First attempt conflicts and second one is applied.
+	 *
+	 * {@link OptimisticTransferStrategy#transfer(TransactionOperationDto)}
+	 *
+	 * @throws CustomException
+	 */
+	@Test
+	public void testTransferRetriesOnConflict() throws CustomException {
+		doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L)).doNothing().when(repository).flush();
+
+		Account origin = strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)));
+		assertEquals(Long.valueOf(300000), origin.getBalance());
+
+		verify(repository, times(2)).flush();
+		assertEquals(2.0, meterRegistry.counter("account.transfer.optimistic.attempts").count());
+		assertEquals(1.0, meterRegistry.counter("account.transfer.optimistic.conflicts").count());
+	}
+
+	/**
+	 * Every attempt conflicts, so the transaction fails.
+	 *
+	 * {@link OptimisticTransferStrategy#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferExhaustsAttempts() {
+		doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L)).when(repository).flush();
+
+		assertThatThrownBy(() -> strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(200000)))) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage("Error Transfer: Account was modified by another transaction. Operation fails");
+
+		assertEquals(1.0, meterRegistry.counter("account.transfer.optimistic.exhausted").count());
+	}
+
+	/**
+	 * Negative balance isn't retried.
+	 *
+	 * {@link OptimisticTransferStrategy#transfer(TransactionOperationDto)}
+	 */
+	@Test
+	public void testTransferNegativeBalanceException() {
+		doNothing().when(repository).flush();
+
+		assertThatThrownBy(() -> strategy.transfer(new TransactionOperationDto(1L, 2L, Long.valueOf(600000)))) //
+				.isInstanceOf(CustomException.class) //
+				.hasMessage(
+						"Error Transfer: Treasury profile doesn't accept negative balance on this profile. Operation fails");
+
+		verify(repository, times(0)).flush();
+	}
+
+}
@@ -1,17 +1,82 @@
 DROP TABLE IF EXISTS ACCOUNT;
+DROP TABLE IF EXISTS ACCOUNT_SEQ;
+DROP TABLE IF EXISTS ACCOUNT_SLOT;
+DROP TABLE IF EXISTS ACCOUNT_JOURNAL;
+DROP TABLE IF EXISTS ACCOUNT_SNAPSHOT;
+DROP TABLE IF EXISTS ACCOUNT_SNAPSHOT_HEAD;
+DROP TABLE IF EXISTS ACCOUNT_IDEMPOTENCY;
+DROP TABLE IF EXISTS ACCOUNT_HEARTBEAT;
 
 CREATE TABLE ACCOUNT (
 	ID DOUBLE AUTO_INCREMENT PRIMARY KEY,
 	NAME VARCHAR(50) NOT NULL,
 	CURRENCY VARCHAR(5) NOT NULL,
-	BALANCE DOUBLE NOT NULL,
-	TREASURY BOOL DEFAULT(FALSE)
+	BALANCE BIGINT NOT NULL,
+	TREASURY BOOL DEFAULT(FALSE),
+	VERSION BIGINT NOT NULL DEFAULT 0
 );
 
-INSERT INTO ACCOUNT (NAME,CURRENCY,BALANCE,TREASURY) VALUES 
-	('TOMASA PINO MENDEZ','EUR',-5000,'1'),
-	('SORAYA MORAL MENA','EUR',-1500,'1');
-INSERT INTO ACCOUNT (NAME,CURRENCY,BALANCE) VALUES 
-	('JULIA ROMERA ROBLES','EUR',3000),
-	('DAMIAN HEREDIA PASTOR','EUR',4000),
-	('MARIA AMPARO LIN LAZARO','EUR',5000);
\ No newline at end of file
+-- Pooled id generator of ACCOUNT. Starts above the ids of the accounts below.
+CREATE TABLE ACCOUNT_SEQ (
+	NEXT_VAL BIGINT
+);
+INSERT INTO ACCOUNT_SEQ VALUES (1000);
+
+-- Balance slots of hot Accounts, added to the balance of their ACCOUNT row.
+CREATE TABLE ACCOUNT_SLOT (
+	ACCOUNT_ID BIGINT NOT NULL,
+	SLOT INT NOT NULL,
+	BALANCE BIGINT NOT NULL,
+	PRIMARY KEY (ACCOUNT_ID, SLOT)
+);
+
+CREATE TABLE ACCOUNT_JOURNAL (
+	SEQ BIGINT AUTO_INCREMENT PRIMARY KEY,
+	ENTRY_TYPE VARCHAR(8) NOT NULL,
+	ORIGIN BIGINT NOT NULL,
+	PAYEE BIGINT,
+	AMOUNT BIGINT NOT NULL,
+	CREATED_AT TIMESTAMP NOT NULL
+);
+CREATE INDEX ACCOUNT_JOURNAL_CREATED_AT ON ACCOUNT_JOURNAL (CREATED_AT);
+
+CREATE TABLE ACCOUNT_SNAPSHOT_HEAD (
+	SEQ BIGINT PRIMARY KEY,
+	CREATED_AT TIMESTAMP NOT NULL
+);
+
+CREATE TABLE ACCOUNT_SNAPSHOT (
+	SEQ BIGINT NOT NULL,
+	ACCOUNT_ID BIGINT NOT NULL,
+	BALANCE BIGINT NOT NULL,
+	PRIMARY KEY (SEQ, ACCOUNT_ID)
+);
+
+CREATE TABLE ACCOUNT_IDEMPOTENCY (
+	IDEMPOTENCY_KEY VARCHAR(100) PRIMARY KEY,
+	FINGERPRINT VARCHAR(100) NOT NULL,
+	ACCOUNT_ID BIGINT,
+	NAME VARCHAR(50),
+	CURRENCY VARCHAR(5),
+	BALANCE BIGINT,
+	TREASURY BOOL,
+	VERSION BIGINT,
+	CREATED_AT TIMESTAMP NOT NULL
+);
+CREATE INDEX ACCOUNT_IDEMPOTENCY_CREATED_AT ON ACCOUNT_IDEMPOTENCY (CREATED_AT);
+
+-- Primary time last written, read on replicas to measure their lag.
+CREATE TABLE ACCOUNT_HEARTBEAT (
+	ID INT PRIMARY KEY,
+	BEAT BIGINT NOT NULL
+);
+INSERT INTO ACCOUNT_HEARTBEAT VALUES (1, 0);
+
+
+INSERT INTO ACCOUNT (ID,NAME,CURRENCY,BALANCE,TREASURY) VALUES 
+	(1,'TOMASA PINO MENDEZ','EUR',-500000,'1'),
+	(2,'SORAYA MORAL MENA','EUR',-150000,'1');
+INSERT INTO ACCOUNT (ID,NAME,CURRENCY,BALANCE) VALUES 
+	(3,'JULIA ROMERA ROBLES','EUR',300000),
+	(4,'DAMIAN HEREDIA PASTOR','EUR',400000),
+	(5,'MARIA AMPARO LIN LAZARO','EUR',500000);
\ No newline at end of file